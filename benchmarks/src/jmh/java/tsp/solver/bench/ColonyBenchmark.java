@@ -0,0 +1,104 @@
+package tsp.solver.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import tsp.solver.test.TSPAntColony;
+
+//Hot Paths der Kolonie über mehrere Instanzgrößen, mit -prof gc für die Allokationsraten
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ColonyBenchmark {
+
+    @Param({"50", "200", "800"})
+    public int nodes;
+
+    private TSPAntColony tsp;
+    // Verdunstungsfaktor nahe 1 wie im KernelBenchmark: mit rho = 0.5 wären die Pheromone nach wenigen tausend Aufrufen
+    // subnormal und danach 0, gemessen würde dann nicht mehr der normale Pfad
+    private TSPAntColony pheromoneUpdates;
+    private List<List<Integer>> tours;
+    private List<Integer> tour;
+    private List<Integer> partialTour;
+    private double[] probabilities;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tsp = new TSPAntColony(nodes, 1.0, 0.5, 1.0, 1.0);
+        tsp.setSeed(42);
+        tsp.initializeDistancesWr();
+        tsp.initializePheromones();
+        pheromoneUpdates = new TSPAntColony(nodes, 1.0, 1e-6, 1.0, 1.0);
+        pheromoneUpdates.setSeed(42);
+        pheromoneUpdates.setDistances(tsp.getDistanceMatrix());
+        pheromoneUpdates.initializePheromones();
+        tours = new ArrayList<>();
+        for (List<Integer> t : tsp.simulateAnts()) {
+            tours.add(new ArrayList<>(t)); // Kopie, die Listen von simulateAnts sind Sichten auf wiederverwendete Puffer
+        }
+        tour = tours.get(0);
+        partialTour = new ArrayList<>(tour.subList(0, nodes / 2));
+        probabilities = tsp.calculateProbabilities(partialTour.get(partialTour.size() - 1), partialTour);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPheromones() {
+        tsp.initializePheromones();
+        pheromoneUpdates.initializePheromones();
+    }
+
+    @Benchmark
+    public int[][] constructTours() {
+        return tsp.constructTours();
+    }
+
+    @Benchmark
+    public List<List<Integer>> simulateAnts() {
+        return tsp.simulateAnts();
+    }
+
+    @Benchmark
+    public double[] calculateProbabilities() {
+        return tsp.calculateProbabilities(partialTour.get(partialTour.size() - 1), partialTour);
+    }
+
+    @Benchmark
+    public int selectNextNode() {
+        return tsp.selectNextNode(probabilities, partialTour);
+    }
+
+    @Benchmark
+    public void updatePheromones() {
+        pheromoneUpdates.updatePheromones(tours);
+    }
+
+    @Benchmark
+    public void evaporatePheromones() {
+        pheromoneUpdates.evaporatePheromones();
+    }
+
+    @Benchmark
+    public void calculateTourCost(Blackhole blackhole) {
+        blackhole.consume(tsp.calculateTourCost(tour));
+    }
+
+    //Eine komplette Iteration wie in TSPAntColony.main
+    @Benchmark
+    public void iteration() {
+        tsp.updatePheromones(tsp.constructTours());
+        tsp.evaporatePheromones();
+    }
+}
@@ -0,0 +1,80 @@
+package tsp.solver.bench;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import tsp.solver.test.ChoiceKernels;
+
+//Skalare gegen Vector API Kernel, eine Zeile der Knotenwahl bzw. eine n * n Matrix für die Verdunstung
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class KernelBenchmark {
+
+    @Param({"scalar", "vector"})
+    public String kernel;
+
+    @Param({"100", "1000", "10000"})
+    public int nodes;
+
+    private ChoiceKernels kernels;
+    private double[] choice;
+    private boolean[] visited;
+    private double[] scores;
+    private double[] matrix;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        kernels = kernel.equals("vector") ? ChoiceKernels.vector() : ChoiceKernels.scalar();
+        SplittableRandom random = new SplittableRandom(42);
+        choice = new double[nodes];
+        visited = new boolean[nodes];
+        scores = new double[nodes];
+        for (int i = 0; i < nodes; i++) {
+            choice[i] = random.nextDouble();
+            visited[i] = random.nextBoolean();
+        }
+        matrix = new double[Math.min(nodes, 2000) * Math.min(nodes, 2000)];
+    }
+
+    @Setup(Level.Iteration)
+    public void resetMatrix() {
+        Arrays.fill(matrix, 1.0);
+    }
+
+    @Benchmark
+    public double score() {
+        return kernels.score(choice, 0, visited, scores, nodes);
+    }
+
+    @Benchmark
+    public double scoreAndNormalize() {
+        double total = kernels.score(choice, 0, visited, scores, nodes);
+        kernels.divide(scores, nodes, total);
+        return scores[nodes - 1];
+    }
+
+    @Benchmark
+    public double prefixSums() {
+        System.arraycopy(choice, 0, scores, 0, nodes);
+        return kernels.prefixSums(scores, nodes);
+    }
+
+    // Faktor nahe 1, damit die Werte über viele Aufrufe nicht in den subnormalen Bereich fallen
+    @Benchmark
+    public double[] evaporate() {
+        kernels.scale(matrix, 0, matrix.length, 0.999999);
+        return matrix;
+    }
+}
@@ -0,0 +1,113 @@
+package tsp.solver.test;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+//Kernel mit jdk.incubator.vector in der bevorzugten Breite der CPU, Reste skalar.
+//Nur über ChoiceKernels.vector() per Reflection laden, sonst fehlt ohne --add-modules die Klasse
+final class VectorChoiceKernels implements ChoiceKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+    private static final int SCAN_STEPS = Integer.numberOfTrailingZeros(LANES);
+    // Schritt s des Scans: Lane i bekommt Lane i - 2^s dazu, sofern i >= 2^s
+    private static final VectorShuffle<Double>[] SCAN_SHUFFLES = scanShuffles();
+    private static final VectorMask<Double>[] SCAN_MASKS = scanMasks();
+
+    @Override
+    public double score(double[] choice, int offset, boolean[] visited, double[] scores, int n) {
+        DoubleVector sum = DoubleVector.zero(SPECIES);
+        int bound = SPECIES.loopBound(n);
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            VectorMask<Double> visitedMask = VectorMask.fromArray(SPECIES, visited, i);
+            DoubleVector score = DoubleVector.fromArray(SPECIES, choice, offset + i).blend(0.0, visitedMask);
+            score.intoArray(scores, i);
+            sum = sum.add(score);
+        }
+        double total = sum.reduceLanes(VectorOperators.ADD);
+        for (; i < n; i++) {
+            double score = visited[i] ? 0.0 : choice[offset + i];
+            scores[i] = score;
+            total += score;
+        }
+        return total;
+    }
+
+    @Override
+    public void divide(double[] values, int n, double divisor) {
+        int bound = SPECIES.loopBound(n);
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            DoubleVector.fromArray(SPECIES, values, i).div(divisor).intoArray(values, i);
+        }
+        for (; i < n; i++) {
+            values[i] /= divisor;
+        }
+    }
+
+    //Pro Vektor ein Scan in log2(LANES) Schritten (Lanes verschieben und addieren), dazu der Übertrag der vorigen Vektoren
+    @Override
+    public double prefixSums(double[] values, int n) {
+        int bound = SPECIES.loopBound(n);
+        double carry = 0.0;
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            DoubleVector sums = DoubleVector.fromArray(SPECIES, values, i);
+            for (int step = 0; step < SCAN_STEPS; step++) {
+                sums = sums.add(sums.rearrange(SCAN_SHUFFLES[step]), SCAN_MASKS[step]);
+            }
+            sums = sums.add(carry);
+            sums.intoArray(values, i);
+            carry = sums.lane(LANES - 1);
+        }
+        for (; i < n; i++) {
+            carry += values[i];
+            values[i] = carry;
+        }
+        return carry;
+    }
+
+    @Override
+    public void scale(double[] values, int from, int to, double factor) {
+        int bound = from + SPECIES.loopBound(to - from);
+        int i = from;
+        for (; i < bound; i += LANES) {
+            DoubleVector.fromArray(SPECIES, values, i).mul(factor).intoArray(values, i);
+        }
+        for (; i < to; i++) {
+            values[i] *= factor;
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"}) // generische Arrays lassen sich nur roh anlegen
+    private static VectorShuffle<Double>[] scanShuffles() {
+        VectorShuffle<Double>[] shuffles = new VectorShuffle[SCAN_STEPS];
+        for (int step = 0; step < SCAN_STEPS; step++) {
+            int shift = 1 << step;
+            shuffles[step] = VectorShuffle.fromOp(SPECIES, lane -> Math.max(0, lane - shift));
+        }
+        return shuffles;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"}) // generische Arrays lassen sich nur roh anlegen
+    private static VectorMask<Double>[] scanMasks() {
+        VectorMask<Double>[] masks = new VectorMask[SCAN_STEPS];
+        for (int step = 0; step < SCAN_STEPS; step++) {
+            int shift = 1 << step;
+            boolean[] bits = new boolean[LANES];
+            for (int lane = shift; lane < LANES; lane++) {
+                bits[lane] = true;
+            }
+            masks[step] = VectorMask.fromArray(SPECIES, bits, 0);
+        }
+        return masks;
+    }
+
+    @Override
+    public String name() {
+        return "vector (" + SPECIES + ")";
+    }
+}
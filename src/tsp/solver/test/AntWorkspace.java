@@ -0,0 +1,61 @@
+package tsp.solver.test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+//Wiederverwendbare Puffer für den Tourbau einer Ameise, damit pro Schritt nichts allokiert wird
+class AntWorkspace {
+    final boolean[] visited;
+    final double[] probabilities;
+    // Die unbesuchten Knoten stehen in unvisited[0, nodes - visitedCount), damit die Suche ohne Kandidaten nur sie durchläuft
+    final int[] unvisited;
+    private final int[] position; // Index eines Knotens in unvisited
+    int visitedCount;
+    SplittableRandom random;
+    LocalSearch localSearch;
+
+    // Zähler für ColonyMetrics, pro Tourbau zurückgesetzt und danach vom aufrufenden Thread eingesammelt
+    long probabilityNanos;
+    long selectionFallbacks;
+    long candidateFallbacks;
+
+    AntWorkspace(int nodes) {
+        this.visited = new boolean[nodes];
+        this.probabilities = new double[nodes];
+        this.unvisited = new int[nodes];
+        this.position = new int[nodes];
+    }
+
+    //Setzt den Besuchszustand für eine neue Tour zurück
+    void reset() {
+        Arrays.fill(visited, false);
+        visitedCount = 0;
+        for (int node = 0; node < unvisited.length; node++) {
+            unvisited[node] = node;
+            position[node] = node;
+        }
+    }
+
+    int unvisitedCount() {
+        return unvisited.length - visitedCount;
+    }
+
+    void resetCounters() {
+        probabilityNanos = 0;
+        selectionFallbacks = 0;
+        candidateFallbacks = 0;
+    }
+
+    //Der Knoten tauscht mit dem letzten unbesuchten den Platz, O(1)
+    void visit(int node) {
+        visited[node] = true;
+        visitedCount++;
+        int last = unvisited.length - visitedCount;
+        int index = position[node];
+        int moved = unvisited[last];
+        unvisited[index] = moved;
+        position[moved] = index;
+        unvisited[last] = node;
+        position[node] = last;
+    }
+}
@@ -0,0 +1,442 @@
+package tsp.solver.test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+//Front-End für viele kleine Instanzen: Anfragen laufen auf virtuellen Threads (falls die JVM sie hat) oder einem festen Pool,
+//Kolonien kommen aus einem ColonyPool nach n, ein Semaphore begrenzt die Anfragen in Bearbeitung (Backpressure).
+//Aufruf: BatchSolver [--http port] [--max-in-flight n], ohne --http werden JSON Lines von stdin gelesen und nach stdout geschrieben
+public class BatchSolver implements AutoCloseable {
+
+    //Eine Instanz mit Lösungsbudget, aus JSON: {"id", "points": [[x, y], ...] | "distances": [[...]], "edgeWeightType",
+    //"iterations", "timeMs", "stagnation", "seed", "q", "alpha", "candidates"}
+    public static final class Request {
+        private final String id;
+        private final Matrix distances;
+        private final double[][] distanceRows;
+        private final SolveBudget budget;
+        private final long seed;
+        private final double q;
+        private final double alpha;
+        private final int candidateListSize;
+
+        //Die Matrix wird von der Kolonie ohne Kopie verwendet
+        public Request(String id, Matrix distances, SolveBudget budget, long seed, double q, double alpha, int candidateListSize) {
+            this(id, distances, null, distances.size(), budget, seed, q, alpha, candidateListSize);
+        }
+
+        //Die Zeilen werden in die Distanzmatrix der Kolonie aus dem Pool kopiert
+        public Request(String id, double[][] distances, SolveBudget budget, long seed, double q, double alpha, int candidateListSize) {
+            this(id, null, distances, distances.length, budget, seed, q, alpha, candidateListSize);
+            for (double[] row : distances) {
+                if (row.length != distances.length) {
+                    throw new IllegalArgumentException("Distance matrix must be square.");
+                }
+            }
+        }
+
+        private Request(String id, Matrix distances, double[][] distanceRows, int nodes, SolveBudget budget, long seed, double q,
+                        double alpha, int candidateListSize) {
+            if (nodes < 3) {
+                throw new IllegalArgumentException("Instance needs at least 3 nodes: " + nodes);
+            }
+            if (candidateListSize < 0) {
+                throw new IllegalArgumentException("Candidate list size must not be negative: " + candidateListSize);
+            }
+            this.id = id;
+            this.distances = distances;
+            this.distanceRows = distanceRows;
+            this.budget = budget;
+            this.seed = seed;
+            this.q = q;
+            this.alpha = alpha;
+            this.candidateListSize = candidateListSize;
+        }
+
+        public static Request fromJson(String json) {
+            Object parsed = MiniJson.parse(json);
+            if (!(parsed instanceof Map)) {
+                throw new IllegalArgumentException("Request must be a JSON object.");
+            }
+            Map<?, ?> object = (Map<?, ?>) parsed;
+            Object id = object.get("id");
+            Matrix distances = null;
+            double[][] distanceRows = null;
+            if (object.get("points") != null) {
+                List<?> points = list(object, "points");
+                double[] x = new double[points.size()];
+                double[] y = new double[points.size()];
+                for (int i = 0; i < points.size(); i++) {
+                    List<?> point = (List<?>) points.get(i);
+                    x[i] = ((Number) point.get(0)).doubleValue();
+                    y[i] = ((Number) point.get(1)).doubleValue();
+                }
+                Object type = object.get("edgeWeightType");
+                distances = new CoordinateMatrix(type == null ? EdgeWeightType.EUC_2D : EdgeWeightType.valueOf(type.toString()), x, y);
+            } else {
+                List<?> rows = list(object, "distances");
+                distanceRows = new double[rows.size()][];
+                for (int i = 0; i < rows.size(); i++) {
+                    List<?> row = (List<?>) rows.get(i);
+                    distanceRows[i] = new double[row.size()];
+                    for (int j = 0; j < row.size(); j++) {
+                        distanceRows[i][j] = ((Number) row.get(j)).doubleValue();
+                    }
+                }
+            }
+
+            SolveBudget budget = SolveBudget.ofIterations((int) number(object, "iterations", 100));
+            if (object.get("timeMs") != null) {
+                budget = budget.withTimeLimit(Duration.ofMillis((long) number(object, "timeMs", 0)));
+            }
+            if (object.get("stagnation") != null) {
+                budget = budget.withStagnationLimit((int) number(object, "stagnation", 0));
+            }
+            String requestId = id == null ? null : id instanceof Double ? formatId((Double) id) : id.toString();
+            long seed = (long) number(object, "seed", 0);
+            double q = number(object, "q", 1.0);
+            double alpha = number(object, "alpha", 2.0);
+            int candidates = (int) number(object, "candidates", 15);
+            return distances != null
+                    ? new Request(requestId, distances, budget, seed, q, alpha, candidates)
+                    : new Request(requestId, distanceRows, budget, seed, q, alpha, candidates);
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public int getNodes() {
+            return distances != null ? distances.size() : distanceRows.length;
+        }
+
+        private static List<?> list(Map<?, ?> object, String key) {
+            Object value = object.get(key);
+            if (!(value instanceof List)) {
+                throw new IllegalArgumentException("Request needs an array '" + key + "'.");
+            }
+            return (List<?>) value;
+        }
+
+        private static double number(Map<?, ?> object, String key, double defaultValue) {
+            Object value = object.get(key);
+            if (value == null) {
+                return defaultValue;
+            }
+            if (!(value instanceof Number)) {
+                throw new IllegalArgumentException("'" + key + "' must be a number.");
+            }
+            return ((Number) value).doubleValue();
+        }
+
+        private static String formatId(double id) {
+            return id == Math.rint(id) ? Long.toString((long) id) : Double.toString(id);
+        }
+    }
+
+    //Ergebnis einer Anfrage, die Tour ohne Rückkehr zum Start. Lief keine Iteration (z.B. "iterations": 0 oder "timeMs": 0),
+    //sind "tour" und "cost" null
+    public static final class Response {
+        private final String id;
+        private final SolveResult result;
+        private final String error;
+
+        private Response(String id, SolveResult result, String error) {
+            this.id = id;
+            this.result = result;
+            this.error = error;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        //null bei Fehler
+        public SolveResult getResult() {
+            return result;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public String toJson() {
+            StringBuilder json = new StringBuilder("{\"id\":").append(id == null ? "null" : MiniJson.quote(id));
+            if (error != null) {
+                return json.append(",\"error\":").append(MiniJson.quote(error)).append('}').toString();
+            }
+            Tour tour = result.getBestTour();
+            if (tour == null) {
+                json.append(",\"cost\":null,\"tour\":null");
+            } else {
+                json.append(",\"cost\":").append(tour.getCost()).append(",\"tour\":[");
+                for (int i = 0; i < tour.length() - 1; i++) {
+                    if (i > 0) {
+                        json.append(',');
+                    }
+                    json.append(tour.getNode(i));
+                }
+                json.append(']');
+            }
+            return json.append(",\"iterations\":").append(result.getIterations())
+                    .append(",\"ms\":").append(String.format(Locale.ROOT, "%.3f", result.getElapsedMillis()))
+                    .append('}').toString();
+        }
+    }
+
+    private final ExecutorService executor;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final ColonyPool pool;
+    private final LongAdder solves = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final long startNanos = System.nanoTime();
+
+    public BatchSolver(int maxInFlight) {
+        this(maxInFlight, new ColonyPool(Math.max(1, maxInFlight), 1.0, 0.5));
+    }
+
+    public BatchSolver(int maxInFlight, ColonyPool pool) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("At least one request must be allowed in flight: " + maxInFlight);
+        }
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.pool = pool;
+        this.executor = newExecutor(maxInFlight);
+    }
+
+    //Virtuelle Threads ab Java 21 per Reflection, sonst ein fester Pool mit so vielen Threads wie Anfragen in Bearbeitung sein dürfen
+    private static ExecutorService newExecutor(int threads) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "batch-solver");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    //Blockiert, solange maxInFlight Anfragen in Bearbeitung sind
+    public CompletableFuture<Response> submit(Request request) throws InterruptedException {
+        inFlight.acquire();
+        return start(request);
+    }
+
+    //null, wenn gerade keine Anfrage mehr angenommen werden kann
+    public CompletableFuture<Response> trySubmit(Request request) {
+        return inFlight.tryAcquire() ? start(request) : null;
+    }
+
+    private CompletableFuture<Response> start(Request request) {
+        try {
+            return CompletableFuture.supplyAsync(() -> solve(request), executor).whenComplete((response, error) -> inFlight.release());
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    //Löst im aufrufenden Thread mit einer Kolonie aus dem Pool
+    public Response solve(Request request) {
+        TSPAntColony colony = pool.acquire(request.getNodes());
+        try {
+            if (request.distances != null) {
+                colony.setDistances(request.distances);
+            } else {
+                colony.setDistances(request.distanceRows);
+            }
+            colony.setQ(request.q);
+            colony.setAlpha(request.alpha);
+            colony.setCandidateListSize(Math.min(request.candidateListSize, request.getNodes() - 1));
+            colony.setSeed(request.seed);
+            colony.initializePheromones();
+            SolveResult result = colony.solve(request.budget);
+            solves.increment();
+            return new Response(request.id, result, null);
+        } catch (RuntimeException e) {
+            failures.increment();
+            return new Response(request.id, null, e.getMessage() == null ? e.toString() : e.getMessage());
+        } finally {
+            pool.release(colony);
+        }
+    }
+
+    //Fehlerantwort für eine Ausnahme außerhalb von solve, z.B. aus dem Executor
+    private Response failed(String id, Throwable error) {
+        failures.increment();
+        return new Response(id, null, error.getMessage() == null ? error.toString() : error.getMessage());
+    }
+
+    public long getSolves() {
+        return solves.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    //Seit dem Start des Solvers
+    public double getSolvesPerSecond() {
+        return solves.sum() * 1e9 / Math.max(1, System.nanoTime() - startNanos);
+    }
+
+    public String statsJson() {
+        return String.format(Locale.ROOT, "{\"solves\":%d,\"failures\":%d,\"solvesPerSecond\":%.1f,\"inFlight\":%d,"
+                        + "\"coloniesCreated\":%d,\"coloniesReused\":%d}",
+                getSolves(), getFailures(), getSolvesPerSecond(), inFlightCount(), pool.getCreated(), pool.getReused());
+    }
+
+    private int inFlightCount() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int httpPort = -1;
+        int maxInFlight = Runtime.getRuntime().availableProcessors() * 2;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--http") && i + 1 < args.length) {
+                httpPort = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--max-in-flight") && i + 1 < args.length) {
+                maxInFlight = Integer.parseInt(args[++i]);
+            } else {
+                System.err.println("Aufruf: BatchSolver [--http port] [--max-in-flight n]");
+                System.exit(2);
+            }
+        }
+
+        BatchSolver solver = new BatchSolver(maxInFlight);
+        if (httpPort >= 0) {
+            serveHttp(solver, httpPort);
+        } else {
+            solveStdin(solver, System.in, System.out);
+            solver.close();
+        }
+    }
+
+    //Liest JSON Lines bis EOF, Antworten in Fertigstellungsreihenfolge, am Ende Durchsatz nach stderr
+    private static void solveStdin(BatchSolver solver, InputStream in, PrintStream out) throws IOException, InterruptedException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        long start = System.nanoTime();
+        CompletableFuture<?> all = CompletableFuture.completedFuture(null);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            Request request;
+            try {
+                request = Request.fromJson(line);
+            } catch (RuntimeException e) {
+                solver.failures.increment();
+                writeLine(writer, new Response(null, null, "Invalid request: " + e.getMessage()).toJson());
+                continue;
+            }
+            //Fehler pro Anfrage als eigene Zeile, damit eine Anfrage nicht den ganzen Stapel beendet
+            CompletableFuture<Void> done = solver.submit(request)
+                    .handle((response, error) -> error == null ? response : solver.failed(request.id, error))
+                    .thenAccept(response -> writeLine(writer, response.toJson()));
+            all = CompletableFuture.allOf(all, done);
+        }
+        try {
+            all.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Batch failed.", e.getCause());
+        }
+        writer.flush();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf(Locale.ROOT, "%d Lösungen in %.2f s = %.1f Lösungen/s (%d Fehler, %d Kolonien angelegt, %d wiederverwendet)%n",
+                solver.getSolves(), seconds, solver.getSolves() / seconds, solver.getFailures(),
+                solver.pool.getCreated(), solver.pool.getReused());
+    }
+
+    private static void writeLine(Writer writer, String line) {
+        synchronized (writer) {
+            try {
+                writer.write(line);
+                writer.write('\n');
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    //POST /solve mit einer Anfrage als JSON, 503 wenn voll; GET /stats für den Durchsatz
+    private static void serveHttp(BatchSolver solver, int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/solve", exchange -> {
+            try {
+                if (!exchange.getRequestMethod().equals("POST")) {
+                    respond(exchange, 405, "{\"error\":\"POST only\"}");
+                    return;
+                }
+                Request request;
+                try {
+                    request = Request.fromJson(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+                } catch (RuntimeException e) {
+                    solver.failures.increment();
+                    respond(exchange, 400, new Response(null, null, "Invalid request: " + e.getMessage()).toJson());
+                    return;
+                }
+                CompletableFuture<Response> future = solver.trySubmit(request);
+                if (future == null) {
+                    exchange.getResponseHeaders().set("Retry-After", "1");
+                    respond(exchange, 503, "{\"error\":\"busy\"}");
+                    return;
+                }
+                Response response = future.get();
+                respond(exchange, response.getError() == null ? 200 : 422, response.toJson());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                respond(exchange, 503, "{\"error\":\"interrupted\"}");
+            } catch (ExecutionException | RuntimeException e) {
+                respond(exchange, 500, solver.failed(null, e instanceof ExecutionException ? e.getCause() : e).toJson());
+            }
+        });
+        server.createContext("/stats", exchange -> respond(exchange, 200, solver.statsJson()));
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        System.err.println("BatchSolver auf http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/solve");
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+}
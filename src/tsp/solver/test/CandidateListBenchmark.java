@@ -0,0 +1,44 @@
+package tsp.solver.test;
+
+//Vergleicht die Zeit pro Iteration mit voller Suche und mit Kandidatenlisten für wachsende Knotenzahlen
+//Aufruf: CandidateListBenchmark [k] [maxFullScanNodes] [iterations] [nodes...]
+public class CandidateListBenchmark {
+
+    public static void main(String[] args) {
+        int k = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int maxFullScanNodes = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        int[] sizes = {250, 500, 1000, 2000, 4000};
+        if (args.length > 3) {
+            sizes = new int[args.length - 3];
+            for (int i = 3; i < args.length; i++) {
+                sizes[i - 3] = Integer.parseInt(args[i]);
+            }
+        }
+
+        System.out.printf("%8s %16s %16s%n", "nodes", "full scan [ms]", "k=" + k + " [ms]");
+        for (int n : sizes) {
+            String fullScan = n <= maxFullScanNodes ? String.format("%16.1f", timePerIteration(n, 0, iterations)) : String.format("%16s", "-");
+            System.out.printf("%8d %s %16.1f%n", n, fullScan, timePerIteration(n, k, iterations));
+        }
+    }
+
+    //Durchschnittliche Dauer einer Iteration (simulateAnts -> updatePheromones -> evaporatePheromones) in ms
+    private static double timePerIteration(int nodes, int k, int iterations) {
+        TSPAntColony tsp = new TSPAntColony(nodes, 1.0, 0.5, 1.0, 1.0);
+        tsp.initializeDistancesWr();
+        tsp.initializePheromones();
+        tsp.setCandidateListSize(k);
+
+        // Aufwärmen, damit Kandidatenlisten, choiceInfo und JIT nicht mitgemessen werden
+        tsp.updatePheromones(tsp.constructTours());
+        tsp.evaporatePheromones();
+
+        long startTime = System.nanoTime();
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            tsp.updatePheromones(tsp.constructTours());
+            tsp.evaporatePheromones();
+        }
+        return (System.nanoTime() - startTime) / 1_000_000.0 / iterations;
+    }
+}
@@ -0,0 +1,62 @@
+package tsp.solver.test;
+
+//Innere Schleifen der Knotenwahl und Verdunstung als austauschbare Kernel: skalar oder mit jdk.incubator.vector.
+//Standard ist skalar. Die Vektor Variante rechnet in der bevorzugten Breite der CPU und bildet Summen in anderer Reihenfolge,
+//gleicher Seed ergibt dann je nach CPU andere Touren. Sie wird nur mit -Dtsp.kernels=vector (Fehler ohne das Modul) oder
+//-Dtsp.kernels=auto (Vektor wenn --add-modules jdk.incubator.vector gesetzt ist, sonst skalar) per Reflection geladen
+public interface ChoiceKernels {
+
+    //scores[i] = visited[i] ? 0 : choice[offset + i] für i < n, liefert die Summe
+    double score(double[] choice, int offset, boolean[] visited, double[] scores, int n);
+
+    //values[i] /= divisor für i < n
+    void divide(double[] values, int n, double divisor);
+
+    //Inklusive Präfixsummen in place für i < n, liefert die Gesamtsumme
+    double prefixSums(double[] values, int n);
+
+    //values[i] *= factor für from <= i < to
+    void scale(double[] values, int from, int to, double factor);
+
+    String name();
+
+    //Beim Start gewählter Kernel
+    static ChoiceKernels get() {
+        return Holder.SELECTED;
+    }
+
+    static ChoiceKernels scalar() {
+        return ScalarChoiceKernels.INSTANCE;
+    }
+
+    //Wirft IllegalStateException, wenn jdk.incubator.vector nicht geladen ist
+    static ChoiceKernels vector() {
+        try {
+            return (ChoiceKernels) Class.forName("tsp.solver.test.VectorChoiceKernels").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new IllegalStateException("Vector kernels need the jdk.incubator.vector module (--add-modules jdk.incubator.vector).", e);
+        }
+    }
+
+    final class Holder {
+        private static final ChoiceKernels SELECTED = select(System.getProperty("tsp.kernels", "scalar"));
+
+        private Holder() {
+        }
+
+        private static ChoiceKernels select(String requested) {
+            switch (requested) {
+                case "vector":
+                    return vector();
+                case "auto":
+                    try {
+                        return vector();
+                    } catch (IllegalStateException e) {
+                        return scalar();
+                    }
+                default:
+                    return scalar();
+            }
+        }
+    }
+}
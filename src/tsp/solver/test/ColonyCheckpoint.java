@@ -0,0 +1,287 @@
+package tsp.solver.test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+//Binärer Checkpoint einer Kolonie für Warmstarts: Parameter, Zufallszustand (seed + Iteration), bisher beste Tour und Pheromone.
+//32 Byte Kopf (Magic, Version, Flags, n, Länge und CRC32 der Nutzdaten, reserviert), danach die Nutzdaten little endian,
+//bei COMPRESSED mit Deflate gepackt. Die Distanzen gehören zur Instanz und werden nicht gespeichert
+public final class ColonyCheckpoint {
+    private static final int MAGIC = 0x54535043; // "TSPC"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int FLAG_COMPRESSED = 1;
+    private static final int CHUNK_BYTES = 1 << 16;
+    private static final long MAP_WINDOW_BYTES = 1L << 30;
+
+    private ColonyCheckpoint() {
+    }
+
+    public static void write(TSPAntColony colony, Path file, boolean compress) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(HEADER_BYTES);
+            Output output = new Output(channel, compress);
+            colony.writeCheckpoint(output);
+            output.finish();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(compress ? FLAG_COMPRESSED : 0).putInt(colony.getNodes())
+                    .putLong(output.length).putInt((int) output.crc.getValue()).putInt(0).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        }
+    }
+
+    //Blendet die Datei per Memory-Mapping ein und überschreibt Parameter, Pheromone und bisher beste Tour der Kolonie.
+    //Die Kolonie muss dieselbe Knotenzahl haben, die Kosten der besten Tour werden mit den aktuellen Distanzen neu berechnet
+    public static void restore(TSPAntColony colony, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = readHeader(channel, file);
+            int flags = header.getInt();
+            int n = header.getInt();
+            long length = header.getLong();
+            int crc = header.getInt();
+            if (n != colony.getNodes()) {
+                throw new IOException("Checkpoint has " + n + " nodes, colony has " + colony.getNodes() + ": " + file);
+            }
+            colony.readCheckpoint(new Input(channel, (flags & FLAG_COMPRESSED) != 0, length, crc, file));
+        }
+    }
+
+    //Knotenzahl aus dem Kopf, um eine passende Kolonie anzulegen
+    public static int readNodes(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = readHeader(channel, file);
+            header.getInt();
+            return header.getInt();
+        }
+    }
+
+    //Liest den Kopf bis einschließlich Version, der Puffer steht danach auf den Flags
+    private static ByteBuffer readHeader(FileChannel channel, Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining()) {
+            if (channel.read(header) < 0) {
+                throw new IOException("Truncated checkpoint header: " + file);
+            }
+        }
+        header.flip();
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Not a colony checkpoint: " + file);
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported checkpoint version " + version + ": " + file);
+        }
+        return header;
+    }
+
+    //Gepufferte Nutzdaten, werden blockweise direkt oder über den Deflater in den Kanal geschrieben
+    static final class Output {
+        private final FileChannel channel;
+        private final Deflater deflater;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private final ByteBuffer compressed;
+        private final CRC32 crc = new CRC32();
+        private long length;
+
+        private Output(FileChannel channel, boolean compress) {
+            this.channel = channel;
+            this.deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+            this.compressed = compress ? ByteBuffer.allocateDirect(CHUNK_BYTES) : null;
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void putDouble(double value) throws IOException {
+            ensure(Double.BYTES);
+            buffer.putDouble(value);
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            length += buffer.remaining();
+            crc.update(buffer.duplicate());
+            if (deflater == null) {
+                writeFully(buffer);
+            } else {
+                deflater.setInput(buffer);
+                while (!deflater.needsInput()) {
+                    drainDeflater();
+                }
+            }
+            buffer.clear();
+        }
+
+        private void finish() throws IOException {
+            flush();
+            if (deflater != null) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    drainDeflater();
+                }
+                deflater.end();
+            }
+        }
+
+        private void drainDeflater() throws IOException {
+            compressed.clear();
+            deflater.deflate(compressed);
+            compressed.flip();
+            writeFully(compressed);
+        }
+
+        private void writeFully(ByteBuffer source) throws IOException {
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+        }
+    }
+
+    //Liest die eingeblendeten Nutzdaten, unkomprimiert direkt aus dem Mapping, sonst blockweise über den Inflater
+    static final class Input {
+        private final FileChannel channel;
+        private final Path file;
+        private final Inflater inflater;
+        private final long length;
+        private final int expectedCrc;
+        private final CRC32 crc = new CRC32();
+        private ByteBuffer buffer; // aktueller Ausschnitt der Nutzdaten, Position 0 entspricht dem Offset start
+        private long start;
+
+        private Input(FileChannel channel, boolean compressed, long length, int expectedCrc, Path file) throws IOException {
+            this.channel = channel;
+            this.file = file;
+            this.length = length;
+            this.expectedCrc = expectedCrc;
+            if (compressed) {
+                // Die gepackten Daten sind klein genug für ein einzelnes Mapping
+                long compressedBytes = channel.size() - HEADER_BYTES;
+                if (compressedBytes > Integer.MAX_VALUE) {
+                    throw new IOException("Compressed checkpoint too large to map: " + file);
+                }
+                this.inflater = new Inflater();
+                inflater.setInput(channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, compressedBytes));
+                this.buffer = ByteBuffer.allocateDirect(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                buffer.limit(0);
+            } else {
+                if (channel.size() < HEADER_BYTES + length) {
+                    throw new IOException("Truncated checkpoint: " + file);
+                }
+                this.inflater = null;
+                mapWindow(0);
+            }
+        }
+
+        int getInt() throws IOException {
+            ensure(Integer.BYTES);
+            return buffer.getInt();
+        }
+
+        long getLong() throws IOException {
+            ensure(Long.BYTES);
+            return buffer.getLong();
+        }
+
+        double getDouble() throws IOException {
+            ensure(Double.BYTES);
+            return buffer.getDouble();
+        }
+
+        <E extends Enum<E>> E getEnum(E[] values) throws IOException {
+            int ordinal = getInt();
+            if (ordinal < 0 || ordinal >= values.length) {
+                throw new IOException("Corrupt checkpoint: " + file);
+            }
+            return values[ordinal];
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            if (start + buffer.position() + bytes > length) {
+                throw new IOException("Truncated checkpoint: " + file);
+            }
+            if (inflater == null) {
+                mapWindow(start + buffer.position());
+            } else {
+                refill(bytes);
+            }
+        }
+
+        //Ein Mapping ist auf 2 GB begrenzt, große Pheromon Matrizen werden in Fenstern eingeblendet
+        private void mapWindow(long offset) throws IOException {
+            if (buffer != null) {
+                updateCrc();
+            }
+            long size = Math.min(MAP_WINDOW_BYTES, length - offset);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + offset, size);
+            buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+            start = offset;
+        }
+
+        //Ungelesene Bytes an den Anfang schieben und dahinter weiter entpacken
+        private void refill(int bytes) throws IOException {
+            updateCrc();
+            start += buffer.position();
+            buffer.compact();
+            try {
+                while (buffer.position() < bytes) {
+                    if (inflater.inflate(buffer) == 0 && (inflater.finished() || inflater.needsInput())) {
+                        throw new IOException("Truncated checkpoint: " + file);
+                    }
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupt checkpoint: " + file, e);
+            }
+            buffer.flip();
+        }
+
+        //Prüfsumme über die gelesenen Bytes des Puffers, bevor er verworfen oder verschoben wird
+        private void updateCrc() {
+            ByteBuffer read = buffer.duplicate();
+            read.flip();
+            crc.update(read);
+        }
+
+        //Nach dem letzten Wert aufrufen: prüft Länge und Prüfsumme
+        void finish() throws IOException {
+            updateCrc();
+            if (start + buffer.position() != length) {
+                throw new IOException("Checkpoint length mismatch: " + file);
+            }
+            if (inflater != null) {
+                inflater.end();
+            }
+            if ((int) crc.getValue() != expectedCrc) {
+                throw new IOException("Checkpoint checksum mismatch: " + file);
+            }
+        }
+    }
+}
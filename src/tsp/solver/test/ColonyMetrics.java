@@ -0,0 +1,232 @@
+package tsp.solver.test;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+//Zeiten und Zähler pro Phase einer Kolonie, eingeschaltet mit TSPAntColony.enableMetrics().
+//Ausgeschaltet kostet es nur eine null Prüfung pro Phase. Die Zähler werden vom rechnenden Thread geschrieben
+//und dürfen aus jedem Thread gelesen werden (JMX, JSON Ausgabe). Die Kolonie selbst wird nie von einem anderen Thread gelesen
+public final class ColonyMetrics implements ColonyMetricsMXBean {
+    private static final ScheduledExecutorService DUMP_SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "colony-metrics-dump");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LongAdder iterations = new LongAdder();
+    private final LongAdder antSteps = new LongAdder();
+    private final LongAdder constructionNanos = new LongAdder();
+    private final LongAdder probabilityNanos = new LongAdder(); // summiert über alle Threads des Tourbaus
+    private final LongAdder depositNanos = new LongAdder();
+    private final LongAdder evaporationNanos = new LongAdder();
+    private final LongAdder bestTourSearchNanos = new LongAdder();
+    private final LongAdder selectionFallbacks = new LongAdder();
+    private final LongAdder candidateFallbacks = new LongAdder();
+    private volatile double bestSoFarCost = Double.POSITIVE_INFINITY;
+    private volatile double pheromoneEntropy = Double.NaN;
+    private volatile boolean entropyRequested = true;
+
+    ColonyMetrics() {
+    }
+
+    void recordConstruction(long nanos, long steps) {
+        iterations.increment();
+        constructionNanos.add(nanos);
+        antSteps.add(steps);
+    }
+
+    void recordProbabilities(long nanos) {
+        probabilityNanos.add(nanos);
+    }
+
+    void recordDeposit(long nanos) {
+        depositNanos.add(nanos);
+    }
+
+    void recordEvaporation(long nanos) {
+        evaporationNanos.add(nanos);
+    }
+
+    void recordBestTourSearch(long nanos) {
+        bestTourSearchNanos.add(nanos);
+    }
+
+    //Vom rechnenden Thread am Ende einer Iteration: true, wenn seit der letzten Veröffentlichung jemand die Entropie gelesen hat
+    boolean takeEntropyRequest() {
+        if (!entropyRequested) {
+            return false;
+        }
+        entropyRequested = false;
+        return true;
+    }
+
+    void publishBestSoFarCost(double cost) {
+        bestSoFarCost = cost;
+    }
+
+    void publishPheromoneEntropy(double entropy) {
+        pheromoneEntropy = entropy;
+    }
+
+    void recordFallbacks(long selection, long candidate) {
+        if (selection != 0) {
+            selectionFallbacks.add(selection);
+        }
+        if (candidate != 0) {
+            candidateFallbacks.add(candidate);
+        }
+    }
+
+    @Override
+    public long getIterations() {
+        return iterations.sum();
+    }
+
+    @Override
+    public long getAntSteps() {
+        return antSteps.sum();
+    }
+
+    //Bezogen auf die gemessene Rechenzeit aller Phasen, Leerlauf zwischen den Iterationen zählt nicht
+    @Override
+    public double getIterationsPerSecond() {
+        long nanos = constructionNanos.sum() + depositNanos.sum() + evaporationNanos.sum() + bestTourSearchNanos.sum();
+        return nanos == 0 ? 0.0 : iterations.sum() * 1e9 / nanos;
+    }
+
+    @Override
+    public double getAntStepsPerSecond() {
+        long nanos = constructionNanos.sum();
+        return nanos == 0 ? 0.0 : antSteps.sum() * 1e9 / nanos;
+    }
+
+    @Override
+    public double getConstructionMillis() {
+        return constructionNanos.sum() / 1e6;
+    }
+
+    @Override
+    public double getProbabilityMillis() {
+        return probabilityNanos.sum() / 1e6;
+    }
+
+    @Override
+    public double getDepositMillis() {
+        return depositNanos.sum() / 1e6;
+    }
+
+    @Override
+    public double getEvaporationMillis() {
+        return evaporationNanos.sum() / 1e6;
+    }
+
+    @Override
+    public double getBestTourSearchMillis() {
+        return bestTourSearchNanos.sum() / 1e6;
+    }
+
+    //Zufallsauswahl ohne Treffer (alle Gewichte null oder Rundungsfehler), dann wird ein zufälliger bzw. der nächste unbesuchte Knoten genommen
+    @Override
+    public long getSelectionFallbacks() {
+        return selectionFallbacks.sum();
+    }
+
+    //Alle Kandidaten besucht, dann wird über alle Knoten gesucht
+    @Override
+    public long getCandidateFallbacks() {
+        return candidateFallbacks.sum();
+    }
+
+    //Stand am Ende der letzten Iteration
+    @Override
+    public double getBestSoFarCost() {
+        return bestSoFarCost;
+    }
+
+    //Wert vom Ende der letzten Iteration nach einem Abruf: das Lesen fordert die Berechnung (O(n * n)) für die nächste Iteration an,
+    //sie läuft auf dem rechnenden Thread und ohne Abrufe gar nicht. NaN, bis der erste Wert veröffentlicht wurde
+    @Override
+    public double getPheromoneEntropy() {
+        entropyRequested = true;
+        return pheromoneEntropy;
+    }
+
+    @Override
+    public void reset() {
+        iterations.reset();
+        antSteps.reset();
+        constructionNanos.reset();
+        probabilityNanos.reset();
+        depositNanos.reset();
+        evaporationNanos.reset();
+        bestTourSearchNanos.reset();
+        selectionFallbacks.reset();
+        candidateFallbacks.reset();
+    }
+
+    //Meldet die Metriken beim Plattform MBeanServer an, z.B. für JConsole
+    public ObjectName register(String name) {
+        try {
+            ObjectName objectName = new ObjectName("tsp.solver:type=ColonyMetrics,name=" + ObjectName.quote(name));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(this, objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register colony metrics '" + name + "'.", e);
+        }
+    }
+
+    public static void unregister(ObjectName objectName) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not unregister colony metrics " + objectName + ".", e);
+        }
+    }
+
+    //Schreibt periodisch eine JSON Zeile, beenden mit cancel() auf dem Ergebnis. Schreibfehler werden gemeldet,
+    //die Ausgabe läuft weiter (eine Ausnahme würde die periodische Aufgabe stillschweigend beenden)
+    public ScheduledFuture<?> scheduleJsonDump(Writer output, Duration period) {
+        long periodNanos = period.toNanos();
+        if (periodNanos <= 0) {
+            throw new IllegalArgumentException("Period must be positive: " + period);
+        }
+        return DUMP_SCHEDULER.scheduleAtFixedRate(() -> {
+            try {
+                synchronized (output) {
+                    output.write(toJson());
+                    output.write(System.lineSeparator());
+                    output.flush();
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Colony metrics dump failed: " + e);
+            }
+        }, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public String toJson() {
+        return String.format(Locale.ROOT, "{\"timestamp\":%d,\"iterations\":%d,\"antSteps\":%d,\"iterationsPerSecond\":%.3f,"
+                        + "\"antStepsPerSecond\":%.1f,\"constructionMs\":%.3f,\"probabilityMs\":%.3f,\"depositMs\":%.3f,"
+                        + "\"evaporationMs\":%.3f,\"bestTourSearchMs\":%.3f,\"selectionFallbacks\":%d,\"candidateFallbacks\":%d,"
+                        + "\"bestSoFarCost\":%s,\"pheromoneEntropy\":%s}",
+                System.currentTimeMillis(), getIterations(), getAntSteps(), getIterationsPerSecond(), getAntStepsPerSecond(),
+                getConstructionMillis(), getProbabilityMillis(), getDepositMillis(), getEvaporationMillis(),
+                getBestTourSearchMillis(), getSelectionFallbacks(), getCandidateFallbacks(),
+                jsonNumber(getBestSoFarCost()), jsonNumber(getPheromoneEntropy()));
+    }
+
+    private static String jsonNumber(double value) {
+        return Double.isFinite(value) ? Double.toString(value) : "null";
+    }
+}
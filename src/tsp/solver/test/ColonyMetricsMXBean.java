@@ -0,0 +1,32 @@
+package tsp.solver.test;
+
+//JMX Sicht auf ColonyMetrics, Zeiten in Millisekunden
+public interface ColonyMetricsMXBean {
+    long getIterations();
+
+    long getAntSteps();
+
+    double getIterationsPerSecond();
+
+    double getAntStepsPerSecond();
+
+    double getConstructionMillis();
+
+    double getProbabilityMillis();
+
+    double getDepositMillis();
+
+    double getEvaporationMillis();
+
+    double getBestTourSearchMillis();
+
+    long getSelectionFallbacks();
+
+    long getCandidateFallbacks();
+
+    double getBestSoFarCost();
+
+    double getPheromoneEntropy();
+
+    void reset();
+}
@@ -0,0 +1,51 @@
+package tsp.solver.test;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+//Wiederverwendbare Kolonien nach Knotenzahl: Pheromon-, choiceInfo- und Tourpuffer werden nur einmal pro n angelegt.
+//Vor jeder Nutzung setzt der Aufrufer Distanzen, Parameter, Seed und ruft initializePheromones() auf
+public final class ColonyPool {
+    private final ConcurrentMap<Integer, BlockingQueue<TSPAntColony>> idle = new ConcurrentHashMap<>();
+    private final int maxIdlePerSize;
+    private final double initialPheromone;
+    private final double evaporationRate;
+    private final LongAdder created = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+
+    public ColonyPool(int maxIdlePerSize, double initialPheromone, double evaporationRate) {
+        if (maxIdlePerSize < 1) {
+            throw new IllegalArgumentException("Pool must keep at least one colony per size: " + maxIdlePerSize);
+        }
+        this.maxIdlePerSize = maxIdlePerSize;
+        this.initialPheromone = initialPheromone;
+        this.evaporationRate = evaporationRate;
+    }
+
+    public TSPAntColony acquire(int nodes) {
+        BlockingQueue<TSPAntColony> queue = idle.get(nodes);
+        TSPAntColony colony = queue == null ? null : queue.poll();
+        if (colony != null) {
+            reused.increment();
+            return colony;
+        }
+        created.increment();
+        return new TSPAntColony(nodes, initialPheromone, evaporationRate, 1.0, 1.0);
+    }
+
+    //Ist der Pool für diese Größe voll, wird die Kolonie dem GC überlassen
+    public void release(TSPAntColony colony) {
+        idle.computeIfAbsent(colony.getNodes(), nodes -> new ArrayBlockingQueue<>(maxIdlePerSize)).offer(colony);
+    }
+
+    public long getCreated() {
+        return created.sum();
+    }
+
+    public long getReused() {
+        return reused.sum();
+    }
+}
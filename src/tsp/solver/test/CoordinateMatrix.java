@@ -0,0 +1,68 @@
+package tsp.solver.test;
+
+//Nur lesbare Distanzmatrix, die jede Distanz bei Bedarf aus den Koordinaten berechnet statt n * n Werte zu speichern
+public class CoordinateMatrix implements Matrix {
+    private final EdgeWeightType type;
+    private final double[] x;
+    private final double[] y;
+
+    public CoordinateMatrix(EdgeWeightType type, double[] x, double[] y) {
+        if (x.length != y.length) {
+            throw new IllegalArgumentException("Coordinate arrays differ in length: " + x.length + " vs " + y.length);
+        }
+        this.type = type;
+        if (type == EdgeWeightType.GEO) {
+            this.x = new double[x.length];
+            this.y = new double[y.length];
+            for (int i = 0; i < x.length; i++) {
+                this.x[i] = EdgeWeightType.toGeoRadians(x[i]);
+                this.y[i] = EdgeWeightType.toGeoRadians(y[i]);
+            }
+        } else {
+            this.x = x.clone();
+            this.y = y.clone();
+        }
+    }
+
+    public EdgeWeightType getType() {
+        return type;
+    }
+
+    @Override
+    public int size() {
+        return x.length;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        if (i == j) {
+            return 0.0;
+        }
+        return type.distance(x[i], y[i], x[j], y[j]);
+    }
+
+    @Override
+    public void set(int i, int j, double value) {
+        throw new UnsupportedOperationException("Coordinate based distances are read-only.");
+    }
+
+    @Override
+    public void add(int i, int j, double value) {
+        throw new UnsupportedOperationException("Coordinate based distances are read-only.");
+    }
+
+    @Override
+    public void scale(double factor) {
+        throw new UnsupportedOperationException("Coordinate based distances are read-only.");
+    }
+
+    @Override
+    public void fill(double value) {
+        throw new UnsupportedOperationException("Coordinate based distances are read-only.");
+    }
+
+    @Override
+    public boolean isSymmetric() {
+        return true;
+    }
+}
@@ -0,0 +1,53 @@
+package tsp.solver.test;
+
+//Distanzfunktionen der TSPLIB für Koordinaten-Instanzen
+public enum EdgeWeightType {
+    EUC_2D {
+        @Override
+        double distance(double xi, double yi, double xj, double yj) {
+            double dx = xi - xj;
+            double dy = yi - yj;
+            return (int) (Math.sqrt(dx * dx + dy * dy) + 0.5);
+        }
+    },
+    CEIL_2D {
+        @Override
+        double distance(double xi, double yi, double xj, double yj) {
+            double dx = xi - xj;
+            double dy = yi - yj;
+            return Math.ceil(Math.sqrt(dx * dx + dy * dy));
+        }
+    },
+    // Pseudo-euklidisch (att48, att532)
+    ATT {
+        @Override
+        double distance(double xi, double yi, double xj, double yj) {
+            double dx = xi - xj;
+            double dy = yi - yj;
+            double r = Math.sqrt((dx * dx + dy * dy) / 10.0);
+            int t = (int) (r + 0.5);
+            return t < r ? t + 1 : t;
+        }
+    },
+    // Geographische Distanz, Koordinaten müssen vorher mit toGeoRadians umgerechnet werden
+    GEO {
+        private static final double RRR = 6378.388;
+
+        @Override
+        double distance(double latitudeI, double longitudeI, double latitudeJ, double longitudeJ) {
+            double q1 = Math.cos(longitudeI - longitudeJ);
+            double q2 = Math.cos(latitudeI - latitudeJ);
+            double q3 = Math.cos(latitudeI + latitudeJ);
+            return (int) (RRR * Math.acos(0.5 * ((1.0 + q1) * q2 - (1.0 - q1) * q3)) + 1.0);
+        }
+    };
+
+    abstract double distance(double xi, double yi, double xj, double yj);
+
+    //TSPLIB GEO Format DDD.MM in Bogenmaß
+    static double toGeoRadians(double value) {
+        int degrees = (int) value;
+        double minutes = value - degrees;
+        return 3.141592 * (degrees + 5.0 * minutes / 3.0) / 180.0;
+    }
+}
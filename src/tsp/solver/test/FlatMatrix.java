@@ -0,0 +1,54 @@
+package tsp.solver.test;
+
+import java.util.Arrays;
+
+//Zeilenweise double[] Matrix
+class FlatMatrix implements Matrix {
+    private final int size;
+    private final double[] data;
+
+    FlatMatrix(int size) {
+        this.size = size;
+        this.data = new double[MatrixStorage.checkedArrayLength((long) size * size, size)];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        return data[i * size + j];
+    }
+
+    @Override
+    public void set(int i, int j, double value) {
+        data[i * size + j] = value;
+    }
+
+    @Override
+    public void add(int i, int j, double value) {
+        data[i * size + j] += value;
+    }
+
+    @Override
+    public void scale(double factor) {
+        ChoiceKernels.get().scale(data, 0, data.length, factor);
+    }
+
+    @Override
+    public void fill(double value) {
+        Arrays.fill(data, value);
+    }
+
+    //Das zeilenweise Array selbst, für die Kernel der Knotenwahl
+    double[] data() {
+        return data;
+    }
+
+    @Override
+    public boolean isSymmetric() {
+        return false;
+    }
+}
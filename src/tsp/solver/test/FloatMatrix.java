@@ -0,0 +1,53 @@
+package tsp.solver.test;
+
+import java.util.Arrays;
+
+//Zeilenweise float[] Matrix
+class FloatMatrix implements Matrix {
+    private final int size;
+    private final float[] data;
+
+    FloatMatrix(int size) {
+        this.size = size;
+        this.data = new float[MatrixStorage.checkedArrayLength((long) size * size, size)];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        return data[i * size + j];
+    }
+
+    @Override
+    public void set(int i, int j, double value) {
+        data[i * size + j] = (float) value;
+    }
+
+    @Override
+    public void add(int i, int j, double value) {
+        data[i * size + j] += (float) value;
+    }
+
+    @Override
+    public void scale(double factor) {
+        float[] values = data;
+        float f = (float) factor;
+        for (int k = 0; k < values.length; k++) {
+            values[k] *= f;
+        }
+    }
+
+    @Override
+    public void fill(double value) {
+        Arrays.fill(data, (float) value);
+    }
+
+    @Override
+    public boolean isSymmetric() {
+        return false;
+    }
+}
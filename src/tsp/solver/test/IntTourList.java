@@ -0,0 +1,48 @@
+package tsp.solver.test;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+//List<Integer> Sicht auf einen int[] Tourpuffer, für bestehende Aufrufer der List-API
+class IntTourList extends AbstractList<Integer> implements RandomAccess {
+    private final int[] tour;
+    private final int length;
+    private final Tour owner; // Tour mit bereits berechneten Kosten, null bei reinen Arrays
+
+    IntTourList(int[] tour, int length) {
+        this.tour = tour;
+        this.length = length;
+        this.owner = null;
+    }
+
+    IntTourList(int[] tour) {
+        this(tour, tour.length);
+    }
+
+    IntTourList(Tour owner) {
+        this.tour = owner.nodes;
+        this.length = owner.nodes.length;
+        this.owner = owner;
+    }
+
+    @Override
+    public Integer get(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + length);
+        }
+        return tour[index];
+    }
+
+    @Override
+    public int size() {
+        return length;
+    }
+
+    int[] array() {
+        return tour;
+    }
+
+    Tour owner() {
+        return owner;
+    }
+}
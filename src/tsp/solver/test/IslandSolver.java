@@ -0,0 +1,212 @@
+package tsp.solver.test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+//Inselmodell: mehrere unabhängige Kolonien (andere Parameter oder Seeds) laufen in eigenen Threads und tauschen
+//alle migrationInterval Iterationen ihre bisher beste Tour über einen MigrationChannel aus.
+//Senden und Empfangen blockieren nie, eine Insel wartet also nie auf eine andere
+public class IslandSolver {
+    private final List<TSPAntColony> islands;
+    private final List<MigrationChannel> channels;
+    private int migrationInterval = 10;
+    private volatile boolean cancelled;
+
+    //Inseln im selben Prozess, verbunden als Ring über QueueMigrationChannel
+    public IslandSolver(List<TSPAntColony> islands) {
+        this(islands, List.of(QueueMigrationChannel.ring(islands.size(), 16)));
+    }
+
+    //channels.get(i) gehört zu islands.get(i), z.B. ein SocketMigrationChannel für Inseln in anderen JVMs
+    public IslandSolver(List<TSPAntColony> islands, List<? extends MigrationChannel> channels) {
+        if (islands.isEmpty() || islands.size() != channels.size()) {
+            throw new IllegalArgumentException("Need one migration channel per island: " + islands.size() + " islands, "
+                    + channels.size() + " channels.");
+        }
+        this.islands = new ArrayList<>(islands);
+        this.channels = new ArrayList<>(channels);
+    }
+
+    public IslandSolver setMigrationInterval(int migrationInterval) {
+        if (migrationInterval < 1) {
+            throw new IllegalArgumentException("Migration interval must be at least 1: " + migrationInterval);
+        }
+        this.migrationInterval = migrationInterval;
+        return this;
+    }
+
+    public List<TSPAntColony> getIslands() {
+        return islands;
+    }
+
+    //Das Budget gilt für jede Insel einzeln, Stagnation wird in Schritten von migrationInterval Iterationen geprüft.
+    //Ergebnis: beste Tour aller Inseln, Iterationen summiert über alle Inseln, Stoppgrund der Insel mit der besten Tour
+    public SolveResult solve(SolveBudget budget) throws InterruptedException {
+        long start = System.nanoTime();
+        // Beendet die übrigen Inseln, wenn eine scheitert oder der aufrufende Thread unterbrochen wird. Gilt nur für diesen Aufruf
+        AtomicBoolean stopped = new AtomicBoolean();
+        BooleanSupplier stop = () -> cancelled || stopped.get();
+        ExecutorService executor = Executors.newFixedThreadPool(islands.size());
+        try {
+            List<Future<SolveResult>> futures = new ArrayList<>(islands.size());
+            for (int i = 0; i < islands.size(); i++) {
+                int island = i;
+                futures.add(executor.submit(() -> runIsland(islands.get(island), channels.get(island), budget, start, stop)));
+            }
+
+            SolveResult best = null;
+            int iterations = 0;
+            boolean anyCancelled = false;
+            for (Future<SolveResult> future : futures) {
+                SolveResult result = future.get();
+                iterations += result.getIterations();
+                anyCancelled |= result.getStopReason() == SolveResult.StopReason.CANCELLED;
+                if (best == null || result.getBestCost() < best.getBestCost()) {
+                    best = result;
+                }
+            }
+            if (anyCancelled) {
+                cancelled = false;
+            }
+            return new SolveResult(best.getBestTour(), iterations, System.nanoTime() - start, best.getStopReason());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Island failed.", e.getCause());
+        } finally {
+            stopped.set(true);
+            executor.shutdown();
+        }
+    }
+
+    //Beendet alle Inseln nach ihrer aktuellen Iteration. Läuft gerade kein solve(), wird das nächste sofort beendet
+    public void cancel() {
+        cancelled = true;
+    }
+
+    private SolveResult runIsland(TSPAntColony colony, MigrationChannel channel, SolveBudget budget, long start, BooleanSupplier stop) {
+        int iterations = 0;
+        int stagnation = 0;
+        double bestCost = colony.getBestSoFarCost();
+        double sentCost = Double.POSITIVE_INFINITY;
+        SolveResult.StopReason stopReason;
+        while (true) {
+            if (stop.getAsBoolean()) {
+                stopReason = SolveResult.StopReason.CANCELLED;
+                break;
+            }
+            int remainingIterations = budget.getMaxIterations() - iterations;
+            if (remainingIterations <= 0) {
+                stopReason = SolveResult.StopReason.MAX_ITERATIONS;
+                break;
+            }
+            if (stagnation >= budget.getStagnationLimit()) {
+                stopReason = SolveResult.StopReason.STAGNATION;
+                break;
+            }
+            SolveBudget chunk = SolveBudget.ofIterations(Math.min(migrationInterval, remainingIterations));
+            if (budget.hasTimeLimit()) {
+                long remainingNanos = budget.getTimeLimitNanos() - (System.nanoTime() - start);
+                if (remainingNanos <= 0) {
+                    stopReason = SolveResult.StopReason.TIME_LIMIT;
+                    break;
+                }
+                chunk = chunk.withTimeLimit(Duration.ofNanos(remainingNanos));
+            }
+
+            SolveResult result = colony.solve(chunk, stop);
+            iterations += result.getIterations();
+            if (result.getStopReason() == SolveResult.StopReason.CANCELLED || result.getStopReason() == SolveResult.StopReason.TIME_LIMIT) {
+                stopReason = result.getStopReason();
+                break;
+            }
+
+            // Migration: eigene Verbesserung schicken, Empfangenes in die Pheromone einarbeiten
+            if (colony.getBestSoFarCost() < sentCost) {
+                sentCost = colony.getBestSoFarCost();
+                channel.send(colony.liveBestSoFarTour());
+            }
+            for (Tour migrant = channel.poll(); migrant != null; migrant = channel.poll()) {
+                injectMigrant(colony, migrant);
+            }
+
+            if (colony.getBestSoFarCost() < bestCost) {
+                bestCost = colony.getBestSoFarCost();
+                stagnation = 0;
+            } else {
+                stagnation += result.getIterations();
+            }
+        }
+        return new SolveResult(colony.getBestSoFarTour(), iterations, System.nanoTime() - start, stopReason);
+    }
+
+    //Migranten aus einem Socket können von einer Insel mit anderer Instanz kommen oder beschädigt sein: injectTour prüft Länge
+    //und Permutation, eine ungültige Tour wird verworfen und gemeldet statt die Insel zu beenden
+    private static void injectMigrant(TSPAntColony colony, Tour migrant) {
+        try {
+            colony.injectTour(migrant);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Dropped invalid migrant with " + migrant.nodes.length + " entries: " + e.getMessage());
+        }
+    }
+
+    //Eine Insel pro JVM, die Inseln bilden über lokale Ports einen Ring:
+    //IslandSolver <instanz.tsp | knotenzahl> <eigener port> <port der nächsten insel> <seed> [sekunden]
+    //Bei einer Knotenzahl erzeugen alle JVMs dieselbe zufällige euklidische Instanz
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 4) {
+            System.err.println("Aufruf: IslandSolver <instanz.tsp | knotenzahl> <port> <nächster port> <seed> [sekunden]");
+            System.exit(2);
+        }
+        Matrix distances = loadDistances(args[0]);
+        int port = Integer.parseInt(args[1]);
+        int nextPort = Integer.parseInt(args[2]);
+        long seed = Long.parseLong(args[3]);
+        double seconds = args.length > 4 ? Double.parseDouble(args[4]) : 10.0;
+
+        TSPAntColony colony = new TSPAntColony(distances.size(), 1.0, 0.5, 1.0, 2.0);
+        colony.setDistances(distances);
+        colony.setSeed(seed);
+        colony.setCandidateListSize(15);
+        colony.initializePheromones();
+        colony.addSolveListener(progress -> System.out.println("Insel " + port + ": " + progress));
+
+        try (SocketMigrationChannel channel = new SocketMigrationChannel(port,
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), nextPort), 16)) {
+            SolveResult result = new IslandSolver(List.of(colony), List.of(channel))
+                    .solve(SolveBudget.ofTime(Duration.ofMillis((long) (seconds * 1000))));
+            System.out.println("Insel " + port + " fertig: " + result);
+        }
+    }
+
+    private static Matrix loadDistances(String instance) throws IOException {
+        Path file = Paths.get(instance);
+        if (Files.exists(file)) {
+            return TspLibReader.read(file).getDistances();
+        }
+        int nodes = Integer.parseInt(instance);
+        Random random = new Random(1);
+        double[] x = new double[nodes];
+        double[] y = new double[nodes];
+        for (int i = 0; i < nodes; i++) {
+            x[i] = random.nextDouble() * 10_000;
+            y[i] = random.nextDouble() * 10_000;
+        }
+        return new CoordinateMatrix(EdgeWeightType.EUC_2D, x, y);
+    }
+}
@@ -0,0 +1,444 @@
+package tsp.solver.test;
+
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+import org.graphstream.graph.implementations.MultiGraph;
+import org.graphstream.ui.view.Viewer;
+
+import javax.imageio.ImageIO;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+//Live Anzeige für große Instanzen: nur Koordinaten, die aktuelle beste Tour und optional die k-NN Kanten statt aller n * n Kanten.
+//Der Solver legt als SolveListener nur die neueste Tour in eine AtomicReference, ein eigener Thread holt sie höchstens einmal
+//pro Intervall ab und zeichnet. Ohne Bildschirm schreibt die Anzeige stattdessen PNG oder SVG Bilder in ein Verzeichnis.
+//Aufruf: LiveTourView <instanz.tsp | knotenzahl> [--knn k] [--png verzeichnis | --svg verzeichnis] [--seconds s]
+public final class LiveTourView implements SolveListener, AutoCloseable {
+
+    public enum FrameFormat {
+        PNG, SVG
+    }
+
+    private static final Color NODE_COLOR = new Color(0xCC2222);
+    private static final Color TOUR_COLOR = new Color(0x228844);
+    private static final Color NEIGHBOUR_COLOR = new Color(0xDDDDDD);
+
+    private final double[] x;
+    private final double[] y;
+    private final Matrix distances;
+    private final AtomicReference<SolveProgress> pending = new AtomicReference<>();
+
+    private int neighbourEdges;
+    private long intervalNanos = Duration.ofMillis(100).toNanos();
+    private Path frameDirectory;
+    private FrameFormat frameFormat = FrameFormat.PNG;
+    private int width = 800;
+    private int height = 800;
+
+    private Thread updater;
+    private volatile boolean closed;
+    private int[][] neighbours;
+    private int frames;
+
+    // Nur im Updater-Thread
+    private Graph graph;
+    private Viewer viewer;
+    private final Set<String> tourEdges = new HashSet<>();
+
+    //Die k-NN Kanten werden aus den euklidischen Abständen der Koordinaten bestimmt
+    public LiveTourView(double[] x, double[] y) {
+        this(x, y, new CoordinateMatrix(EdgeWeightType.EUC_2D, x, y));
+    }
+
+    //distances bestimmt die k-NN Kanten, die Koordinaten nur die Position
+    public LiveTourView(double[] x, double[] y, Matrix distances) {
+        if (x.length != y.length || x.length != distances.size()) {
+            throw new IllegalArgumentException("Coordinates and distances must have the same size: "
+                    + x.length + ", " + y.length + ", " + distances.size());
+        }
+        this.x = x;
+        this.y = y;
+        this.distances = distances;
+    }
+
+    public static LiveTourView of(TspInstance instance) {
+        if (!instance.hasCoordinates()) {
+            throw new IllegalArgumentException("Instance has no coordinates to display: " + instance.getName());
+        }
+        return new LiveTourView(instance.getX(), instance.getY(), instance.getDistances());
+    }
+
+    //Zusätzlich die Kanten zu den k nächsten Nachbarn jedes Knotens zeichnen, 0 = keine
+    public LiveTourView setNeighbourEdges(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Neighbour edge count must not be negative: " + k);
+        }
+        this.neighbourEdges = k;
+        return this;
+    }
+
+    //Höchstens ein Bild pro Intervall, Touren dazwischen werden übersprungen
+    public LiveTourView setInterval(Duration interval) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Interval must be positive: " + interval);
+        }
+        this.intervalNanos = interval.toNanos();
+        return this;
+    }
+
+    //Ohne Bildschirm: jedes Bild als frame-00001.png bzw. .svg in directory schreiben statt ein Fenster zu öffnen
+    public LiveTourView setFrameOutput(Path directory, FrameFormat format) {
+        this.frameDirectory = directory;
+        this.frameFormat = format;
+        return this;
+    }
+
+    public LiveTourView setFrameSize(int width, int height) {
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("Frame size must be positive: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        return this;
+    }
+
+    public synchronized LiveTourView start() throws IOException {
+        if (updater != null) {
+            throw new IllegalStateException("View is already started.");
+        }
+        if (frameDirectory != null) {
+            Files.createDirectories(frameDirectory);
+        }
+        updater = new Thread(this::updateLoop, "live-tour-view");
+        updater.setDaemon(true);
+        updater.start();
+        return this;
+    }
+
+    //Im Thread von solve(): nur die Referenz tauschen, die Kopie der Tour hat SolveProgress schon gemacht
+    @Override
+    public void improved(SolveProgress progress) {
+        pending.set(progress);
+    }
+
+    //Tour von außerhalb eines solve() Aufrufs anzeigen, z.B. nach einer Migration. Die Tour wird kopiert
+    public void offer(Tour tour, int iteration) {
+        pending.set(new SolveProgress(new Tour(tour.nodes, tour.cost), iteration, 0L));
+    }
+
+    //Anzahl geschriebener Bilder bzw. Aktualisierungen des Fensters
+    public synchronized int getFrames() {
+        return frames;
+    }
+
+    //Zeichnet eine noch ausstehende Tour und beendet den Updater, ein offenes Fenster bleibt stehen.
+    //Wird der aufrufende Thread beim Warten unterbrochen, bleibt das Interrupt-Flag gesetzt
+    @Override
+    public void close() {
+        closed = true;
+        Thread thread;
+        synchronized (this) {
+            thread = updater;
+        }
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void updateLoop() {
+        long next = System.nanoTime();
+        while (!closed) {
+            next += intervalNanos;
+            long wait;
+            while (!closed && (wait = next - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, wait);
+            }
+            renderPending();
+        }
+        renderPending();
+    }
+
+    private void renderPending() {
+        SolveProgress progress = pending.getAndSet(null);
+        if (progress == null) {
+            return;
+        }
+        try {
+            if (neighbours == null && neighbourEdges > 0) {
+                neighbours = NeighbourLists.nearest(distances, neighbourEdges);
+            }
+            if (frameDirectory != null) {
+                writeFrame(progress);
+            } else {
+                updateGraph(progress);
+            }
+            synchronized (this) {
+                frames++;
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Live view could not render iteration " + progress.getIteration() + ": " + e);
+        }
+    }
+
+    //GraphStream: Knoten und k-NN Kanten einmal anlegen, danach nur die geänderten Tourkanten entfernen bzw. hinzufügen
+    private void updateGraph(SolveProgress progress) {
+        if (graph == null) {
+            System.setProperty("org.graphstream.ui", "swing");
+            graph = new MultiGraph("LiveTour");
+            graph.setAttribute("ui.stylesheet",
+                    "node { size: 4px; fill-color: #CC2222; }"
+                            + "edge.tour { size: 2px; fill-color: #228844; }"
+                            + "edge.knn { fill-color: #DDDDDD; }");
+            for (int i = 0; i < x.length; i++) {
+                Node node = graph.addNode(String.valueOf(i));
+                node.setAttribute("xy", x[i], y[i]);
+            }
+            if (neighbours != null) {
+                for (int i = 0; i < neighbours.length; i++) {
+                    for (int j : neighbours[i]) {
+                        String id = "k" + Math.min(i, j) + "-" + Math.max(i, j);
+                        if (graph.getEdge(id) == null) {
+                            graph.addEdge(id, i, j).setAttribute("ui.class", "knn");
+                        }
+                    }
+                }
+            }
+            viewer = graph.display(false);
+        }
+
+        int[] tour = progress.getBestTour().nodes;
+        Set<String> current = new HashSet<>(tour.length * 2);
+        for (int i = 0; i < tour.length - 1; i++) {
+            current.add("t" + Math.min(tour[i], tour[i + 1]) + "-" + Math.max(tour[i], tour[i + 1]));
+        }
+        for (String id : tourEdges) {
+            if (!current.contains(id)) {
+                graph.removeEdge(id);
+            }
+        }
+        for (int i = 0; i < tour.length - 1; i++) {
+            String id = "t" + Math.min(tour[i], tour[i + 1]) + "-" + Math.max(tour[i], tour[i + 1]);
+            if (!tourEdges.contains(id)) {
+                Edge edge = graph.addEdge(id, tour[i], tour[i + 1]);
+                edge.setAttribute("ui.class", "tour");
+            }
+        }
+        tourEdges.clear();
+        tourEdges.addAll(current);
+        graph.setAttribute("ui.title", caption(progress));
+    }
+
+    private void writeFrame(SolveProgress progress) throws IOException {
+        String name = String.format(Locale.ROOT, "frame-%05d.%s", frames + 1, frameFormat == FrameFormat.PNG ? "png" : "svg");
+        Path file = frameDirectory.resolve(name);
+        if (frameFormat == FrameFormat.PNG) {
+            ImageIO.write(renderImage(progress), "png", file.toFile());
+        } else {
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writeSvg(progress, writer);
+            }
+        }
+    }
+
+    //Headless mit Java2D, läuft ohne Bildschirm
+    BufferedImage renderImage(SolveProgress progress) {
+        Projection projection = new Projection();
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+
+            if (neighbours != null) {
+                Path2D.Double edges = new Path2D.Double();
+                for (int i = 0; i < neighbours.length; i++) {
+                    for (int j : neighbours[i]) {
+                        edges.moveTo(projection.x(i), projection.y(i));
+                        edges.lineTo(projection.x(j), projection.y(j));
+                    }
+                }
+                graphics.setColor(NEIGHBOUR_COLOR);
+                graphics.setStroke(new BasicStroke(1f));
+                graphics.draw(edges);
+            }
+
+            int[] tour = progress.getBestTour().nodes;
+            Path2D.Double path = new Path2D.Double();
+            path.moveTo(projection.x(tour[0]), projection.y(tour[0]));
+            for (int i = 1; i < tour.length; i++) {
+                path.lineTo(projection.x(tour[i]), projection.y(tour[i]));
+            }
+            graphics.setColor(TOUR_COLOR);
+            graphics.setStroke(new BasicStroke(1.5f));
+            graphics.draw(path);
+
+            double radius = nodeRadius();
+            graphics.setColor(NODE_COLOR);
+            for (int i = 0; i < x.length; i++) {
+                graphics.fill(new Ellipse2D.Double(projection.x(i) - radius, projection.y(i) - radius, 2 * radius, 2 * radius));
+            }
+
+            graphics.setColor(Color.BLACK);
+            graphics.drawString(caption(progress), 10, 20);
+        } finally {
+            graphics.dispose();
+        }
+        return image;
+    }
+
+    //Eine path Anweisung für alle Tourkanten und eine für die k-NN Kanten, damit die Datei auch bei großen n klein bleibt
+    void writeSvg(SolveProgress progress, Writer writer) throws IOException {
+        Projection projection = new Projection();
+        writer.write(String.format(Locale.ROOT,
+                "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"%d\" height=\"%d\" viewBox=\"0 0 %d %d\">%n", width, height, width, height));
+        writer.write("<rect width=\"100%\" height=\"100%\" fill=\"white\"/>\n");
+        if (neighbours != null) {
+            writer.write("<path fill=\"none\" stroke=\"#DDDDDD\" stroke-width=\"1\" d=\"");
+            for (int i = 0; i < neighbours.length; i++) {
+                for (int j : neighbours[i]) {
+                    writer.write(String.format(Locale.ROOT, "M%.1f %.1fL%.1f %.1f",
+                            projection.x(i), projection.y(i), projection.x(j), projection.y(j)));
+                }
+            }
+            writer.write("\"/>\n");
+        }
+
+        int[] tour = progress.getBestTour().nodes;
+        writer.write("<path fill=\"none\" stroke=\"#228844\" stroke-width=\"1.5\" d=\"");
+        for (int i = 0; i < tour.length - 1; i++) {
+            writer.write(String.format(Locale.ROOT, "%s%.1f %.1f", i == 0 ? "M" : "L", projection.x(tour[i]), projection.y(tour[i])));
+        }
+        writer.write("Z\"/>\n");
+
+        double radius = nodeRadius();
+        writer.write("<g fill=\"#CC2222\">\n");
+        for (int i = 0; i < x.length; i++) {
+            writer.write(String.format(Locale.ROOT, "<circle cx=\"%.1f\" cy=\"%.1f\" r=\"%.1f\"/>%n", projection.x(i), projection.y(i), radius));
+        }
+        writer.write("</g>\n");
+        writer.write("<text x=\"10\" y=\"20\" font-family=\"sans-serif\" font-size=\"14\">" + caption(progress) + "</text>\n");
+        writer.write("</svg>\n");
+    }
+
+    private double nodeRadius() {
+        return x.length > 2000 ? 1.0 : x.length > 200 ? 2.0 : 3.5;
+    }
+
+    private static String caption(SolveProgress progress) {
+        return String.format(Locale.ROOT, "Iteration %d   Kosten %.1f", progress.getIteration(), progress.getBestCost());
+    }
+
+    //Bildet die Koordinaten mit Rand auf das Bild ab, gleiches Seitenverhältnis, y nach oben
+    private final class Projection {
+        private static final double MARGIN = 30.0;
+        private final double minX;
+        private final double maxY;
+        private final double scale;
+        private final double offsetX;
+        private final double offsetY;
+
+        Projection() {
+            double minX = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY;
+            double minY = Double.POSITIVE_INFINITY;
+            double maxY = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < x.length; i++) {
+                minX = Math.min(minX, x[i]);
+                maxX = Math.max(maxX, x[i]);
+                minY = Math.min(minY, y[i]);
+                maxY = Math.max(maxY, y[i]);
+            }
+            double spanX = Math.max(maxX - minX, 1e-9);
+            double spanY = Math.max(maxY - minY, 1e-9);
+            this.minX = minX;
+            this.maxY = maxY;
+            this.scale = Math.min((width - 2 * MARGIN) / spanX, (height - 2 * MARGIN) / spanY);
+            this.offsetX = (width - spanX * scale) / 2;
+            this.offsetY = (height - spanY * scale) / 2;
+        }
+
+        double x(int node) {
+            return offsetX + (x[node] - minX) * scale;
+        }
+
+        double y(int node) {
+            return offsetY + (maxY - y[node]) * scale;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Aufruf: LiveTourView <instanz.tsp | knotenzahl> [--knn k] [--png verzeichnis | --svg verzeichnis] [--seconds s]");
+            System.exit(2);
+        }
+        TspInstance instance = loadInstance(args[0]);
+        LiveTourView view = of(instance);
+        double seconds = 30.0;
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--knn":
+                    view.setNeighbourEdges(Integer.parseInt(args[i + 1]));
+                    break;
+                case "--png":
+                    view.setFrameOutput(Paths.get(args[i + 1]), FrameFormat.PNG);
+                    break;
+                case "--svg":
+                    view.setFrameOutput(Paths.get(args[i + 1]), FrameFormat.SVG);
+                    break;
+                case "--seconds":
+                    seconds = Double.parseDouble(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        TSPAntColony colony = instance.createColony(1.0, 0.5, 1.0, 2.0);
+        colony.setCandidateListSize(15);
+        colony.addSolveListener(view.start());
+        SolveResult result = colony.solve(SolveBudget.ofTime(Duration.ofMillis((long) (seconds * 1000))));
+        view.close();
+        System.out.println(result + ", " + view.getFrames() + " Bilder");
+    }
+
+    private static TspInstance loadInstance(String instance) throws IOException {
+        Path file = Paths.get(instance);
+        if (Files.exists(file)) {
+            return TspLibReader.read(file);
+        }
+        int nodes = Integer.parseInt(instance);
+        Random random = new Random(1);
+        double[] x = new double[nodes];
+        double[] y = new double[nodes];
+        for (int i = 0; i < nodes; i++) {
+            x[i] = random.nextDouble() * 10_000;
+            y[i] = random.nextDouble() * 10_000;
+        }
+        return new TspInstance("random" + nodes, new CoordinateMatrix(EdgeWeightType.EUC_2D, x, y), x, y);
+    }
+}
@@ -0,0 +1,241 @@
+package tsp.solver.test;
+
+import java.util.Arrays;
+
+//2-opt und Or-opt über Nachbarlisten mit Don't-Look-Bits, arbeitet direkt auf einer geschlossenen int[] Tour (Länge n + 1)
+//Nicht thread-safe, pro Thread eine Instanz verwenden
+public class LocalSearch {
+    private static final double EPSILON = 1e-9;
+    private static final int MAX_SEGMENT_LENGTH = 3;
+
+    private final Matrix distances;
+    private final int[][] neighbours;
+    private final int nodes;
+
+    private final int[] tour;
+    private final int[] position;
+    private final int[] buffer;
+    private final int[] queue;
+    private final boolean[] queued; // Don't-Look-Bit = !queued
+    private int queueHead;
+    private int queueSize;
+
+    public LocalSearch(Matrix distances, int[][] neighbours) {
+        this.distances = distances;
+        this.neighbours = neighbours;
+        this.nodes = distances.size();
+        this.tour = new int[nodes];
+        this.position = new int[nodes];
+        this.buffer = new int[nodes];
+        this.queue = new int[nodes];
+        this.queued = new boolean[nodes];
+    }
+
+    //Verbessert die geschlossene Tour an Ort und Stelle, der Startknoten bleibt erhalten. Liefert die Kostenersparnis
+    public double improve(int[] closedTour) {
+        if (closedTour.length != nodes + 1) {
+            throw new IllegalArgumentException("Expected a closed tour of length " + (nodes + 1) + " but got " + closedTour.length);
+        }
+        if (nodes < 5) {
+            return 0.0;
+        }
+        int start = closedTour[0];
+        System.arraycopy(closedTour, 0, tour, 0, nodes);
+        for (int i = 0; i < nodes; i++) {
+            position[tour[i]] = i;
+        }
+        Arrays.fill(queued, false);
+        queueHead = 0;
+        queueSize = 0;
+        for (int i = 0; i < nodes; i++) {
+            push(tour[i]);
+        }
+
+        double gain = 0.0;
+        while (queueSize > 0) {
+            int city = queue[queueHead];
+            queueHead = (queueHead + 1) % nodes;
+            queueSize--;
+            queued[city] = false;
+
+            double improvement = twoOpt(city);
+            if (improvement == 0.0) {
+                improvement = orOpt(city);
+            }
+            gain += improvement;
+        }
+
+        // Zurückrotieren, damit die Tour wieder beim Startknoten beginnt
+        int offset = position[start];
+        for (int i = 0; i < nodes; i++) {
+            closedTour[i] = tour[(offset + i) % nodes];
+        }
+        closedTour[nodes] = closedTour[0];
+        return gain;
+    }
+
+    //2-opt Zug mit a als einem Endpunkt, prüft Nachfolger- und Vorgängerrichtung
+    private double twoOpt(int a) {
+        for (int direction = 0; direction < 2; direction++) {
+            boolean forward = direction == 0;
+            int b = forward ? next(a) : prev(a);
+            double dab = distances.get(a, b);
+            for (int c : neighbours[a]) {
+                double dac = distances.get(a, c);
+                if (dac >= dab) {
+                    break; // Nachbarn sind sortiert, weitere können nichts mehr bringen
+                }
+                int d = forward ? next(c) : prev(c);
+                if (c == b || d == a) {
+                    continue;
+                }
+                double delta = dac + distances.get(b, d) - dab - distances.get(c, d);
+                if (delta < -EPSILON) {
+                    // a b ... c d -> a c ... b d bzw. rückwärts d c ... b a -> d b ... c a
+                    if (forward) {
+                        reverse(position[b], position[c]);
+                    } else {
+                        reverse(position[c], position[b]);
+                    }
+                    push(a);
+                    push(b);
+                    push(c);
+                    push(d);
+                    return -delta;
+                }
+            }
+        }
+        return 0.0;
+    }
+
+    //Verschiebt das Segment ab a (1 bis 3 Knoten) zwischen einen Nachbarn und dessen Nachfolger, auch umgedreht
+    private double orOpt(int a) {
+        for (int length = 1; length <= MAX_SEGMENT_LENGTH; length++) {
+            int first = a;
+            int last = tour[(position[a] + length - 1) % nodes];
+            int before = prev(first);
+            int after = next(last);
+            if (after == before || after == first) {
+                return 0.0;
+            }
+            double removeGain = distances.get(before, first) + distances.get(last, after) - distances.get(before, after);
+            if (removeGain <= EPSILON) {
+                continue;
+            }
+            for (int endpoint = 0; endpoint < 2; endpoint++) {
+                int anchor = endpoint == 0 ? first : last;
+                for (int c : neighbours[anchor]) {
+                    if (distances.get(anchor, c) >= removeGain) {
+                        break;
+                    }
+                    if (inSegment(c, first, length)) {
+                        continue;
+                    }
+                    int e = next(c);
+                    if (inSegment(e, first, length)) {
+                        continue;
+                    }
+                    double dce = distances.get(c, e);
+                    double keep = distances.get(c, first) + distances.get(last, e) - dce;
+                    double reversed = distances.get(c, last) + distances.get(first, e) - dce;
+                    double insertCost = Math.min(keep, reversed);
+                    if (insertCost < removeGain - EPSILON) {
+                        moveSegment(first, length, c, reversed < keep);
+                        push(before);
+                        push(after);
+                        push(first);
+                        push(last);
+                        push(c);
+                        push(e);
+                        return removeGain - insertCost;
+                    }
+                }
+            }
+        }
+        return 0.0;
+    }
+
+    private boolean inSegment(int city, int first, int length) {
+        return (position[city] - position[first] + nodes) % nodes < length;
+    }
+
+    //Segment (first, Länge length) hinter c einfügen, die betroffene Spanne wird über buffer neu geschrieben
+    private void moveSegment(int first, int length, int c, boolean reversed) {
+        int segmentStart = position[first];
+        int afterSegment = (segmentStart + length) % nodes;
+        int cPosition = position[c];
+        int count = 0;
+        int writeStart;
+        if ((cPosition - afterSegment + nodes) % nodes < (segmentStart - cPosition + nodes) % nodes) {
+            // c liegt hinter dem Segment: [after .. c] dann Segment
+            writeStart = segmentStart;
+            for (int p = afterSegment; ; p = (p + 1) % nodes) {
+                buffer[count++] = tour[p];
+                if (p == cPosition) {
+                    break;
+                }
+            }
+            count = appendSegment(segmentStart, length, reversed, count);
+        } else {
+            // c liegt vor dem Segment: Segment dann [e .. before]
+            int ePosition = (cPosition + 1) % nodes;
+            writeStart = ePosition;
+            count = appendSegment(segmentStart, length, reversed, count);
+            for (int p = ePosition; p != segmentStart; p = (p + 1) % nodes) {
+                buffer[count++] = tour[p];
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            int p = (writeStart + i) % nodes;
+            tour[p] = buffer[i];
+            position[buffer[i]] = p;
+        }
+    }
+
+    private int appendSegment(int segmentStart, int length, boolean reversed, int count) {
+        for (int i = 0; i < length; i++) {
+            int offset = reversed ? length - 1 - i : i;
+            buffer[count++] = tour[(segmentStart + offset) % nodes];
+        }
+        return count;
+    }
+
+    //Dreht die Tour zwischen den Positionen from und to (zyklisch, inklusive), bei Bedarf das kürzere Komplement
+    private void reverse(int from, int to) {
+        int length = (to - from + nodes) % nodes + 1;
+        if (2 * length > nodes) {
+            int newFrom = (to + 1) % nodes;
+            to = (from - 1 + nodes) % nodes;
+            from = newFrom;
+            length = nodes - length;
+        }
+        for (int k = 0; k < length / 2; k++) {
+            int i = (from + k) % nodes;
+            int j = (to - k + nodes) % nodes;
+            int cityI = tour[i];
+            int cityJ = tour[j];
+            tour[i] = cityJ;
+            tour[j] = cityI;
+            position[cityJ] = i;
+            position[cityI] = j;
+        }
+    }
+
+    private int next(int city) {
+        int p = position[city] + 1;
+        return tour[p == nodes ? 0 : p];
+    }
+
+    private int prev(int city) {
+        int p = position[city] - 1;
+        return tour[p < 0 ? nodes - 1 : p];
+    }
+
+    private void push(int city) {
+        if (!queued[city]) {
+            queued[city] = true;
+            queue[(queueHead + queueSize) % nodes] = city;
+            queueSize++;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package tsp.solver.test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Random;
+
+//Vergleicht die Tourqualität pro CPU-Sekunde ohne lokale Suche, mit lokaler Suche auf allen Touren und nur auf der besten Tour
+//Aufruf: LocalSearchComparison [nodes] [cpuSeconds] [candidates]
+public class LocalSearchComparison {
+
+    public static void main(String[] args) {
+        int nodes = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        double cpuSeconds = args.length > 1 ? Double.parseDouble(args[1]) : 5.0;
+        int k = args.length > 2 ? Integer.parseInt(args[2]) : 15;
+
+        // Zufällige euklidische Instanz, damit die Ergebnisse reproduzierbar sind
+        Random random = new Random(1);
+        double[] x = new double[nodes];
+        double[] y = new double[nodes];
+        for (int i = 0; i < nodes; i++) {
+            x[i] = random.nextDouble() * 10_000;
+            y[i] = random.nextDouble() * 10_000;
+        }
+        Matrix distances = new CoordinateMatrix(EdgeWeightType.EUC_2D, x, y);
+
+        System.out.printf("%16s %12s %10s %14s %20s%n", "mode", "best cost", "iters", "cpu [s]", "time to NONE best [s]");
+        double referenceCost = Double.NaN;
+        for (TSPAntColony.LocalSearchMode mode : TSPAntColony.LocalSearchMode.values()) {
+            double[] result = run(distances, mode, k, cpuSeconds, referenceCost);
+            if (mode == TSPAntColony.LocalSearchMode.NONE) {
+                referenceCost = result[0];
+            }
+            System.out.printf("%16s %12.0f %10.0f %14.2f %20s%n", mode, result[0], result[1], result[2],
+                    Double.isNaN(result[3]) ? "-" : String.format("%.2f", result[3]));
+        }
+    }
+
+    //{beste Kosten, Iterationen, CPU Sekunden, CPU Sekunden bis targetCost erreicht war}
+    private static double[] run(Matrix distances, TSPAntColony.LocalSearchMode mode, int k, double cpuSeconds, double targetCost) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        TSPAntColony tsp = new TSPAntColony(distances.size(), 1.0, 0.5, 1.0, 2.0);
+        tsp.setDistances(distances);
+        tsp.initializePheromones();
+        tsp.setSeed(1);
+        tsp.setCandidateListSize(k);
+        tsp.setLocalSearchMode(mode);
+
+        long start = threads.getCurrentThreadCpuTime();
+        long budget = (long) (cpuSeconds * 1e9);
+        double bestCost = Double.POSITIVE_INFINITY;
+        double timeToTarget = Double.NaN;
+        int iterations = 0;
+        while (threads.getCurrentThreadCpuTime() - start < budget) {
+            tsp.constructTours();
+            bestCost = tsp.getBestSoFarCost();
+            tsp.evaporatePheromones();
+            iterations++;
+            if (Double.isNaN(timeToTarget) && bestCost <= targetCost) {
+                timeToTarget = (threads.getCurrentThreadCpuTime() - start) / 1e9;
+            }
+        }
+        return new double[]{bestCost, iterations, (threads.getCurrentThreadCpuTime() - start) / 1e9, timeToTarget};
+    }
+}
@@ -0,0 +1,64 @@
+package tsp.solver.test;
+
+//Quadratische n x n Matrix für Distanzen und Pheromone, unabhängig vom Speicherlayout
+public interface Matrix {
+
+    int size();
+
+    double get(int i, int j);
+
+    void set(int i, int j, double value);
+
+    void add(int i, int j, double value);
+
+    //Alle Einträge mit factor multiplizieren (Verdunstung)
+    void scale(double factor);
+
+    void fill(double value);
+
+    //Alle Einträge auf [min, max] begrenzen
+    default void clamp(double min, double max) {
+        int n = size();
+        for (int i = 0; i < n; i++) {
+            for (int j = isSymmetric() ? i : 0; j < n; j++) {
+                double value = get(i, j);
+                if (value < min) {
+                    set(i, j, min);
+                } else if (value > max) {
+                    set(i, j, max);
+                }
+            }
+        }
+    }
+
+    //true wenn (i, j) und (j, i) denselben Eintrag teilen
+    boolean isSymmetric();
+
+    //Kopie als double[n][n], nur für Ausgabe und alte Aufrufer
+    default double[][] toArray() {
+        int n = size();
+        double[][] array = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                array[i][j] = get(i, j);
+            }
+        }
+        return array;
+    }
+
+    //Überträgt alle Einträge aus einem double[n][n]
+    default void copyFrom(double[][] values) {
+        int n = size();
+        if (values.length != n) {
+            throw new IllegalArgumentException("Expected " + n + " rows but got " + values.length);
+        }
+        for (int i = 0; i < n; i++) {
+            if (values[i].length != n) {
+                throw new IllegalArgumentException("Expected " + n + " columns in row " + i + " but got " + values[i].length);
+            }
+            for (int j = isSymmetric() ? i : 0; j < n; j++) {
+                set(i, j, values[i][j]);
+            }
+        }
+    }
+}
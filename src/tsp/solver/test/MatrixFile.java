@@ -0,0 +1,84 @@
+package tsp.solver.test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+//Binärformat für vorberechnete Distanzmatrizen: 16 Byte Kopf (Magic, Version, n, reserviert), danach n * n double zeilenweise, little endian
+//Gelesen wird per Memory-Mapping, die Datei wird also nicht geparst sondern nur eingeblendet
+public final class MatrixFile {
+    private static final int MAGIC = 0x5453504D; // "TSPM"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+
+    private MatrixFile() {
+    }
+
+    public static void write(Matrix matrix, Path file) throws IOException {
+        int n = matrix.size();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(0).flip();
+            writeFully(channel, header);
+
+            ByteBuffer row = ByteBuffer.allocateDirect(n * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < n; i++) {
+                row.clear();
+                for (int j = 0; j < n; j++) {
+                    row.putDouble(matrix.get(i, j));
+                }
+                row.flip();
+                writeFully(channel, row);
+            }
+        }
+    }
+
+    //Blendet die Datei nur lesend ein, Schreibzugriffe auf die Matrix werfen ReadOnlyBufferException
+    public static Matrix map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    throw new IOException("Truncated matrix file header: " + file);
+                }
+            }
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a matrix file: " + file);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported matrix file version " + version + ": " + file);
+            }
+            int n = header.getInt();
+            long rowBytes = (long) n * Double.BYTES;
+            if (channel.size() < HEADER_BYTES + rowBytes * n) {
+                throw new IOException("Truncated matrix file: " + file);
+            }
+
+            // Ein Mapping darf höchstens 2 GB groß sein, daher mehrere Zeilen pro Mapping
+            DoubleBuffer[] rows = new DoubleBuffer[n];
+            int rowsPerRegion = (int) Math.max(1, Integer.MAX_VALUE / Math.max(1, rowBytes));
+            for (int first = 0; first < n; first += rowsPerRegion) {
+                int count = Math.min(rowsPerRegion, n - first);
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + first * rowBytes, count * rowBytes);
+                for (int r = 0; r < count; r++) {
+                    rows[first + r] = region.slice((int) (r * rowBytes), (int) rowBytes).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+                }
+            }
+            return new OffHeapMatrix(rows);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
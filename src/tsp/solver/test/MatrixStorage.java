@@ -0,0 +1,44 @@
+package tsp.solver.test;
+
+//Speicherlayouts für Distanz- und Pheromonmatrizen
+public enum MatrixStorage {
+    // double[] zeilenweise, n * n Einträge
+    FLAT {
+        @Override
+        public Matrix create(int size) {
+            return new FlatMatrix(size);
+        }
+    },
+    // float[] zeilenweise, halber Speicher, ca. 7 signifikante Stellen
+    FLOAT {
+        @Override
+        public Matrix create(int size) {
+            return new FloatMatrix(size);
+        }
+    },
+    // nur obere Dreiecksmatrix inkl. Diagonale, n * (n + 1) / 2 Einträge. Bei Pheromonen wirkt jede Ablage auf beide Richtungen
+    PACKED_SYMMETRIC {
+        @Override
+        public Matrix create(int size) {
+            return new PackedSymmetricMatrix(size);
+        }
+    },
+    // zeilenweise ausserhalb des Java Heaps (direkte Buffer), für Matrizen jenseits der Array-Grenzen
+    OFF_HEAP {
+        @Override
+        public Matrix create(int size) {
+            return new OffHeapMatrix(size);
+        }
+    };
+
+    public abstract Matrix create(int size);
+
+    //Prüft, ob n * n bzw. die gepackte Größe noch in ein Java Array passt. OFF_HEAP legt eine Zeile pro Buffer an und braucht das nicht
+    static int checkedArrayLength(long length, int size) {
+        if (length > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Matrix of size " + size + " needs " + length
+                    + " entries and does not fit into a Java array, use OFF_HEAP storage.");
+        }
+        return (int) length;
+    }
+}
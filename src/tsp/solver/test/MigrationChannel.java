@@ -0,0 +1,15 @@
+package tsp.solver.test;
+
+//Austausch bester Touren zwischen Inseln. Beide Methoden dürfen nie blockieren, damit der Tourbau nicht wartet:
+//ist kein Platz, wird verworfen, ist nichts angekommen, liefert poll() null
+public interface MigrationChannel extends AutoCloseable {
+
+    //Schickt eine Kopie der Tour an die Nachbarinsel(n)
+    void send(Tour tour);
+
+    //Nächste empfangene Tour oder null
+    Tour poll();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,70 @@
+package tsp.solver.test;
+
+//k nächste Nachbarn pro Knoten, aufsteigend nach Distanz sortiert
+final class NeighbourLists {
+
+    private NeighbourLists() {
+    }
+
+    static int[][] nearest(Matrix distances, int k) {
+        int nodes = distances.size();
+        k = Math.min(k, nodes - 1);
+        int[][] neighbours = new int[nodes][];
+        double[] nearestDistances = new double[Math.max(k, 0)];
+        for (int i = 0; i < nodes; i++) {
+            neighbours[i] = nearest(distances, i, k, nearestDistances);
+        }
+        return neighbours;
+    }
+
+    //Liste eines einzelnen Knotens, für inkrementelle Änderungen der Distanzen
+    static int[] nearest(Matrix distances, int node, int k) {
+        k = Math.min(k, distances.size() - 1);
+        return nearest(distances, node, k, new double[Math.max(k, 0)]);
+    }
+
+    private static int[] nearest(Matrix distances, int i, int k, double[] nearestDistances) {
+        int nodes = distances.size();
+        int[] nearest = new int[Math.max(k, 0)];
+        int found = 0;
+
+        for (int j = 0; j < nodes && k > 0; j++) {
+            if (j == i) {
+                continue;
+            }
+            double distance = distances.get(i, j);
+            if (found == k && distance >= nearestDistances[k - 1]) {
+                continue;
+            }
+            // Einfügen in die sortierte Liste der bisher nächsten Nachbarn
+            int position = found < k ? found++ : k - 1;
+            while (position > 0 && nearestDistances[position - 1] > distance) {
+                nearestDistances[position] = nearestDistances[position - 1];
+                nearest[position] = nearest[position - 1];
+                position--;
+            }
+            nearestDistances[position] = distance;
+            nearest[position] = j;
+        }
+        return nearest;
+    }
+
+    //Sortiert einen neuen Knoten mit höchstem Index in die Liste von node ein, bei Länge k fällt der entfernteste Nachbar heraus.
+    //Bei gleicher Distanz steht der neue Knoten hinten, wie bei nearest()
+    static int[] insert(Matrix distances, int node, int[] neighbours, int added, int k) {
+        double distance = distances.get(node, added);
+        int position = 0;
+        while (position < neighbours.length && distances.get(node, neighbours[position]) <= distance) {
+            position++;
+        }
+        int length = Math.min(k, neighbours.length + 1);
+        if (position >= length) {
+            return neighbours;
+        }
+        int[] updated = new int[length];
+        System.arraycopy(neighbours, 0, updated, 0, position);
+        updated[position] = added;
+        System.arraycopy(neighbours, position, updated, position + 1, length - position - 1);
+        return updated;
+    }
+}
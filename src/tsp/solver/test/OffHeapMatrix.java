@@ -0,0 +1,74 @@
+package tsp.solver.test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+//Zeilenweise Matrix in direkten Buffern ausserhalb des Heaps, eine Zeile pro Buffer damit auch n * n > 2^31 geht
+class OffHeapMatrix implements Matrix {
+    private final int size;
+    private final DoubleBuffer[] rows;
+
+    OffHeapMatrix(int size) {
+        this.size = size;
+        this.rows = new DoubleBuffer[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = ByteBuffer.allocateDirect(size * Double.BYTES).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        }
+    }
+
+    //Über vorhandene Zeilen-Buffer, z.B. aus einer gemappten Datei
+    OffHeapMatrix(DoubleBuffer[] rows) {
+        this.size = rows.length;
+        this.rows = rows;
+        for (int i = 0; i < size; i++) {
+            if (rows[i].capacity() != size) {
+                throw new IllegalArgumentException("Row " + i + " has " + rows[i].capacity() + " entries, expected " + size);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        return rows[i].get(j);
+    }
+
+    @Override
+    public void set(int i, int j, double value) {
+        rows[i].put(j, value);
+    }
+
+    @Override
+    public void add(int i, int j, double value) {
+        DoubleBuffer row = rows[i];
+        row.put(j, row.get(j) + value);
+    }
+
+    @Override
+    public void scale(double factor) {
+        for (DoubleBuffer row : rows) {
+            for (int j = 0; j < size; j++) {
+                row.put(j, row.get(j) * factor);
+            }
+        }
+    }
+
+    @Override
+    public void fill(double value) {
+        for (DoubleBuffer row : rows) {
+            for (int j = 0; j < size; j++) {
+                row.put(j, value);
+            }
+        }
+    }
+
+    @Override
+    public boolean isSymmetric() {
+        return false;
+    }
+}
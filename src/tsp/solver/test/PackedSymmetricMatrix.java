@@ -0,0 +1,63 @@
+package tsp.solver.test;
+
+import java.util.Arrays;
+
+//Symmetrische Matrix, gespeichert als obere Dreiecksmatrix inkl. Diagonale in einem double[]
+class PackedSymmetricMatrix implements Matrix {
+    private final int size;
+    private final double[] data;
+    private final int[] rowStart; // Index von (i, 0) gedacht, (i, j) liegt bei rowStart[i] + j für j >= i
+
+    PackedSymmetricMatrix(int size) {
+        this.size = size;
+        this.data = new double[MatrixStorage.checkedArrayLength((long) size * (size + 1) / 2, size)];
+        this.rowStart = new int[size];
+        long start = 0;
+        for (int i = 0; i < size; i++) {
+            rowStart[i] = (int) (start - i);
+            start += size - i;
+        }
+    }
+
+    private int index(int i, int j) {
+        return i <= j ? rowStart[i] + j : rowStart[j] + i;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        return data[index(i, j)];
+    }
+
+    @Override
+    public void set(int i, int j, double value) {
+        data[index(i, j)] = value;
+    }
+
+    @Override
+    public void add(int i, int j, double value) {
+        data[index(i, j)] += value;
+    }
+
+    @Override
+    public void scale(double factor) {
+        double[] values = data;
+        for (int k = 0; k < values.length; k++) {
+            values[k] *= factor;
+        }
+    }
+
+    @Override
+    public void fill(double value) {
+        Arrays.fill(data, value);
+    }
+
+    @Override
+    public boolean isSymmetric() {
+        return true;
+    }
+}
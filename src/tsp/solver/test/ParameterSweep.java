@@ -0,0 +1,273 @@
+package tsp.solver.test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+//Testet ein Parametergitter (q, alpha) parallel: jeder Lauf bekommt eine eigene Kolonie, alle teilen sich die nur gelesene Distanzmatrix
+//Ergebnisse werden als CSV oder JSON Lines geschrieben sobald ein Lauf fertig ist
+public class ParameterSweep {
+
+    public enum OutputFormat {
+        CSV, JSON_LINES
+    }
+
+    //Ein Punkt im Parametergitter
+    public static final class Configuration {
+        private final double q;
+        private final double alpha;
+
+        public Configuration(double q, double alpha) {
+            this.q = q;
+            this.alpha = alpha;
+        }
+
+        public double getQ() {
+            return q;
+        }
+
+        public double getAlpha() {
+            return alpha;
+        }
+
+        @Override
+        public String toString() {
+            return "Q = " + q + ", ALPHA = " + alpha;
+        }
+    }
+
+    //Ergebnis eines einzelnen Laufs
+    public static final class RunResult {
+        private final Configuration configuration;
+        private final int run;
+        private final double bestTourCost;
+        private final long durationNanos;
+        private final int iterations;
+
+        RunResult(Configuration configuration, int run, double bestTourCost, long durationNanos, int iterations) {
+            this.configuration = configuration;
+            this.run = run;
+            this.bestTourCost = bestTourCost;
+            this.durationNanos = durationNanos;
+            this.iterations = iterations;
+        }
+
+        public Configuration getConfiguration() {
+            return configuration;
+        }
+
+        public int getRun() {
+            return run;
+        }
+
+        public double getBestTourCost() {
+            return bestTourCost;
+        }
+
+        public double getDurationMillis() {
+            return durationNanos / 1_000_000.0;
+        }
+
+        public int getIterations() {
+            return iterations;
+        }
+
+        String format(OutputFormat format) {
+            if (format == OutputFormat.CSV) {
+                return String.format(Locale.ROOT, "%s,%s,%d,%s,%.3f,%d", configuration.q, configuration.alpha, run,
+                        bestTourCost, getDurationMillis(), iterations);
+            }
+            return String.format(Locale.ROOT, "{\"q\":%s,\"alpha\":%s,\"run\":%d,\"bestTourCost\":%s,\"durationMs\":%.3f,\"iterations\":%d}",
+                    configuration.q, configuration.alpha, run, bestTourCost, getDurationMillis(), iterations);
+        }
+    }
+
+    //Mittelwert und Perzentile aller Läufe einer Konfiguration
+    public static final class Summary {
+        private final Configuration configuration;
+        private final double[] costs;
+        private final double[] durations;
+
+        Summary(Configuration configuration, List<RunResult> results) {
+            this.configuration = configuration;
+            this.costs = new double[results.size()];
+            this.durations = new double[results.size()];
+            for (int i = 0; i < results.size(); i++) {
+                costs[i] = results.get(i).getBestTourCost();
+                durations[i] = results.get(i).getDurationMillis();
+            }
+            Arrays.sort(costs);
+            Arrays.sort(durations);
+        }
+
+        public Configuration getConfiguration() {
+            return configuration;
+        }
+
+        public int getRuns() {
+            return costs.length;
+        }
+
+        public double getMeanCost() {
+            return mean(costs);
+        }
+
+        //p in [0, 100], nächster Rang
+        public double getCostPercentile(double p) {
+            return percentile(costs, p);
+        }
+
+        public double getMeanDurationMillis() {
+            return mean(durations);
+        }
+
+        public double getDurationPercentile(double p) {
+            return percentile(durations, p);
+        }
+
+        private static double mean(double[] values) {
+            double sum = 0.0;
+            for (double value : values) {
+                sum += value;
+            }
+            return values.length == 0 ? Double.NaN : sum / values.length;
+        }
+
+        private static double percentile(double[] sorted, double p) {
+            if (sorted.length == 0) {
+                return Double.NaN;
+            }
+            int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+            return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+        }
+    }
+
+    private final Matrix distances;
+    private final double initialPheromone;
+    private final double evaporationRate;
+    private final List<Configuration> configurations = new ArrayList<>();
+    private int runs = 100;
+    private int iterations = 100;
+    private long seed = 42;
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    public ParameterSweep(Matrix distances, double initialPheromone, double evaporationRate) {
+        this.distances = distances;
+        this.initialPheromone = initialPheromone;
+        this.evaporationRate = evaporationRate;
+    }
+
+    public ParameterSweep addConfiguration(double q, double alpha) {
+        configurations.add(new Configuration(q, alpha));
+        return this;
+    }
+
+    //Alle Kombinationen aus qValues x alphaValues
+    public ParameterSweep addGrid(double[] qValues, double[] alphaValues) {
+        for (double q : qValues) {
+            for (double alpha : alphaValues) {
+                addConfiguration(q, alpha);
+            }
+        }
+        return this;
+    }
+
+    public ParameterSweep setRuns(int runs) {
+        this.runs = runs;
+        return this;
+    }
+
+    public ParameterSweep setIterations(int iterations) {
+        this.iterations = iterations;
+        return this;
+    }
+
+    //Basis-Seed, Lauf r einer Konfiguration verwendet seed + r
+    public ParameterSweep setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public ParameterSweep setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be at least 1: " + threads);
+        }
+        this.threads = threads;
+        return this;
+    }
+
+    //Führt alle (Konfiguration, Lauf) Paare aus, schreibt jedes Ergebnis sofort nach output (darf null sein)
+    //und liefert die Zusammenfassung pro Konfiguration in Eingabereihenfolge
+    public List<Summary> run(Writer output, OutputFormat format) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CompletionService<RunResult> completion = new ExecutorCompletionService<>(executor);
+            for (Configuration configuration : configurations) {
+                for (int run = 0; run < runs; run++) {
+                    int runIndex = run;
+                    completion.submit(() -> runOnce(configuration, runIndex));
+                }
+            }
+
+            List<List<RunResult>> byConfiguration = new ArrayList<>();
+            for (int c = 0; c < configurations.size(); c++) {
+                byConfiguration.add(new ArrayList<>(runs));
+            }
+            if (output != null && format == OutputFormat.CSV) {
+                writeLine(output, "q,alpha,run,bestTourCost,durationMs,iterations");
+            }
+
+            // Ergebnisse in Fertigstellungsreihenfolge einsammeln, geschrieben wird nur von diesem Thread
+            for (int done = 0; done < configurations.size() * runs; done++) {
+                RunResult result = completion.take().get();
+                byConfiguration.get(configurations.indexOf(result.getConfiguration())).add(result);
+                if (output != null) {
+                    writeLine(output, result.format(format));
+                }
+            }
+
+            List<Summary> summaries = new ArrayList<>(configurations.size());
+            for (int c = 0; c < configurations.size(); c++) {
+                summaries.add(new Summary(configurations.get(c), byConfiguration.get(c)));
+            }
+            return summaries;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Sweep run failed.", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private RunResult runOnce(Configuration configuration, int run) {
+        TSPAntColony tsp = new TSPAntColony(distances.size(), initialPheromone, evaporationRate, configuration.q, configuration.alpha);
+        tsp.setDistances(distances);
+        tsp.setSeed(seed + run);
+        tsp.initializePheromones();
+
+        long startTime = System.nanoTime();
+        SolveResult result = tsp.solve(SolveBudget.ofIterations(iterations));
+        return new RunResult(configuration, run, result.getBestCost(), System.nanoTime() - startTime, result.getIterations());
+    }
+
+    private static void writeLine(Writer output, String line) {
+        try {
+            output.write(line);
+            output.write(System.lineSeparator());
+            output.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
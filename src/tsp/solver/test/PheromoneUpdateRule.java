@@ -0,0 +1,12 @@
+package tsp.solver.test;
+
+//Regeln für das Aktualisieren der Pheromone
+public enum PheromoneUpdateRule {
+    // Ant System: jede Ameise hinterlässt nach dem Tourbau Pheromone, updatePheromones verstärkt alle übergebenen Touren, Verdunstung auf allen Kanten
+    ANT_SYSTEM,
+    // MAX-MIN Ant System: nur die beste Tour der Iteration (oder die bisher beste) verstärkt, Werte bleiben in [tauMin, tauMax]
+    MAX_MIN,
+    // Ant Colony System: pseudo-zufällig proportionale Wahl mit q0, lokale Aktualisierung nur auf befahrenen Kanten,
+    // globale Aktualisierung (mit Verdunstung) nur auf der bisher besten Tour
+    ANT_COLONY_SYSTEM
+}
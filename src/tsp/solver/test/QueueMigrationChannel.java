@@ -0,0 +1,48 @@
+package tsp.solver.test;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+//Migration zwischen Inseln im selben Prozess über begrenzte Warteschlangen
+public final class QueueMigrationChannel implements MigrationChannel {
+    private final BlockingQueue<Tour> inbox;
+    private QueueMigrationChannel next;
+
+    public QueueMigrationChannel(int capacity) {
+        this.inbox = new ArrayBlockingQueue<>(capacity);
+    }
+
+    //Ring: Insel i schickt an Insel i + 1, die letzte an die erste
+    public static QueueMigrationChannel[] ring(int islands, int capacity) {
+        QueueMigrationChannel[] channels = new QueueMigrationChannel[islands];
+        for (int i = 0; i < islands; i++) {
+            channels[i] = new QueueMigrationChannel(capacity);
+        }
+        for (int i = 0; i < islands; i++) {
+            channels[i].connect(channels[(i + 1) % islands]);
+        }
+        return channels;
+    }
+
+    public void connect(QueueMigrationChannel next) {
+        this.next = next;
+    }
+
+    @Override
+    public void send(Tour tour) {
+        QueueMigrationChannel target = next;
+        if (target != null && target != this) {
+            target.inbox.offer(new Tour(tour.nodes, tour.cost)); // volle Warteschlange: verwerfen
+        }
+    }
+
+    @Override
+    public Tour poll() {
+        return inbox.poll();
+    }
+
+    @Override
+    public void close() {
+        inbox.clear();
+    }
+}
@@ -0,0 +1,49 @@
+package tsp.solver.test;
+
+//Skalare Kernel, Referenz und Rückfall ohne jdk.incubator.vector
+final class ScalarChoiceKernels implements ChoiceKernels {
+    static final ScalarChoiceKernels INSTANCE = new ScalarChoiceKernels();
+
+    private ScalarChoiceKernels() {
+    }
+
+    @Override
+    public double score(double[] choice, int offset, boolean[] visited, double[] scores, int n) {
+        double total = 0.0;
+        for (int i = 0; i < n; i++) {
+            double score = visited[i] ? 0.0 : choice[offset + i];
+            scores[i] = score;
+            total += score;
+        }
+        return total;
+    }
+
+    @Override
+    public void divide(double[] values, int n, double divisor) {
+        for (int i = 0; i < n; i++) {
+            values[i] /= divisor;
+        }
+    }
+
+    @Override
+    public double prefixSums(double[] values, int n) {
+        double sum = 0.0;
+        for (int i = 0; i < n; i++) {
+            sum += values[i];
+            values[i] = sum;
+        }
+        return sum;
+    }
+
+    @Override
+    public void scale(double[] values, int from, int to, double factor) {
+        for (int i = from; i < to; i++) {
+            values[i] *= factor;
+        }
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
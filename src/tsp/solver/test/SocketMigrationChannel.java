@@ -0,0 +1,171 @@
+package tsp.solver.test;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+//Migration zwischen Inseln in verschiedenen JVMs über lokale TCP Verbindungen.
+//Empfangen und Senden laufen in eigenen Daemon-Threads, send() und poll() greifen nur auf begrenzte Warteschlangen zu.
+//Rahmen pro Tour: int Länge, double Kosten, Länge * int Knoten
+public final class SocketMigrationChannel implements MigrationChannel {
+    private static final int MAX_TOUR_LENGTH = 1 << 24;
+    private static final long RECONNECT_DELAY_MILLIS = 200;
+
+    private final InetSocketAddress next;
+    private final BlockingQueue<Tour> inbox;
+    private final BlockingQueue<Tour> outbox;
+    private final ServerSocket serverSocket;
+    private final Thread acceptor;
+    private final Thread sender;
+    private volatile boolean closed;
+    private volatile Socket outgoing;
+
+    //Lauscht auf listenPort (nur loopback) und schickt an die Insel unter next, die auch später starten darf
+    public SocketMigrationChannel(int listenPort, InetSocketAddress next, int capacity) throws IOException {
+        this.next = next;
+        this.inbox = new ArrayBlockingQueue<>(capacity);
+        this.outbox = new ArrayBlockingQueue<>(capacity);
+        this.serverSocket = new ServerSocket(listenPort, 8, InetAddress.getLoopbackAddress());
+        this.acceptor = daemon(this::acceptLoop, "migration-accept-" + serverSocket.getLocalPort());
+        this.sender = daemon(this::sendLoop, "migration-send-" + serverSocket.getLocalPort());
+        acceptor.start();
+        sender.start();
+    }
+
+    public int getLocalPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void send(Tour tour) {
+        if (!closed) {
+            outbox.offer(new Tour(tour.nodes, tour.cost)); // volle Warteschlange: verwerfen
+        }
+    }
+
+    @Override
+    public Tour poll() {
+        return inbox.poll();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        closeQuietly(serverSocket);
+        closeQuietly(outgoing);
+        acceptor.interrupt();
+        sender.interrupt();
+        inbox.clear();
+        outbox.clear();
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                daemon(() -> receiveLoop(socket), "migration-receive-" + socket.getPort()).start();
+            } catch (IOException e) {
+                if (!closed) {
+                    sleepQuietly(RECONNECT_DELAY_MILLIS);
+                }
+            }
+        }
+    }
+
+    private void receiveLoop(Socket socket) {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+            while (!closed) {
+                int length = input.readInt();
+                if (length < 2 || length > MAX_TOUR_LENGTH) {
+                    throw new IOException("Invalid tour length in migration frame: " + length);
+                }
+                double cost = input.readDouble();
+                int[] nodes = new int[length];
+                for (int i = 0; i < length; i++) {
+                    nodes[i] = input.readInt();
+                }
+                inbox.offer(new Tour(nodes, cost)); // volle Warteschlange: verwerfen
+            }
+        } catch (EOFException e) {
+            // Gegenstelle beendet
+        } catch (IOException e) {
+            if (!closed) {
+                System.err.println("Migration connection from " + socket.getRemoteSocketAddress() + " failed: " + e.getMessage());
+            }
+        } finally {
+            closeQuietly(socket);
+        }
+    }
+
+    //Verbindet bei Bedarf neu, eine Tour die wegen eines Verbindungsfehlers nicht rausging wird verworfen
+    private void sendLoop() {
+        DataOutputStream output = null;
+        while (!closed) {
+            Tour tour;
+            try {
+                tour = outbox.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (tour == null) {
+                continue;
+            }
+            try {
+                if (output == null) {
+                    Socket socket = new Socket();
+                    socket.connect(next, 1000);
+                    socket.setTcpNoDelay(true);
+                    outgoing = socket;
+                    output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                }
+                output.writeInt(tour.nodes.length);
+                output.writeDouble(tour.cost);
+                for (int node : tour.nodes) {
+                    output.writeInt(node);
+                }
+                output.flush();
+            } catch (IOException e) {
+                closeQuietly(outgoing);
+                outgoing = null;
+                output = null;
+                sleepQuietly(RECONNECT_DELAY_MILLIS);
+            }
+        }
+        closeQuietly(outgoing);
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            // beim Schließen egal
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package tsp.solver.test;
+
+import java.time.Duration;
+
+//Abbruchbedingungen für TSPAntColony.solve(), es gilt die zuerst erreichte Grenze
+//Unveränderlich: with... liefert ein neues Budget
+public final class SolveBudget {
+    private static final SolveBudget UNLIMITED = new SolveBudget(Long.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+    private final long timeLimitNanos;
+    private final int maxIterations;
+    private final int stagnationLimit;
+
+    private SolveBudget(long timeLimitNanos, int maxIterations, int stagnationLimit) {
+        this.timeLimitNanos = timeLimitNanos;
+        this.maxIterations = maxIterations;
+        this.stagnationLimit = stagnationLimit;
+    }
+
+    //Nur durch cancel() oder Interrupt beendet
+    public static SolveBudget unlimited() {
+        return UNLIMITED;
+    }
+
+    public static SolveBudget ofTime(Duration timeLimit) {
+        return UNLIMITED.withTimeLimit(timeLimit);
+    }
+
+    public static SolveBudget ofIterations(int maxIterations) {
+        return UNLIMITED.withMaxIterations(maxIterations);
+    }
+
+    //Wanduhrzeit ab Aufruf von solve(). Eine Iteration wird nur begonnen, wenn sie nach der Dauer der letzten noch hineinpasst
+    public SolveBudget withTimeLimit(Duration timeLimit) {
+        if (timeLimit.isNegative()) {
+            throw new IllegalArgumentException("Time limit must not be negative: " + timeLimit);
+        }
+        long nanos;
+        try {
+            nanos = timeLimit.toNanos();
+        } catch (ArithmeticException e) {
+            nanos = Long.MAX_VALUE;
+        }
+        return new SolveBudget(nanos, maxIterations, stagnationLimit);
+    }
+
+    public SolveBudget withMaxIterations(int maxIterations) {
+        if (maxIterations < 0) {
+            throw new IllegalArgumentException("Max iterations must not be negative: " + maxIterations);
+        }
+        return new SolveBudget(timeLimitNanos, maxIterations, stagnationLimit);
+    }
+
+    //Abbruch nach so vielen Iterationen in Folge ohne neue bisher beste Tour
+    public SolveBudget withStagnationLimit(int stagnationLimit) {
+        if (stagnationLimit < 1) {
+            throw new IllegalArgumentException("Stagnation limit must be at least 1: " + stagnationLimit);
+        }
+        return new SolveBudget(timeLimitNanos, maxIterations, stagnationLimit);
+    }
+
+    public boolean hasTimeLimit() {
+        return timeLimitNanos != Long.MAX_VALUE;
+    }
+
+    public long getTimeLimitNanos() {
+        return timeLimitNanos;
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    public int getStagnationLimit() {
+        return stagnationLimit;
+    }
+
+    @Override
+    public String toString() {
+        return "SolveBudget[time=" + (hasTimeLimit() ? Duration.ofNanos(timeLimitNanos) : "unlimited")
+                + ", iterations=" + (maxIterations == Integer.MAX_VALUE ? "unlimited" : maxIterations)
+                + ", stagnation=" + (stagnationLimit == Integer.MAX_VALUE ? "unlimited" : stagnationLimit) + "]";
+    }
+}
@@ -0,0 +1,7 @@
+package tsp.solver.test;
+
+//Wird im Thread von solve() bei jeder neuen bisher besten Tour aufgerufen, sollte also schnell zurückkehren
+@FunctionalInterface
+public interface SolveListener {
+    void improved(SolveProgress progress);
+}
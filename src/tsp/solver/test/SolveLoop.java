@@ -0,0 +1,73 @@
+package tsp.solver.test;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+//Budgetschleife von TSPAntColony.solve() und SparseAntColony.solve(): Abbruch, Iterations-, Stagnations- und Zeitgrenze
+//werden vor jeder Iteration geprüft, die Kolonie liefert nur die Iteration selbst und die bisher besten Kosten
+final class SolveLoop {
+
+    //Eine Iteration der Kolonie, false wenn sie durch einen Interrupt abgebrochen wurde
+    @FunctionalInterface
+    interface Iteration {
+        boolean run();
+    }
+
+    //Neue bisher beste Tour nach iteration Iterationen dieses Laufs
+    @FunctionalInterface
+    interface Improvement {
+        void improved(int iteration, long elapsedNanos);
+    }
+
+    private SolveLoop() {
+    }
+
+    //bestTour liefert am Ende eine Kopie der bisher besten Tour oder null
+    static SolveResult run(SolveBudget budget, BooleanSupplier cancelled, Iteration iteration, DoubleSupplier bestCost,
+                           Improvement improvement, Supplier<Tour> bestTour) {
+        long start = System.nanoTime();
+        double best = bestCost.getAsDouble();
+        int iterations = 0;
+        int stagnation = 0;
+        long lastIterationNanos = 0;
+        SolveResult.StopReason stopReason;
+        while (true) {
+            if (cancelled.getAsBoolean() || Thread.currentThread().isInterrupted()) {
+                stopReason = SolveResult.StopReason.CANCELLED;
+                break;
+            }
+            if (iterations >= budget.getMaxIterations()) {
+                stopReason = SolveResult.StopReason.MAX_ITERATIONS;
+                break;
+            }
+            if (stagnation >= budget.getStagnationLimit()) {
+                stopReason = SolveResult.StopReason.STAGNATION;
+                break;
+            }
+            // Eine weitere Iteration, die voraussichtlich nicht mehr ins Zeitbudget passt, wird nicht begonnen
+            long iterationStart = System.nanoTime();
+            if (budget.hasTimeLimit() && iterationStart - start + lastIterationNanos > budget.getTimeLimitNanos()) {
+                stopReason = SolveResult.StopReason.TIME_LIMIT;
+                break;
+            }
+
+            if (!iteration.run()) {
+                stopReason = SolveResult.StopReason.CANCELLED;
+                break;
+            }
+            iterations++;
+            lastIterationNanos = System.nanoTime() - iterationStart;
+
+            double cost = bestCost.getAsDouble();
+            if (cost < best) {
+                best = cost;
+                stagnation = 0;
+                improvement.improved(iterations, System.nanoTime() - start);
+            } else {
+                stagnation++;
+            }
+        }
+        return new SolveResult(bestTour.get(), iterations, System.nanoTime() - start, stopReason);
+    }
+}
@@ -0,0 +1,36 @@
+package tsp.solver.test;
+
+//Neue bisher beste Tour während solve(), eigene Kopie der Tour und damit sicher an andere Threads weiterzugeben
+public final class SolveProgress {
+    private final Tour bestTour;
+    private final int iteration;
+    private final long elapsedNanos;
+
+    SolveProgress(Tour bestTour, int iteration, long elapsedNanos) {
+        this.bestTour = bestTour;
+        this.iteration = iteration;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public Tour getBestTour() {
+        return bestTour;
+    }
+
+    public double getBestCost() {
+        return bestTour.getCost();
+    }
+
+    //Iteration innerhalb dieses solve() Aufrufs, beginnend bei 1
+    public int getIteration() {
+        return iteration;
+    }
+
+    public double getElapsedMillis() {
+        return elapsedNanos / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return "Iteration " + iteration + ": " + bestTour.getCost() + " nach " + getElapsedMillis() + " ms";
+    }
+}
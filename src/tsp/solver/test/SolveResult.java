@@ -0,0 +1,47 @@
+package tsp.solver.test;
+
+//Ergebnis von TSPAntColony.solve()
+public final class SolveResult {
+
+    public enum StopReason {
+        TIME_LIMIT, MAX_ITERATIONS, STAGNATION, CANCELLED
+    }
+
+    private final Tour bestTour;
+    private final int iterations;
+    private final long elapsedNanos;
+    private final StopReason stopReason;
+
+    SolveResult(Tour bestTour, int iterations, long elapsedNanos, StopReason stopReason) {
+        this.bestTour = bestTour;
+        this.iterations = iterations;
+        this.elapsedNanos = elapsedNanos;
+        this.stopReason = stopReason;
+    }
+
+    //Kopie der bisher besten Tour, null wenn keine einzige Iteration lief
+    public Tour getBestTour() {
+        return bestTour;
+    }
+
+    public double getBestCost() {
+        return bestTour == null ? Double.POSITIVE_INFINITY : bestTour.getCost();
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public double getElapsedMillis() {
+        return elapsedNanos / 1_000_000.0;
+    }
+
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
+    @Override
+    public String toString() {
+        return getBestCost() + " nach " + iterations + " Iterationen, " + getElapsedMillis() + " ms (" + stopReason + ")";
+    }
+}
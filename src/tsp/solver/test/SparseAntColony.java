@@ -0,0 +1,513 @@
+package tsp.solver.test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+//Ameisenkolonie auf einem SparseGraph: Pheromone, Heuristik und choiceInfo liegen pro Kante in den CSR Arrays, ein Schritt
+//kostet O(Grad) und der Speicher O(n + m). Die Ameisen laufen nur über vorhandene Kanten (Ant System Aktualisierung).
+//Sackgassen: Warnsdorff Gewichtung vermeidet die meisten, sonst Backtracking (bis maxBacktracks Schritte pro Ameise), danach ein Sprung zu einem unbesuchten Knoten ohne Kante,
+//der penalty kostet. Eine Tour ohne Sprünge ist ein gültiger Hamiltonkreis im Graphen
+//Aufruf: SparseAntColony <graph.gr | knotenzahl> [sekunden]
+public class SparseAntColony {
+    private static final int JUMP_SEARCH_DEPTH = 64;
+    private static final int NO_STAMP = -1;
+
+    private final SparseGraph graph;
+    private final int nodes;
+    private final double initialPheromone;
+    private final double evaporationRate;
+    private double q;
+    private double alpha;
+
+    private final double[] pheromones;
+    private final double[] heuristic; // eta^alpha pro Kante
+    private final double[] choiceInfo; // tau^q * eta^alpha pro Kante, einmal pro Iteration
+    private double heuristicAlpha = Double.NaN;
+    private boolean choiceInfoDirty = true;
+
+    private int ants;
+    private int maxBacktracks;
+    private double penalty;
+    private long seed = new SplittableRandom().nextLong();
+    private long iteration;
+    private volatile boolean cancelled;
+
+    // Pro Ameise: geschlossene Tour, benutzte Kante vor jedem Knoten (-1 = Sprung) und Kosten inklusive Strafen
+    private Tour[] antTours;
+    private int[][] antEdges;
+    private int[] antJumps;
+    private Tour bestSoFar;
+    private int bestSoFarJumps;
+    private int iterationBestAnt = -1;
+    private long backtracks;
+
+    // Tourbau, wiederverwendet
+    private final boolean[] visited;
+    private final int[] unvisited; // unbesuchte Knoten, Entfernen durch Tausch mit dem letzten
+    private final int[] unvisitedPosition;
+    private int unvisitedCount;
+    private final int[] freeDegree; // unbesuchte Nachbarn pro Knoten, über die Gegenkanten gezählt
+    private final int[] tried; // tried[edge] == choiceStamp[Tiefe]: Kante ist an dieser Stelle schon gescheitert
+    private final int[] choiceStamp;
+    private int stampCounter;
+    private final double[] scores;
+    private final double[] degreeWeight; // 1 / (1 + f)^deadEndAvoidance für f unbesuchte Nachbarn
+    private double deadEndAvoidance = 8.0;
+
+    public SparseAntColony(SparseGraph graph, double initialPheromone, double evaporationRate, double q, double alpha) {
+        this.graph = graph;
+        this.nodes = graph.size();
+        this.initialPheromone = initialPheromone;
+        this.evaporationRate = evaporationRate;
+        this.q = q;
+        this.alpha = alpha;
+
+        int edges = graph.edgeCount();
+        this.pheromones = new double[edges];
+        this.heuristic = new double[edges];
+        this.choiceInfo = new double[edges];
+        this.tried = new int[edges];
+
+        this.visited = new boolean[nodes];
+        this.unvisited = new int[nodes];
+        this.unvisitedPosition = new int[nodes];
+        this.freeDegree = new int[nodes];
+        this.choiceStamp = new int[nodes + 1];
+        int maxDegree = 0;
+        double maxWeight = 0.0;
+        for (int i = 0; i < nodes; i++) {
+            maxDegree = Math.max(maxDegree, graph.degree(i));
+        }
+        for (int edge = 0; edge < edges; edge++) {
+            maxWeight = Math.max(maxWeight, graph.weight(edge));
+        }
+        this.scores = new double[maxDegree];
+        this.degreeWeight = new double[maxDegree + 1];
+        updateDegreeWeights();
+
+        this.ants = Math.min(nodes, 32);
+        this.maxBacktracks = 64;
+        this.penalty = 10.0 * Math.max(maxWeight, 1.0);
+        initializePheromones();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Aufruf: SparseAntColony <graph.gr | knotenzahl> [sekunden]");
+            System.exit(2);
+        }
+        Path file = Paths.get(args[0]);
+        SparseGraph graph = Files.exists(file) ? SparseGraph.readDimacs(file)
+                : SparseGraph.randomGeometric(Integer.parseInt(args[0]), 8, 1);
+        double seconds = args.length > 1 ? Double.parseDouble(args[1]) : 10.0;
+        System.out.println(graph);
+
+        SparseAntColony colony = new SparseAntColony(graph, 1.0, 0.1, 1.0, 2.0);
+        colony.setSeed(1);
+        SolveResult result = colony.solve(SolveBudget.ofTime(Duration.ofMillis((long) (seconds * 1000))));
+        System.out.println(result + ", " + colony.getBestSoFarJumps() + " Sprünge ohne Kante");
+    }
+
+    // Anfängliche Pheromon Werte auf allen Kanten
+    public void initializePheromones() {
+        Arrays.fill(pheromones, initialPheromone);
+        choiceInfoDirty = true;
+        bestSoFar = null;
+        bestSoFarJumps = 0;
+        iterationBestAnt = -1;
+    }
+
+    //Alle Ameisen bauen eine Tour, danach Verdunstung und Ant System Aktualisierung auf den benutzten Kanten
+    public void iterate() {
+        constructTours();
+        evaporatePheromones();
+        updatePheromones();
+    }
+
+    public void constructTours() {
+        updateChoiceInfo();
+        ensureTourBuffers();
+        backtracks = 0;
+        for (int ant = 0; ant < ants; ant++) {
+            constructTour(ant, new SplittableRandom(seed + iteration * 0x9E3779B97F4A7C15L + ant * 0xBF58476D1CE4E5B9L));
+        }
+        iteration++;
+
+        iterationBestAnt = 0;
+        for (int ant = 1; ant < ants; ant++) {
+            if (antTours[ant].cost < antTours[iterationBestAnt].cost) {
+                iterationBestAnt = ant;
+            }
+        }
+        Tour best = antTours[iterationBestAnt];
+        if (bestSoFar == null || best.cost < bestSoFar.cost) {
+            if (bestSoFar == null) {
+                bestSoFar = new Tour(nodes + 1);
+            }
+            bestSoFar.copyFrom(best.nodes, best.cost);
+            bestSoFarJumps = antJumps[iterationBestAnt];
+        }
+    }
+
+    //Tour einer Ameise, Start verteilt über alle Knoten. Tiefe d: tour[d] wurde über edges[d] erreicht
+    private void constructTour(int ant, SplittableRandom random) {
+        int[] tour = antTours[ant].nodes;
+        int[] edges = antEdges[ant];
+        resetVisited();
+        tour[0] = (int) ((long) ant * nodes / ants);
+        visit(tour[0]);
+        int depth = 0;
+        choiceStamp[1] = nextStamp();
+        int backtrackBudget = maxBacktracks;
+        int jumps = 0;
+
+        while (true) {
+            if (depth == nodes - 1) {
+                // Alle Knoten besucht: Rückkante zum Start, sonst wie eine Sackgasse behandeln
+                int closing = graph.edgeIndex(tour[depth], tour[0]);
+                if (closing >= 0) {
+                    edges[nodes] = closing;
+                    break;
+                }
+                if (backtrackBudget > 0) {
+                    backtrackBudget--;
+                    backtracks++;
+                    depth = backtrack(tour, edges, depth);
+                    continue;
+                }
+                edges[nodes] = -1;
+                jumps++;
+                break;
+            }
+
+            int edge = chooseEdge(tour[depth], choiceStamp[depth + 1], random);
+            if (edge < 0 && backtrackBudget > 0 && depth > 0) {
+                backtrackBudget--;
+                backtracks++;
+                depth = backtrack(tour, edges, depth);
+                continue;
+            }
+            if (edge < 0) {
+                edge = chooseEdge(tour[depth], NO_STAMP, random); // Budget aufgebraucht: gescheiterte Kanten wieder zulassen
+            }
+            depth++;
+            if (edge >= 0) {
+                tour[depth] = graph.target(edge);
+            } else {
+                tour[depth] = jumpTarget(tour, depth - 1, random);
+                jumps++;
+            }
+            edges[depth] = edge;
+            visit(tour[depth]);
+            choiceStamp[depth + 1] = nextStamp();
+        }
+
+        tour[nodes] = tour[0];
+        double cost = jumps * penalty;
+        for (int d = 1; d <= nodes; d++) {
+            if (edges[d] >= 0) {
+                cost += graph.weight(edges[d]);
+            }
+        }
+        antTours[ant].cost = cost;
+        antJumps[ant] = jumps;
+    }
+
+    //Letzten Knoten zurücknehmen und die Kante dorthin an dieser Stelle als gescheitert markieren
+    private int backtrack(int[] tour, int[] edges, int depth) {
+        unvisit(tour[depth]);
+        if (edges[depth] >= 0) {
+            tried[edges[depth]] = choiceStamp[depth];
+        }
+        return depth - 1;
+    }
+
+    //Roulette über die Kanten zu unbesuchten, an dieser Stelle noch nicht gescheiterten Nachbarn, -1 in einer Sackgasse.
+    //Nach Warnsdorff wird jeder Score mit degreeWeight[unbesuchte Nachbarn des Ziels] gewichtet: Knoten, die bald nur noch
+    //schwer erreichbar sind, kommen zuerst dran, das vermeidet die meisten Sackgassen
+    private int chooseEdge(int node, int stamp, SplittableRandom random) {
+        int start = graph.edgeStart(node);
+        int end = graph.edgeEnd(node);
+        double total = 0.0;
+        int eligible = 0;
+        int lastEligible = -1;
+        for (int edge = start; edge < end; edge++) {
+            double score = 0.0;
+            int target = graph.target(edge);
+            if (!visited[target] && tried[edge] != stamp) {
+                score = choiceInfo[edge] * degreeWeight[freeDegree[target]];
+                eligible++;
+                lastEligible = edge;
+            }
+            scores[edge - start] = score;
+            total += score;
+        }
+        if (eligible == 0) {
+            return -1;
+        }
+        if (!(total > 0.0)) {
+            return lastEligible; // Alle Scores unterlaufen
+        }
+        double threshold = random.nextDouble() * total;
+        double cumulative = 0.0;
+        for (int edge = start; edge < end; edge++) {
+            cumulative += scores[edge - start];
+            if (scores[edge - start] > 0.0 && cumulative >= threshold) {
+                return edge;
+            }
+        }
+        return lastEligible; // Rundungsfehler
+    }
+
+    //Sprungziel ohne Kante: ein unbesuchter Nachbar der zuletzt besuchten Knoten, damit die Tour in der Nähe weiterläuft,
+    //sonst ein zufälliger unbesuchter Knoten
+    private int jumpTarget(int[] tour, int depth, SplittableRandom random) {
+        for (int d = depth; d >= Math.max(0, depth - JUMP_SEARCH_DEPTH); d--) {
+            int node = tour[d];
+            for (int edge = graph.edgeStart(node); edge < graph.edgeEnd(node); edge++) {
+                if (!visited[graph.target(edge)]) {
+                    return graph.target(edge);
+                }
+            }
+        }
+        return unvisited[random.nextInt(unvisitedCount)];
+    }
+
+    private void resetVisited() {
+        Arrays.fill(visited, false);
+        for (int i = 0; i < nodes; i++) {
+            unvisited[i] = i;
+            unvisitedPosition[i] = i;
+            freeDegree[i] = graph.degree(i);
+        }
+        unvisitedCount = nodes;
+    }
+
+    private void visit(int node) {
+        visited[node] = true;
+        int position = unvisitedPosition[node];
+        int last = unvisited[--unvisitedCount];
+        unvisited[position] = last;
+        unvisitedPosition[last] = position;
+        updateFreeDegree(node, -1);
+    }
+
+    private void unvisit(int node) {
+        visited[node] = false;
+        unvisited[unvisitedCount] = node;
+        unvisitedPosition[node] = unvisitedCount++;
+        updateFreeDegree(node, 1);
+    }
+
+    //Nachbarn, die über eine Gegenkante zu node führen, haben einen unbesuchten Nachbarn weniger bzw. mehr
+    private void updateFreeDegree(int node, int delta) {
+        for (int edge = graph.edgeStart(node); edge < graph.edgeEnd(node); edge++) {
+            if (graph.reverseEdge(edge) >= 0) {
+                freeDegree[graph.target(edge)] += delta;
+            }
+        }
+    }
+
+    //Neue Markierung für eine Entscheidungsstelle, bei Überlauf werden alle Markierungen gelöscht
+    private int nextStamp() {
+        if (stampCounter == Integer.MAX_VALUE) {
+            Arrays.fill(tried, 0);
+            stampCounter = 0;
+        }
+        return ++stampCounter;
+    }
+
+    //Pheromon Werte verdunsten lassen, O(m)
+    public void evaporatePheromones() {
+        double factor = 1 - evaporationRate;
+        for (int edge = 0; edge < pheromones.length; edge++) {
+            pheromones[edge] *= factor;
+        }
+        choiceInfoDirty = true;
+    }
+
+    //Ant System: jede Ameise verstärkt ihre Kanten mit 1 / Kosten, Sprünge ohne Kante bekommen nichts.
+    //In symmetrischen Graphen wird die Gegenkante mit verstärkt
+    public void updatePheromones() {
+        boolean symmetric = graph.isSymmetric();
+        for (int ant = 0; ant < ants; ant++) {
+            double amount = 1.0 / antTours[ant].cost;
+            int[] edges = antEdges[ant];
+            for (int d = 1; d <= nodes; d++) {
+                int edge = edges[d];
+                if (edge < 0) {
+                    continue;
+                }
+                pheromones[edge] += amount;
+                if (symmetric) {
+                    pheromones[graph.reverseEdge(edge)] += amount;
+                }
+            }
+        }
+        choiceInfoDirty = true;
+    }
+
+    private void updateChoiceInfo() {
+        if (alpha != heuristicAlpha) {
+            for (int edge = 0; edge < heuristic.length; edge++) {
+                // Kanten mit Gewicht 0 zählen als sehr kurz statt als unendlich attraktiv
+                heuristic[edge] = 1.0 / Math.pow(Math.max(graph.weight(edge), 1e-9), alpha);
+            }
+            heuristicAlpha = alpha;
+            choiceInfoDirty = true;
+        }
+        if (!choiceInfoDirty) {
+            return;
+        }
+        if (q == 1.0) {
+            for (int edge = 0; edge < choiceInfo.length; edge++) {
+                choiceInfo[edge] = pheromones[edge] * heuristic[edge];
+            }
+        } else {
+            for (int edge = 0; edge < choiceInfo.length; edge++) {
+                choiceInfo[edge] = Math.pow(pheromones[edge], q) * heuristic[edge];
+            }
+        }
+        choiceInfoDirty = false;
+    }
+
+    private void ensureTourBuffers() {
+        if (antTours != null && antTours.length == ants) {
+            return;
+        }
+        antTours = new Tour[ants];
+        antEdges = new int[ants][nodes + 1];
+        antJumps = new int[ants];
+        for (int ant = 0; ant < ants; ant++) {
+            antTours[ant] = new Tour(nodes + 1);
+        }
+        iterationBestAnt = -1;
+    }
+
+    //Wie TSPAntColony.solve: Zeit-, Iterations- und Stagnationsgrenze, cancel() oder Interrupt zwischen zwei Iterationen
+    public SolveResult solve(SolveBudget budget) {
+        SolveLoop.Improvement noListeners = (iteration, elapsedNanos) -> {
+        };
+        return SolveLoop.run(budget, this::takeCancel, this::solveIteration, this::getBestSoFarCost, noListeners,
+                this::getBestSoFarTour);
+    }
+
+    private boolean solveIteration() {
+        iterate();
+        return true;
+    }
+
+    //Wie TSPAntColony.cancel(): ohne laufendes solve() wird das nächste sofort beendet
+    public void cancel() {
+        cancelled = true;
+    }
+
+    private boolean takeCancel() {
+        if (!cancelled) {
+            return false;
+        }
+        cancelled = false;
+        return true;
+    }
+
+    public SparseGraph getGraph() {
+        return graph;
+    }
+
+    //Kopie der bisher besten Tour, die Kosten enthalten penalty pro Sprung ohne Kante
+    public Tour getBestSoFarTour() {
+        return bestSoFar == null ? null : new Tour(bestSoFar.nodes, bestSoFar.cost);
+    }
+
+    public double getBestSoFarCost() {
+        return bestSoFar == null ? Double.POSITIVE_INFINITY : bestSoFar.cost;
+    }
+
+    //Sprünge ohne Kante in der bisher besten Tour, 0 = gültiger Hamiltonkreis im Graphen
+    public int getBestSoFarJumps() {
+        return bestSoFarJumps;
+    }
+
+    //Zurückgenommene Schritte aller Ameisen in der letzten Iteration
+    public long getBacktracks() {
+        return backtracks;
+    }
+
+    //Effektiver Pheromon Wert einer Kante, 0 wenn es die Kante nicht gibt
+    public double getPheromone(int from, int to) {
+        int edge = graph.edgeIndex(from, to);
+        return edge < 0 ? 0.0 : pheromones[edge];
+    }
+
+    public int getAnts() {
+        return ants;
+    }
+
+    //Anzahl Ameisen pro Iteration, Standard min(n, 32). Die Startknoten sind gleichmäßig verteilt
+    public void setAnts(int ants) {
+        if (ants < 1) {
+            throw new IllegalArgumentException("At least one ant is needed: " + ants);
+        }
+        this.ants = ants;
+    }
+
+    //Zurückgenommene Schritte pro Ameise, bevor Sackgassen mit einem Sprung überbrückt werden, 0 = nur Sprünge. Standard 64:
+    //reicht für eine fehlende Rückkante zum Start, auf k-NN Graphen bringen größere Budgets kaum weniger Sprünge, kosten aber Zeit
+    public void setMaxBacktracks(int maxBacktracks) {
+        if (maxBacktracks < 0) {
+            throw new IllegalArgumentException("Backtrack limit must not be negative: " + maxBacktracks);
+        }
+        this.maxBacktracks = maxBacktracks;
+    }
+
+    //Kosten eines Sprungs ohne Kante, Standard 10 * schwerste Kante
+    public void setPenalty(double penalty) {
+        if (!(penalty >= 0.0)) {
+            throw new IllegalArgumentException("Penalty must not be negative: " + penalty);
+        }
+        this.penalty = penalty;
+    }
+
+    public double getDeadEndAvoidance() {
+        return deadEndAvoidance;
+    }
+
+    //Exponent der Warnsdorff Gewichtung 1 / (1 + unbesuchte Nachbarn)^exponent, 0 = nur Pheromone und Distanzen. Standard 8:
+    //auf k-NN Graphen mit Grad 8 ergibt das etwa sechsmal weniger Sprünge als ohne Gewichtung
+    public void setDeadEndAvoidance(double exponent) {
+        if (!(exponent >= 0.0)) {
+            throw new IllegalArgumentException("Dead end avoidance must not be negative: " + exponent);
+        }
+        this.deadEndAvoidance = exponent;
+        updateDegreeWeights();
+    }
+
+    private void updateDegreeWeights() {
+        for (int free = 0; free < degreeWeight.length; free++) {
+            degreeWeight[free] = 1.0 / Math.pow(1 + free, deadEndAvoidance);
+        }
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+        this.iteration = 0;
+    }
+
+    public void setQ(double q) {
+        this.q = q;
+        choiceInfoDirty = true;
+    }
+
+    public void setAlpha(double alpha) {
+        this.alpha = alpha;
+    }
+}
@@ -0,0 +1,289 @@
+package tsp.solver.test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+//Nicht vollständiger Graph (z.B. Straßennetz) im CSR Format: die Kanten von Knoten i liegen in [rowStart[i], rowStart[i + 1]),
+//nach Zielknoten sortiert. Speicher O(n + m) statt O(n * n), die Kantenindizes adressieren auch die Pheromone der SparseAntColony
+public final class SparseGraph {
+    private final int nodes;
+    private final int[] rowStart;
+    private final int[] targets;
+    private final double[] weights;
+    private final int[] reverse; // Index der Gegenkante j -> i, -1 wenn es sie nicht gibt
+    private final boolean symmetric;
+
+    private SparseGraph(int nodes, int[] rowStart, int[] targets, double[] weights) {
+        this.nodes = nodes;
+        this.rowStart = rowStart;
+        this.targets = targets;
+        this.weights = weights;
+        this.reverse = new int[targets.length];
+        boolean symmetric = true;
+        for (int i = 0; i < nodes; i++) {
+            for (int edge = rowStart[i]; edge < rowStart[i + 1]; edge++) {
+                int back = edgeIndex(targets[edge], i);
+                reverse[edge] = back;
+                symmetric &= back >= 0 && weights[back] == weights[edge];
+            }
+        }
+        this.symmetric = symmetric;
+    }
+
+    public static Builder builder(int nodes) {
+        return new Builder(nodes);
+    }
+
+    //Sammelt Kanten in beliebiger Reihenfolge, build() sortiert nach Start- und Zielknoten.
+    //Mehrfache Kanten zwischen denselben Knoten werden zur leichtesten zusammengefasst, Schleifen ignoriert
+    public static final class Builder {
+        private final int nodes;
+        private int[] from = new int[16];
+        private int[] to = new int[16];
+        private double[] weight = new double[16];
+        private int edges;
+
+        private Builder(int nodes) {
+            if (nodes < 3) {
+                throw new IllegalArgumentException("Graph needs at least 3 nodes: " + nodes);
+            }
+            this.nodes = nodes;
+        }
+
+        public Builder addEdge(int from, int to, double weight) {
+            if (from < 0 || from >= nodes || to < 0 || to >= nodes) {
+                throw new IllegalArgumentException("Edge " + from + " -> " + to + " outside of [0, " + nodes + ").");
+            }
+            if (!(weight >= 0.0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Edge weight must be finite and not negative: " + weight);
+            }
+            if (from == to) {
+                return this;
+            }
+            if (edges == this.from.length) {
+                int capacity = edges * 2;
+                this.from = Arrays.copyOf(this.from, capacity);
+                this.to = Arrays.copyOf(this.to, capacity);
+                this.weight = Arrays.copyOf(this.weight, capacity);
+            }
+            this.from[edges] = from;
+            this.to[edges] = to;
+            this.weight[edges] = weight;
+            edges++;
+            return this;
+        }
+
+        //Beide Richtungen mit demselben Gewicht
+        public Builder addUndirectedEdge(int a, int b, double weight) {
+            return addEdge(a, b, weight).addEdge(b, a, weight);
+        }
+
+        public SparseGraph build() {
+            // Zählsortierung nach Startknoten
+            int[] rowStart = new int[nodes + 1];
+            for (int e = 0; e < edges; e++) {
+                rowStart[from[e] + 1]++;
+            }
+            for (int i = 0; i < nodes; i++) {
+                rowStart[i + 1] += rowStart[i];
+            }
+            int[] fill = Arrays.copyOf(rowStart, nodes);
+            int[] order = new int[edges];
+            for (int e = 0; e < edges; e++) {
+                order[fill[from[e]]++] = e;
+            }
+
+            // Jede Zeile nach Zielknoten sortieren (Zielknoten und Position gepackt in einem long) und Duplikate zusammenfassen
+            int[] targets = new int[edges];
+            double[] weights = new double[edges];
+            int[] compactStart = new int[nodes + 1];
+            int count = 0;
+            long[] keys = new long[16];
+            for (int i = 0; i < nodes; i++) {
+                int degree = rowStart[i + 1] - rowStart[i];
+                if (keys.length < degree) {
+                    keys = new long[Math.max(degree, keys.length * 2)];
+                }
+                for (int k = 0; k < degree; k++) {
+                    keys[k] = ((long) to[order[rowStart[i] + k]] << 32) | k;
+                }
+                Arrays.sort(keys, 0, degree);
+                compactStart[i] = count;
+                for (int k = 0; k < degree; k++) {
+                    int e = order[rowStart[i] + (int) keys[k]];
+                    if (count > compactStart[i] && targets[count - 1] == to[e]) {
+                        weights[count - 1] = Math.min(weights[count - 1], weight[e]);
+                    } else {
+                        targets[count] = to[e];
+                        weights[count] = weight[e];
+                        count++;
+                    }
+                }
+            }
+            compactStart[nodes] = count;
+            return new SparseGraph(nodes, compactStart, Arrays.copyOf(targets, count), Arrays.copyOf(weights, count));
+        }
+    }
+
+    //DIMACS Straßennetz (.gr, 9th DIMACS Challenge): "p sp n m", Kanten als "a u v w" mit Knoten ab 1, Kommentare mit "c"
+    public static SparseGraph readDimacs(Path file) throws IOException {
+        Builder builder = null;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("c")) {
+                    continue;
+                }
+                String[] parts = line.split("\\s+");
+                try {
+                    if (parts[0].equals("p") && parts.length >= 3) {
+                        builder = builder(Integer.parseInt(parts[2]));
+                    } else if (parts[0].equals("a") && parts.length >= 4) {
+                        if (builder == null) {
+                            throw new IOException("Edge before problem line in " + file + ":" + lineNumber);
+                        }
+                        builder.addEdge(Integer.parseInt(parts[1]) - 1, Integer.parseInt(parts[2]) - 1, Double.parseDouble(parts[3]));
+                    } else {
+                        throw new IOException("Unexpected line in " + file + ":" + lineNumber + ": " + line);
+                    }
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Invalid line in " + file + ":" + lineNumber + ": " + line, e);
+                }
+            }
+        }
+        if (builder == null) {
+            throw new IOException("Missing problem line 'p sp n m': " + file);
+        }
+        return builder.build();
+    }
+
+    //Zufälliges geometrisches Netz zum Testen: Punkte im Einheitsquadrat, jeder Knoten ungerichtet mit bis zu degree nächsten
+    //Nachbarn aus den umliegenden Gitterzellen verbunden, euklidische Gewichte. Aufwand O(n * degree) statt O(n * n)
+    public static SparseGraph randomGeometric(int nodes, int degree, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] x = new double[nodes];
+        double[] y = new double[nodes];
+        for (int i = 0; i < nodes; i++) {
+            x[i] = random.nextDouble();
+            y[i] = random.nextDouble();
+        }
+        int cells = Math.max(1, (int) Math.sqrt((double) nodes / Math.max(1, degree)));
+        int[] cellStart = new int[cells * cells + 1];
+        int[] cellOf = new int[nodes];
+        for (int i = 0; i < nodes; i++) {
+            cellOf[i] = Math.min(cells - 1, (int) (x[i] * cells)) * cells + Math.min(cells - 1, (int) (y[i] * cells));
+            cellStart[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c < cells * cells; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        int[] fill = Arrays.copyOf(cellStart, cells * cells);
+        int[] byCell = new int[nodes];
+        for (int i = 0; i < nodes; i++) {
+            byCell[fill[cellOf[i]]++] = i;
+        }
+
+        Builder builder = builder(nodes);
+        int[] nearest = new int[degree];
+        double[] nearestDistances = new double[degree];
+        for (int i = 0; i < nodes; i++) {
+            int found = 0;
+            int cellX = cellOf[i] / cells;
+            int cellY = cellOf[i] % cells;
+            for (int cx = Math.max(0, cellX - 1); cx <= Math.min(cells - 1, cellX + 1); cx++) {
+                for (int cy = Math.max(0, cellY - 1); cy <= Math.min(cells - 1, cellY + 1); cy++) {
+                    int cell = cx * cells + cy;
+                    for (int p = cellStart[cell]; p < cellStart[cell + 1]; p++) {
+                        int j = byCell[p];
+                        double distance = Math.hypot(x[i] - x[j], y[i] - y[j]);
+                        if (j == i || (found == degree && distance >= nearestDistances[degree - 1])) {
+                            continue;
+                        }
+                        int position = found < degree ? found++ : degree - 1;
+                        while (position > 0 && nearestDistances[position - 1] > distance) {
+                            nearestDistances[position] = nearestDistances[position - 1];
+                            nearest[position] = nearest[position - 1];
+                            position--;
+                        }
+                        nearestDistances[position] = distance;
+                        nearest[position] = j;
+                    }
+                }
+            }
+            for (int k = 0; k < found; k++) {
+                builder.addUndirectedEdge(i, nearest[k], nearestDistances[k]);
+            }
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return nodes;
+    }
+
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    public int degree(int node) {
+        return rowStart[node + 1] - rowStart[node];
+    }
+
+    //Erster Kantenindex von node, die Kanten reichen bis edgeEnd(node) exklusive
+    public int edgeStart(int node) {
+        return rowStart[node];
+    }
+
+    public int edgeEnd(int node) {
+        return rowStart[node + 1];
+    }
+
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    public double weight(int edge) {
+        return weights[edge];
+    }
+
+    //Gegenkante to -> from, -1 wenn es sie nicht gibt
+    public int reverseEdge(int edge) {
+        return reverse[edge];
+    }
+
+    //Jede Kante hat eine Gegenkante mit demselben Gewicht
+    public boolean isSymmetric() {
+        return symmetric;
+    }
+
+    //Binäre Suche in der sortierten Zeile, -1 wenn from und to nicht verbunden sind
+    public int edgeIndex(int from, int to) {
+        int low = rowStart[from];
+        int high = rowStart[from + 1] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int target = targets[middle];
+            if (target < to) {
+                low = middle + 1;
+            } else if (target > to) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return "SparseGraph[" + nodes + " Knoten, " + targets.length + " Kanten" + (symmetric ? ", symmetrisch" : "") + "]";
+    }
+}
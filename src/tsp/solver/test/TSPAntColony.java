@@ -1,76 +1,165 @@
 package tsp.solver.test;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.function.BooleanSupplier;
 import org.graphstream.graph.implementations.SingleGraph;
 import org.graphstream.graph.Node;
 import org.graphstream.graph.Edge;
 import org.graphstream.graph.Graph;
 
 public class TSPAntColony {
+    private static final ChoiceKernels KERNELS = ChoiceKernels.get();
+
     private int nodes;
     private double initialPheromone;
     private double evaporationRate;
     private double q;
     private double alpha;
 
-    private double[][] distances;
-    private double[][] pheromones;
+    private final MatrixStorage distanceStorage;
+    private final MatrixStorage pheromoneStorage;
+    private Matrix distances; // wird erst beim ersten Zugriff angelegt, damit setDistances(Matrix) keine n * n Kopie kostet
+    private boolean distancesOwned;
+    private Matrix pheromones;
+
+    // choiceInfo = tau^q * eta^alpha, einmal pro Iteration berechnet statt Math.pow pro Ameisenschritt. Liegt im Speicherlayout der
+    // Pheromone (choiceStorage), bei FLAT lesen die Kernel direkt flatChoiceInfo[i * nodes + j]. Distanzen aus einer CoordinateMatrix
+    // bekommen keine Heuristik Matrix, eta wird dann bei Bedarf berechnet.
+    // Mit Kandidatenlisten gibt es nur die n * k Einträge der Kandidaten: candidateChoiceInfo[i * k + c] gehört zu candidates[i][c],
+    // die dichten Strukturen bleiben dann null, Knoten außerhalb der Liste werden bei Bedarf berechnet
+    private Matrix heuristic;
+    private Matrix choiceInfo;
+    private double[] flatChoiceInfo; // Array von choiceInfo bei FLAT, sonst null
+    private double[] candidateHeuristic;
+    private double[] candidateChoiceInfo;
+    private boolean heuristicDirty = true;
+    private boolean choiceInfoDirty = true;
+    private double heuristicAlpha = Double.NaN;
+    private double choiceInfoQ = Double.NaN;
+
+    // Lazy Verdunstung: tau = pheromones * pheromoneScale, evaporatePheromones multipliziert nur den Faktor.
+    // choiceInfo rechnet mit pheromones^q = tau^q / pheromoneScale^q. Zurückgerechnet wird, sobald pheromoneScale^q unter die
+    // Schwelle fällt: die Werte liegen dann höchstens um den Faktor 1e30 über eager, laufen bei großem q nicht über und
+    // unterlaufen (kleine tau hoch q) an denselben Stellen wie eager, die Touren bleiben dieselben
+    private static final double RENORMALIZE_THRESHOLD = 1e-30;
+    private boolean lazyEvaporation;
+
+    // Aktualisierungsregel und ihre Parameter
+    private PheromoneUpdateRule updateRule = PheromoneUpdateRule.ANT_SYSTEM;
+    private boolean maxMinUseBestSoFar;
+    private double q0 = 0.9; // ACS: Wahrscheinlichkeit, greedy den besten Knoten zu nehmen
+    private double localEvaporationRate = 0.1; // ACS: xi der lokalen Aktualisierung
+    private double tauMin;
+    private double tauMax = Double.POSITIVE_INFINITY;
+
+    // Beste Tour der letzten Iteration (zeigt auf den Puffer einer Ameise) und bisher beste Tour.
+    // Wird eine Ameisen-Tour zur bisher besten, wechselt nur die Referenz; die Ameise bekommt vor dem nächsten Tourbau den freien Puffer
+    private Tour iterationBest;
+    private Tour bestSoFar;
+    private int bestSoFarAnt = -1;
+    private Tour spareTour;
+    private double pheromoneScale = 1.0;
+    private long[] staleChoiceEntries = new long[64]; // from * nodes + to der choiceInfo Einträge, die als NaN markiert und neu zu berechnen sind
+    private int staleChoiceCount;
+
+    // k nächste Nachbarn pro Knoten, 0 = alle Knoten durchsuchen
+    private int candidateListSize = 0;
+    private int[][] candidates;
+    private boolean candidatesDirty = true;
+
+    // Zufall: pro Ameise und Iteration ein eigener SplittableRandom aus seed, damit parallel und sequentiell gleich sind
+    private long seed = new SplittableRandom().nextLong();
+    private long iteration;
+    private SplittableRandom random = new SplittableRandom(seed);
+
+    // Parallelität beim Tourbau, 1 = sequentiell im aufrufenden Thread
+    private int parallelism = 1;
+    private ExecutorService executor;
+
+    // solve(): Benachrichtigung bei neuer bisher bester Tour und kooperativer Abbruch zwischen zwei Iterationen
+    private final List<SolveListener> solveListeners = new CopyOnWriteArrayList<>();
+    private SubmissionPublisher<SolveProgress> progressPublisher;
+    private volatile boolean cancelled;
+
+    // null = ausgeschaltet, dann nur eine null Prüfung pro Phase
+    private ColonyMetrics metrics;
+
+    // Optionale lokale Suche (2-opt + Or-opt) vor dem Hinterlassen der Pheromone
+    public enum LocalSearchMode {
+        NONE, ALL_TOURS, ITERATION_BEST
+    }
+
+    private LocalSearchMode localSearchMode = LocalSearchMode.NONE;
+    private int localSearchNeighbours = 10;
+    private int[][] localSearchNeighbourLists;
+    private boolean localSearchNeighboursDirty = true;
 
+    private Tour[] antTours; // Kosten pro Ameise, die Pheromone werden nach dem Tourbau in Ameisen-Reihenfolge eingearbeitet
+    private int[][] tourBuffers; // antTours[ant].nodes, Rückgabe von constructTours()
+    private AntWorkspace[] workspaces;
+    private List<Callable<Void>> constructionTasks;
+    private boolean timedConstruction; // vor invokeAll gesetzt, damit für die Worker sichtbar
 
     public TSPAntColony(int nodes, double initialPheromone, double evaporationRate, double q, double alpha) {
+        this(nodes, initialPheromone, evaporationRate, q, alpha, MatrixStorage.FLAT, MatrixStorage.FLAT);
+    }
+
+    public TSPAntColony(int nodes, double initialPheromone, double evaporationRate, double q, double alpha,
+                        MatrixStorage distanceStorage, MatrixStorage pheromoneStorage) {
         this.nodes = nodes;
         this.initialPheromone = initialPheromone;
         this.evaporationRate = evaporationRate;
         this.q = q;
         this.alpha = alpha;
 
-        this.distances = new double[nodes][nodes];
-        this.pheromones = new double[nodes][nodes];
+        this.distanceStorage = distanceStorage;
+        this.pheromoneStorage = pheromoneStorage;
+        this.pheromones = pheromoneStorage.create(nodes);
     }
 
-    public static void main(String[] args) {
+    //Aufruf: TSPAntColony [ergebnisse.csv | ergebnisse.jsonl]
+    public static void main(String[] args) throws IOException, InterruptedException {
         double[] qValues = {1, 10.0, 100};
         double[] alphaValues = {1, 10.0, 100};
 
         TSPAntColony tsp = new TSPAntColony(100, 1.0, 0.5, 1.0, 1.0);
         tsp.initializeDistancesWr();
-        tsp.initializePheromones();
-
-        for (double q : qValues) {
-            for (double alpha : alphaValues) {
-                tsp.q = q;
-                tsp.alpha = alpha;
-                System.out.println("Testing for Q = " + q + ", ALPHA = " + alpha);
-
-                long totalDuration = 0;
-                int totalBestTourCost = 0;
-
-                for (int run = 0; run < 100; run++) {
-                    List<List<Integer>> tours = new ArrayList<>();
-                    tsp.initializePheromones(); // Reset Pheromones for each run
-
-                    long startTime = System.nanoTime(); // Startzeit
-                    for (int iteration = 0; iteration < 100; iteration++) {
-                        tours = tsp.simulateAnts();
-                        tsp.updatePheromones(tours);
-                        tsp.evaporatePheromones();
-                    }
-                    long endTime = System.nanoTime(); // Endzeit
-                    long duration = (endTime - startTime) / 1_000_000; // Dauer in Millisekunden
-
-                    List<Integer> bestTour = tsp.findBestTour(tours);
-                    int bestTourCost = tsp.calculateTourCost(bestTour);
-
-                    totalDuration += duration;
-                    totalBestTourCost += bestTourCost;
-                }
-
-                long averageDuration = totalDuration / 100;
-                int averageBestTourCost = totalBestTourCost / 100;
 
-                System.out.println("Durchschnittliche beste Tour Kosten: " + averageBestTourCost);
-                System.out.println("Durchschnittliche Dauer: " + averageDuration + " ms\n");
+        // Jeder Lauf bekommt eine eigene Kolonie über derselben Distanzmatrix, die Läufe verteilen sich auf alle Kerne
+        ParameterSweep sweep = new ParameterSweep(tsp.getDistanceMatrix(), 1.0, 0.5)
+                .addGrid(qValues, alphaValues)
+                .setRuns(100)
+                .setIterations(100);
+
+        List<ParameterSweep.Summary> summaries;
+        if (args.length > 0) {
+            ParameterSweep.OutputFormat format = args[0].endsWith(".csv") ? ParameterSweep.OutputFormat.CSV : ParameterSweep.OutputFormat.JSON_LINES;
+            try (Writer output = Files.newBufferedWriter(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+                summaries = sweep.run(output, format);
             }
+        } else {
+            summaries = sweep.run(null, ParameterSweep.OutputFormat.CSV);
+        }
+
+        for (ParameterSweep.Summary summary : summaries) {
+            System.out.println("Testing for " + summary.getConfiguration());
+            System.out.printf(Locale.ROOT, "Durchschnittliche beste Tour Kosten: %.2f (p50 %.2f, p90 %.2f)%n",
+                    summary.getMeanCost(), summary.getCostPercentile(50), summary.getCostPercentile(90));
+            System.out.printf(Locale.ROOT, "Durchschnittliche Dauer: %.1f ms (p50 %.1f, p90 %.1f)%n%n",
+                    summary.getMeanDurationMillis(), summary.getDurationPercentile(50), summary.getDurationPercentile(90));
         }
 
         // tsp.visualizeGraph();
@@ -79,171 +168,946 @@ public class TSPAntColony {
 
     // Random distanzen zwischen den knoten generieren
     public void initializeDistancesWr() {
+        Matrix distances = ownDistances();
         Random random = new Random();
         for (int i = 0; i < nodes; i++) {
             for (int j = 0; j < nodes; j++) {
                 if (i == j) {
-                    distances[i][j] = 0;
-                } else {
-                    distances[i][j] = 10 + random.nextDouble() * 90; // Random distance between 10 and 100
-                    distances[j][i] = distances[i][j]; // Symmetric TSP
+                    distances.set(i, j, 0);
+                } else if (i < j) {
+                    double distance = 10 + random.nextDouble() * 90; // Random distance between 10 and 100
+                    distances.set(i, j, distance);
+                    distances.set(j, i, distance); // Symmetric TSP
                 }
             }
         }
+        heuristicDirty = true;
+        candidatesDirty = true;
+        localSearchNeighboursDirty = true;
     }
 
     // Anfängliche Pheromon Werte initialisieren
     public void initializePheromones() {
-        for (int i = 0; i < nodes; i++) {
-            Arrays.fill(pheromones[i], initialPheromone);
-        }
+        pheromones.fill(initialPheromone);
+        pheromoneScale = 1.0;
+        choiceInfoDirty = true;
+        iterationBest = null;
+        bestSoFar = null;
+        bestSoFarAnt = -1;
+        tauMin = 0.0;
+        tauMax = Double.POSITIVE_INFINITY;
     }
 
     // Ameisen simulieren
     public List<List<Integer>> simulateAnts() {
-        List<List<Integer>> tours = new ArrayList<>();
+        int[][] tours = constructTours();
+
+        // List-Sicht auf die Tourpuffer für bestehende Aufrufer, die Puffer werden in der nächsten Iteration überschrieben
+        List<List<Integer>> tourLists = new ArrayList<>(tours.length);
+        for (Tour tour : antTours) {
+            tourLists.add(tour.asList());
+        }
+        return tourLists;
+    }
+
+    // Ameisen simulieren, die Touren landen in wiederverwendeten int[] Puffern (Länge nodes + 1, geschlossen)
+    public int[][] constructTours() {
+        checkInitialized();
+        updateChoiceInfo();
+        ensureConstructionBuffers();
+        releaseBestSoFarBuffer();
+
+        updateLocalSearchNeighbours();
+
+        ColonyMetrics metrics = this.metrics;
+        long phaseStart = metrics != null ? System.nanoTime() : 0L;
+        timedConstruction = metrics != null;
+        if (workspaces.length == 1) {
+            constructTours(workspaces[0], 0, nodes, timedConstruction);
+        } else {
+            runConstructionTasks();
+        }
+        iteration++;
+
+        if (localSearchMode == LocalSearchMode.ITERATION_BEST) {
+            improveTour(workspaces[0], iterationBestAnt());
+        }
+        if (metrics != null) {
+            long now = System.nanoTime();
+            metrics.recordConstruction(now - phaseStart, (long) nodes * (nodes - 1));
+            for (AntWorkspace workspace : workspaces) {
+                metrics.recordProbabilities(workspace.probabilityNanos);
+                metrics.recordFallbacks(workspace.selectionFallbacks, workspace.candidateFallbacks);
+            }
+            phaseStart = now;
+        }
+
+        // Pheromone in fester Ameisen-Reihenfolge hinterlassen, unabhängig davon welcher Thread die Tour gebaut hat
+        if (updateRule == PheromoneUpdateRule.ANT_SYSTEM) {
+            for (Tour tour : antTours) {
+                depositPheromones(tour.nodes, 1.0 / tour.cost);
+            }
+        } else if (updateRule == PheromoneUpdateRule.ANT_COLONY_SYSTEM) {
+            for (Tour tour : antTours) {
+                localPheromoneUpdate(tour.nodes);
+            }
+        }
+        if (metrics != null) {
+            long now = System.nanoTime();
+            metrics.recordDeposit(now - phaseStart);
+            phaseStart = now;
+        }
+
+        int bestAnt = iterationBestAnt();
+        iterationBest = antTours[bestAnt];
+        if (bestSoFar == null || iterationBest.cost < bestSoFar.cost) {
+            if (bestSoFarAnt < 0) {
+                spareTour = bestSoFar;
+            }
+            bestSoFar = iterationBest;
+            bestSoFarAnt = bestAnt;
+        }
+        if (metrics != null) {
+            metrics.recordBestTourSearch(System.nanoTime() - phaseStart);
+        }
+        return tourBuffers;
+    }
 
+    //Baut die Touren der Ameisen [fromAnt, toAnt) mit einem Workspace
+    //timed: Zeit der Knotenwahl pro Schritt messen, nur mit eingeschalteten Metriken
+    private void constructTours(AntWorkspace workspace, int fromAnt, int toAnt, boolean timed) {
+        workspace.resetCounters();
         // Für jede Ameise
-        for (int ant = 0; ant < nodes; ant++) {
-            List<Integer> tour = new ArrayList<>();
-            tour.add(ant); //Ameise Startknoten zuweisen
+        for (int ant = fromAnt; ant < toAnt; ant++) {
+            int[] tour = antTours[ant].nodes;
+            double cost = 0.0;
+            workspace.reset();
+            workspace.random = new SplittableRandom(antSeed(ant));
+            tour[0] = ant; //Ameise Startknoten zuweisen
+            workspace.visit(ant);
 
             // Solange die Tour noch nicht alle Knoten umfasst
-            while (tour.size() < nodes) {
-                int currentNode = tour.get(tour.size() - 1); // Der aktuelle Knoten ist der zuletzt besuchte Knoten
-                int nextNode = chooseNextNode(currentNode, tour); // Wähle den nächsten Knoten basierend auf Wahrscheinlichkeiten
-                tour.add(nextNode); // Füge den gewählten Knoten zur Tour hinzu
+            for (int step = 1; step < nodes; step++) {
+                int nextNode;
+                if (timed) {
+                    long start = System.nanoTime();
+                    nextNode = chooseNextNode(tour[step - 1], workspace);
+                    workspace.probabilityNanos += System.nanoTime() - start;
+                } else {
+                    nextNode = chooseNextNode(tour[step - 1], workspace); // Wähle den nächsten Knoten basierend auf Wahrscheinlichkeiten
+                }
+                tour[step] = nextNode;
+                workspace.visit(nextNode);
+                cost += distances.get(tour[step - 1], nextNode);
             }
-            tour.add(tour.get(0)); // Kehre zum Ausgangspunkt zurück, um die Rundreise abzuschließen
-            tours.add(tour); // Füge die vollständige Tour zur Liste der Rundreisen hinzu
-            depositPheromones(tour); // Hinterlasse Pheromone auf der aktuellen Tour
+            tour[nodes] = tour[0]; // Kehre zum Ausgangspunkt zurück, um die Rundreise abzuschließen
+            antTours[ant].cost = cost + distances.get(tour[nodes - 1], tour[0]); // Kosten einmal beim Bau berechnet
+            if (localSearchMode == LocalSearchMode.ALL_TOURS) {
+                improveTour(workspace, ant);
+            }
+        }
+    }
+
+    private int iterationBestAnt() {
+        int bestAnt = 0;
+        for (int ant = 1; ant < nodes; ant++) {
+            if (antTours[ant].cost < antTours[bestAnt].cost) {
+                bestAnt = ant;
+            }
+        }
+        return bestAnt;
+    }
+
+    //Ist die bisher beste Tour noch der Puffer einer Ameise, bekommt die Ameise den freien Puffer, ohne Kopie
+    private void releaseBestSoFarBuffer() {
+        if (bestSoFarAnt < 0) {
+            return;
         }
-        return tours; // Gib die Liste aller Rundreisen zurück
+        Tour replacement = spareTour != null ? spareTour : new Tour(nodes + 1);
+        antTours[bestSoFarAnt] = replacement;
+        tourBuffers[bestSoFarAnt] = replacement.nodes;
+        spareTour = null;
+        bestSoFarAnt = -1;
+    }
+
+    //Fremde Tour (nicht aus constructTours) als bisher beste übernehmen, wenn sie besser ist, dafür wird kopiert
+    private void offerBestSoFar(int[] tour, double cost) {
+        if (tour.length != nodes + 1 || (bestSoFar != null && cost >= bestSoFar.cost)) {
+            return;
+        }
+        Tour target;
+        if (bestSoFar != null && bestSoFarAnt < 0) {
+            target = bestSoFar;
+        } else if (spareTour != null) {
+            target = spareTour;
+            spareTour = null;
+        } else {
+            target = new Tour(nodes + 1);
+        }
+        target.copyFrom(tour, cost);
+        bestSoFar = target;
+        bestSoFarAnt = -1;
+    }
+
+    //ACS: tau = (1 - xi) * tau + xi * tau0 auf den befahrenen Kanten, tau0 = initialPheromone
+    private void localPheromoneUpdate(int[] tour) {
+        for (int i = 0; i < tour.length - 1; i++) {
+            int from = tour[i];
+            int to = tour[i + 1];
+            setPheromone(from, to, (1 - localEvaporationRate) * getPheromone(from, to) + localEvaporationRate * initialPheromone);
+        }
+    }
+
+    //Lokale Suche auf der Tour einer Ameise, der Pheromon Beitrag wird mit den neuen Kosten berechnet
+    private void improveTour(AntWorkspace workspace, int ant) {
+        if (workspace.localSearch == null) {
+            workspace.localSearch = new LocalSearch(distances, localSearchNeighbourLists);
+        }
+        Tour tour = antTours[ant];
+        if (workspace.localSearch.improve(tour.nodes) > 0.0) {
+            tour.cost = calculateTourCost(tour.nodes);
+        }
+    }
+
+    //Nachbarlisten für die lokale Suche, die Kandidatenlisten werden mitbenutzt wenn sie gleich groß sind
+    private void updateLocalSearchNeighbours() {
+        if (localSearchMode == LocalSearchMode.NONE) {
+            return;
+        }
+        int k = Math.min(localSearchNeighbours, nodes - 1);
+        if (localSearchNeighbourLists != null && localSearchNeighbourLists.length == nodes
+                && localSearchNeighbourLists[0].length == k && !localSearchNeighboursDirty) {
+            return;
+        }
+        localSearchNeighbourLists = candidates != null && candidates[0].length == k ? candidates : NeighbourLists.nearest(distances, k);
+        localSearchNeighboursDirty = false;
+        for (AntWorkspace workspace : workspaces) {
+            workspace.localSearch = null;
+        }
+    }
+
+    //Verteilt die Ameisen in festen Blöcken auf den Executor und wartet auf alle Blöcke
+    private void runConstructionTasks() {
+        ExecutorService service = executor != null ? executor : ForkJoinPool.commonPool();
+        try {
+            for (Future<Void> future : service.invokeAll(constructionTasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tour construction was interrupted.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Tour construction failed.", e.getCause());
+        }
+    }
+
+    private void ensureConstructionBuffers() {
+        int workers = Math.max(1, Math.min(parallelism, nodes));
+        if (antTours == null || antTours.length != nodes || antTours[0].length() != nodes + 1) {
+            antTours = new Tour[nodes];
+            tourBuffers = new int[nodes][];
+            for (int ant = 0; ant < nodes; ant++) {
+                antTours[ant] = new Tour(nodes + 1);
+                tourBuffers[ant] = antTours[ant].nodes;
+            }
+            // Eine bisher beste Tour (z.B. aus einem Checkpoint) bleibt erhalten, solange die Knotenzahl passt
+            iterationBest = null;
+            if (bestSoFar != null && bestSoFar.length() != nodes + 1) {
+                bestSoFar = null;
+            }
+            bestSoFarAnt = -1;
+            spareTour = null;
+            workspaces = null;
+        }
+        if (workspaces != null && workspaces.length == workers) {
+            return;
+        }
+        workspaces = new AntWorkspace[workers];
+        constructionTasks = new ArrayList<>(workers);
+        int antsPerWorker = (nodes + workers - 1) / workers;
+        for (int w = 0; w < workers; w++) {
+            AntWorkspace workspace = new AntWorkspace(nodes);
+            int fromAnt = Math.min(nodes, w * antsPerWorker);
+            int toAnt = Math.min(nodes, fromAnt + antsPerWorker);
+            workspaces[w] = workspace;
+            constructionTasks.add(() -> {
+                constructTours(workspace, fromAnt, toAnt, timedConstruction);
+                return null;
+            });
+        }
+    }
+
+    //Seed einer Ameise in der aktuellen Iteration
+    private long antSeed(int ant) {
+        return seed + iteration * 0x9E3779B97F4A7C15L + ant * 0xBF58476D1CE4E5B9L;
     }
 
     //Wählt nächsten Knoten
-    private int chooseNextNode(int currentNode, List<Integer> tour) {
-        double[] probabilities = calculateProbabilities(currentNode, tour);
-        return selectNextNode(probabilities, tour);
+    private int chooseNextNode(int currentNode, AntWorkspace workspace) {
+        if (updateRule == PheromoneUpdateRule.ANT_COLONY_SYSTEM && workspace.random.nextDouble() < q0) {
+            return bestNextNode(currentNode, workspace);
+        }
+        if (candidates != null) {
+            return chooseNextCandidate(currentNode, workspace);
+        }
+        return rouletteNextNode(currentNode, workspace);
     }
 
-    //Berechnet Wahrscheinlichkeiten für nächsten Knoten
-    public double[] calculateProbabilities(int currentNode, List<Integer> tour) {
-        double[] probabilities = new double[nodes];
-        double totalProbability = 0.0;
+    //Roulette über alle Knoten ohne Normierung: Präfixsummen der Scores (Kernel) und binäre Suche nach dem ersten
+    //Präfix > Zufallswert * Summe. Scores und Präfixsummen bleiben O(n) pro Schritt, nur die Suche ist O(log n) statt der
+    //linearen kumulierten Suche, und es wird nicht normiert. Besuchte Knoten haben Gewicht 0 und werden exakt nie getroffen,
+    //nur Rundung in den Vektor-Präfixsummen kann auf einen besuchten Knoten zeigen
+    private int rouletteNextNode(int currentNode, AntWorkspace workspace) {
+        boolean[] visited = workspace.visited;
+        double[] prefixSums = workspace.probabilities;
+        scoreRow(currentNode, visited, prefixSums);
+        double total = KERNELS.prefixSums(prefixSums, nodes);
+        if (total == 0.0) {
+            // Alle Gewichte null: gleichverteilt unter den unbesuchten Knoten
+            workspace.selectionFallbacks++;
+            return randomUnvisitedNode(visited, workspace.visitedCount, workspace.random);
+        }
+        double target = workspace.random.nextDouble() * total;
+        if (!(prefixSums[nodes - 1] > target)) {
+            // Rundungsfehler oder nicht endliche Gewichte
+            workspace.selectionFallbacks++;
+            return randomUnvisitedNode(visited, workspace.visitedCount, workspace.random);
+        }
 
-        //Überprüft ob Distanzen und Pheromone korrekt initialisiert wurden.
-        if (distances == null || pheromones == null || distances.length != nodes || pheromones.length != nodes ||
-                distances[0].length != nodes || pheromones[0].length != nodes) {
-            throw new IllegalStateException("Distances and pheromones are not properly initialized.");
+        int low = searchPrefixSums(prefixSums, nodes, target);
+        if (visited[low]) {
+            workspace.selectionFallbacks++;
+            return nearestUnvisitedNode(visited, nodes, low);
+        }
+        return low;
+    }
+
+    //Erster Index in prefixSums[0, n) mit Präfix > target, n - 1 wenn keiner größer ist
+    static int searchPrefixSums(double[] prefixSums, int n, double target) {
+        int low = 0;
+        int high = n - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prefixSums[mid] > target) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
         }
+        return low;
+    }
 
-        //wahrscheinlichkeit für alle nächsten Nodes ausrechnen
+    //scores[j] = visited[j] ? 0 : choiceInfo(currentNode, j), liefert die Summe. Bei FLAT direkt aus dem Array, sonst wird die Zeile
+    //erst nach scores kopiert bzw. mit Kandidatenlisten bei Bedarf berechnet
+    private double scoreRow(int currentNode, boolean[] visited, double[] scores) {
+        if (flatChoiceInfo != null) {
+            return KERNELS.score(flatChoiceInfo, currentNode * nodes, visited, scores, nodes);
+        }
+        Matrix choice = choiceInfo;
         for (int nextNode = 0; nextNode < nodes; nextNode++) {
-            if (!tour.contains(nextNode)) {
-                double distance = distances[currentNode][nextNode];
-                double pheromone = pheromones[currentNode][nextNode];
-                if (distance != 0) {
-                    probabilities[nextNode] = Math.pow(pheromone, q) / Math.pow(distance, alpha);  //Kurze wege mit hohen Pheromon Wert, bekommen hohe Wahrscheinlichkeit
-                    totalProbability += probabilities[nextNode];
-                }
+            scores[nextNode] = choice != null ? choice.get(currentNode, nextNode) : choiceValue(currentNode, nextNode);
+        }
+        return KERNELS.score(scores, 0, visited, scores, nodes);
+    }
+
+    //Nächster unbesuchter Index ab start, sonst davor
+    static int nearestUnvisitedNode(boolean[] visited, int nodes, int start) {
+        for (int node = start + 1; node < nodes; node++) {
+            if (!visited[node]) {
+                return node;
+            }
+        }
+        for (int node = start - 1; node >= 0; node--) {
+            if (!visited[node]) {
+                return node;
             }
         }
+        throw new IllegalStateException("No unvisited node left.");
+    }
+
+    //Berechnet Wahrscheinlichkeiten für nächsten Knoten
+    public double[] calculateProbabilities(int currentNode, List<Integer> tour) {
+        checkInitialized();
+        updateChoiceInfo();
+        boolean[] visited = toVisited(tour);
+        double[] probabilities = new double[nodes];
+        calculateProbabilities(currentNode, visited, countVisited(visited), probabilities);
+        return probabilities;
+    }
+
+    //Berechnet Wahrscheinlichkeiten für nächsten Knoten in einen vorhandenen Puffer
+    private void calculateProbabilities(int currentNode, boolean[] visited, int visitedCount, double[] probabilities) {
+        //wahrscheinlichkeit für alle nächsten Nodes ausrechnen, Kurze wege mit hohen Pheromon Wert bekommen hohe Wahrscheinlichkeit
+        double totalProbability = scoreRow(currentNode, visited, probabilities);
         //Wenn alle Wahrscheinlichkeiten null sind, werden die Wahrscheinlichkeiten gleichmäßig unter den unbesuchten Knoten verteilt.
         if (totalProbability == 0.0) {
             for (int nextNode = 0; nextNode < nodes; nextNode++) {
-                if (!tour.contains(nextNode)) {
-                    probabilities[nextNode] = 1.0 / (nodes - tour.size());
+                if (!visited[nextNode]) {
+                    probabilities[nextNode] = 1.0 / (nodes - visitedCount);
                 }
             }
         } else {
-            for (int i = 0; i < probabilities.length; i++) {
-                probabilities[i] /= totalProbability;
-            }
+            KERNELS.divide(probabilities, nodes, totalProbability);
         }
-        return probabilities;
     }
 
     //Knoten wählen anhand kumulierter Wahrscheinlichkeit, sobald sie einen random wert überschreitet -> wähle den Knoten
     public int selectNextNode(double[] probabilities, List<Integer> tour) {
-        double randomValue = Math.random();
+        boolean[] visited = toVisited(tour);
+        int nextNode = selectNextNode(probabilities, visited, random);
+        return nextNode >= 0 ? nextNode : randomUnvisitedNode(visited, countVisited(visited), random);
+    }
+
+    //-1 wenn die kumulierte Wahrscheinlichkeit den Zufallswert nicht erreicht (Rundungsfehler)
+    private int selectNextNode(double[] probabilities, boolean[] visited, SplittableRandom random) {
+        double randomValue = random.nextDouble();
         double cumulativeProbability = 0.0;
 
         for (int nextNode = 0; nextNode < nodes; nextNode++) {
-            if (!tour.contains(nextNode)) {
+            if (!visited[nextNode]) {
                 cumulativeProbability += probabilities[nextNode];
                 if (cumulativeProbability >= randomValue) {  //zur Vermeidung lokaler Optima
                     return nextNode;
                 }
             }
         }
+        return -1;
+    }
 
-        // Wenn kein Knoten ausgewählt wurde, random Knoten wählen
-        List<Integer> unvisitedNodes = new ArrayList<>();
+    // Wenn kein Knoten ausgewählt wurde, random Knoten wählen (ohne Hilfsliste: der k-te unbesuchte Knoten)
+    private int randomUnvisitedNode(boolean[] visited, int visitedCount, SplittableRandom random) {
+        int remaining = random.nextInt(nodes - visitedCount);
         for (int nextNode = 0; nextNode < nodes; nextNode++) {
-            if (!tour.contains(nextNode)) {
-                unvisitedNodes.add(nextNode);
+            if (!visited[nextNode] && remaining-- == 0) {
+                return nextNode;
+            }
+        }
+        throw new IllegalStateException("No unvisited node left.");
+    }
+
+    //Wählt nächsten Knoten nur unter den unbesuchten Kandidaten, sonst den besten unbesuchten Knoten
+    private int chooseNextCandidate(int currentNode, AntWorkspace workspace) {
+        int[] candidateRow = candidates[currentNode];
+        double[] choice = candidateChoiceInfo;
+        int rowOffset = currentNode * candidateRow.length;
+        boolean[] visited = workspace.visited;
+        double[] scores = workspace.probabilities;
+        double totalScore = 0.0;
+
+        for (int c = 0; c < candidateRow.length; c++) {
+            double score = visited[candidateRow[c]] ? 0.0 : choice[rowOffset + c];
+            scores[c] = score;
+            totalScore += score;
+        }
+
+        if (totalScore > 0.0) {
+            double randomValue = workspace.random.nextDouble() * totalScore;
+            double cumulativeScore = 0.0;
+            int lastCandidate = -1;
+            for (int c = 0; c < candidateRow.length; c++) {
+                if (scores[c] > 0.0) {
+                    cumulativeScore += scores[c];
+                    lastCandidate = candidateRow[c];
+                    if (cumulativeScore >= randomValue) {
+                        return lastCandidate;
+                    }
+                }
+            }
+            workspace.selectionFallbacks++;
+            return lastCandidate; // Rundungsfehler
+        }
+
+        // Alle Kandidaten besucht: greedy den unbesuchten Knoten mit dem höchsten choiceInfo Wert nehmen
+        workspace.candidateFallbacks++;
+        return bestUnvisitedNode(currentNode, workspace);
+    }
+
+    //Unbesuchter Knoten mit dem höchsten choiceInfo Wert, zuerst unter den Kandidaten
+    private int bestNextNode(int currentNode, AntWorkspace workspace) {
+        boolean[] visited = workspace.visited;
+        if (candidates != null) {
+            int[] candidateRow = candidates[currentNode];
+            int rowOffset = currentNode * candidateRow.length;
+            int bestNode = -1;
+            double bestScore = -1.0;
+            for (int c = 0; c < candidateRow.length; c++) {
+                if (!visited[candidateRow[c]] && candidateChoiceInfo[rowOffset + c] > bestScore) {
+                    bestScore = candidateChoiceInfo[rowOffset + c];
+                    bestNode = candidateRow[c];
+                }
+            }
+            if (bestNode >= 0) {
+                return bestNode;
             }
         }
-        return unvisitedNodes.get(new Random().nextInt(unvisitedNodes.size()));
+        return bestUnvisitedNode(currentNode, workspace);
+    }
+
+    //Durchläuft nur die unbesuchten Knoten, bei gleichem Wert gewinnt der kleinere Index.
+    //Mit Kandidatenlisten gibt es keine dichte choiceInfo, die Werte werden dann hier berechnet
+    private int bestUnvisitedNode(int currentNode, AntWorkspace workspace) {
+        double[] flat = flatChoiceInfo;
+        Matrix choice = choiceInfo;
+        int rowOffset = currentNode * nodes;
+        int[] unvisited = workspace.unvisited;
+        int bestNode = -1;
+        double bestScore = -1.0;
+        for (int u = workspace.unvisitedCount() - 1; u >= 0; u--) {
+            int nextNode = unvisited[u];
+            double score;
+            if (flat != null) {
+                score = flat[rowOffset + nextNode];
+            } else {
+                score = choice != null ? choice.get(currentNode, nextNode) : choiceValue(currentNode, nextNode);
+            }
+            if (score > bestScore || (score == bestScore && nextNode < bestNode)) {
+                bestScore = score;
+                bestNode = nextNode;
+            }
+        }
+        if (bestNode < 0) {
+            throw new IllegalStateException("No unvisited node left.");
+        }
+        return bestNode;
+    }
+
+    //Kandidatenlisten (k nächste Nachbarn aus distances) neu berechnen, wenn sich Distanzen oder k geändert haben
+    private void updateCandidates() {
+        int k = Math.min(candidateListSize, nodes - 1);
+        if (k <= 0) {
+            candidates = null;
+            return;
+        }
+        if (!candidatesDirty && candidates != null && candidates.length == nodes && candidates[0].length == k) {
+            return;
+        }
+        candidates = NeighbourLists.nearest(distances, k);
+        candidatesDirty = false;
+        candidateHeuristic = null;
+    }
+
+    //Heuristik eta^alpha = 1 / d^alpha neu berechnen, nur wenn sich Distanzen oder alpha geändert haben.
+    //Für Distanzen aus Koordinaten wird keine n * n Matrix angelegt, eta() rechnet dann bei Bedarf
+    private void updateHeuristic() {
+        if (isHeuristicValid()) {
+            return;
+        }
+        if (distances instanceof CoordinateMatrix) {
+            heuristic = null;
+        } else if (heuristic == null || heuristic.size() != nodes) {
+            heuristic = distanceStorage.create(nodes);
+        }
+        if (heuristic != null) {
+            boolean symmetric = heuristic.isSymmetric();
+            for (int i = 0; i < nodes; i++) {
+                for (int j = symmetric ? i : 0; j < nodes; j++) {
+                    double distance = distances.get(i, j);
+                    heuristic.set(i, j, heuristicValue(distance));
+                }
+            }
+        }
+        heuristicAlpha = alpha;
+        heuristicDirty = false;
+        choiceInfoDirty = true;
+    }
+
+    //choiceInfo = tau^q * eta^alpha neu berechnen, einmal nach updatePheromones/evaporatePheromones
+    private void updateChoiceInfo() {
+        updateCandidates();
+        if (candidates != null) {
+            updateCandidateChoiceInfo();
+            return;
+        }
+        candidateHeuristic = null;
+        candidateChoiceInfo = null;
+        updateHeuristic();
+        if (!choiceInfoDirty && q == choiceInfoQ) {
+            updateStaleChoiceInfo();
+            return;
+        }
+        staleChoiceCount = 0;
+        MatrixStorage choiceStorage = choiceStorage(distances);
+        if (choiceInfo == null || choiceInfo.size() != nodes
+                || choiceInfo.isSymmetric() != (choiceStorage == MatrixStorage.PACKED_SYMMETRIC)) {
+            setChoiceInfo(choiceStorage.create(nodes));
+        }
+        Matrix choice = choiceInfo;
+        boolean symmetric = choice.isSymmetric();
+        for (int i = 0; i < nodes; i++) {
+            for (int j = symmetric ? i : 0; j < nodes; j++) {
+                choice.set(i, j, choiceValue(pheromones.get(i, j), eta(i, j)));
+            }
+        }
+        choiceInfoQ = q;
+        choiceInfoDirty = false;
+    }
+
+    //Nur die n * k Kandidaten: O(n * k) Speicher und Math.pow pro Iteration statt O(n * n). Nach jeder Pheromon Änderung wird
+    //komplett neu berechnet, das ist billiger als einzelne Einträge in den Kandidatenlisten zu suchen
+    private void updateCandidateChoiceInfo() {
+        heuristic = null;
+        setChoiceInfo(null);
+        staleChoiceCount = 0;
+        int k = candidates[0].length;
+        int length = nodes * k;
+        if (heuristicDirty || alpha != heuristicAlpha || candidateHeuristic == null || candidateHeuristic.length != length) {
+            if (candidateHeuristic == null || candidateHeuristic.length != length) {
+                candidateHeuristic = new double[length];
+            }
+            for (int i = 0; i < nodes; i++) {
+                int[] candidateRow = candidates[i];
+                for (int c = 0; c < k; c++) {
+                    candidateHeuristic[i * k + c] = heuristicValue(distances.get(i, candidateRow[c]));
+                }
+            }
+            heuristicAlpha = alpha;
+            heuristicDirty = false;
+            choiceInfoDirty = true;
+        }
+        if (!choiceInfoDirty && q == choiceInfoQ && candidateChoiceInfo != null && candidateChoiceInfo.length == length) {
+            return;
+        }
+        if (candidateChoiceInfo == null || candidateChoiceInfo.length != length) {
+            candidateChoiceInfo = new double[length];
+        }
+        for (int i = 0; i < nodes; i++) {
+            int[] candidateRow = candidates[i];
+            for (int c = 0; c < k; c++) {
+                candidateChoiceInfo[i * k + c] = choiceValue(pheromones.get(i, candidateRow[c]), candidateHeuristic[i * k + c]);
+            }
+        }
+        choiceInfoQ = q;
+        choiceInfoDirty = false;
+    }
+
+    //Eigene, beschreibbare Distanzmatrix im konfigurierten Speicher, ersetzt eine per setDistances(Matrix) übergebene Matrix
+    private Matrix ownDistances() {
+        if (distances == null || !distancesOwned) {
+            distances = distanceStorage.create(nodes);
+            distancesOwned = true;
+        }
+        return distances;
+    }
+
+    //Überprüft ob Distanzen und Pheromone korrekt initialisiert wurden.
+    private void checkInitialized() {
+        if (distances == null) {
+            ownDistances();
+        }
+        if (distances == null || pheromones == null || distances.size() != nodes || pheromones.size() != nodes) {
+            throw new IllegalStateException("Distances and pheromones are not properly initialized.");
+        }
+    }
+
+    //Besuchte Knoten einer List-Tour als boolean Array
+    private boolean[] toVisited(List<Integer> tour) {
+        boolean[] visited = new boolean[nodes];
+        for (int node : tour) {
+            visited[node] = true;
+        }
+        return visited;
+    }
+
+    private static int countVisited(boolean[] visited) {
+        int count = 0;
+        for (boolean v : visited) {
+            if (v) {
+                count++;
+            }
+        }
+        return count;
     }
 
     //Pheromon Werte aktualisieren, für alle touren nach einer Iteration
+    //Bei MAX_MIN und ANT_COLONY_SYSTEM verstärkt nur die beste bzw. bisher beste Tour
     public void updatePheromones(List<List<Integer>> tours) {
+        if (metrics == null) {
+            depositTours(tours);
+            return;
+        }
+        long start = System.nanoTime();
+        depositTours(tours);
+        metrics.recordDeposit(System.nanoTime() - start);
+    }
+
+    private void depositTours(List<List<Integer>> tours) {
+        if (updateRule != PheromoneUpdateRule.ANT_SYSTEM) {
+            List<Integer> iterationBest = bestTourOf(tours);
+            if (iterationBest != null) {
+                Tour owner = iterationBest instanceof IntTourList ? ((IntTourList) iterationBest).owner() : null;
+                if (owner != null) {
+                    updateBestBased(owner.nodes, owner.cost);
+                } else {
+                    int[] tour = new int[iterationBest.size()];
+                    for (int i = 0; i < tour.length; i++) {
+                        tour[i] = iterationBest.get(i);
+                    }
+                    updateBestBased(tour, calculateTourCost(tour));
+                }
+            }
+            return;
+        }
         for (List<Integer> tour : tours) {
-            int tourCost = calculateTourCost(tour);
+            if (tour instanceof IntTourList) {
+                Tour owner = ((IntTourList) tour).owner();
+                if (owner != null) {
+                    depositPheromones(owner.nodes, 1.0 / owner.cost); // Kosten aus dem Tourbau
+                } else {
+                    depositPheromones(((IntTourList) tour).array());
+                }
+                continue;
+            }
+            double tourCost = calculateTourCost(tour);
 
             for (int i = 0; i < tour.size() - 1; i++) {
                 int currentNode = tour.get(i);
                 int nextNode = tour.get(i + 1);
 
-                pheromones[currentNode][nextNode] += 1.0 / tourCost;
+                depositPheromone(currentNode, nextNode, 1.0 / tourCost);
             }
         }
     }
 
+    //Pheromon Werte aktualisieren, für alle int[] touren nach einer Iteration
+    //Bei MAX_MIN und ANT_COLONY_SYSTEM verstärkt nur die beste bzw. bisher beste Tour
+    public void updatePheromones(int[][] tours) {
+        if (metrics == null) {
+            depositTours(tours);
+            return;
+        }
+        long start = System.nanoTime();
+        depositTours(tours);
+        metrics.recordDeposit(System.nanoTime() - start);
+    }
+
+    private void depositTours(int[][] tours) {
+        if (updateRule != PheromoneUpdateRule.ANT_SYSTEM) {
+            int[] iterationBest = null;
+            double iterationBestCost = Double.POSITIVE_INFINITY;
+            for (int t = 0; t < tours.length; t++) {
+                int[] tour = tours[t];
+                double cost = tours == tourBuffers ? antTours[t].cost : calculateTourCost(tour); // Kosten aus constructTours wiederverwenden
+                if (cost < iterationBestCost) {
+                    iterationBestCost = cost;
+                    iterationBest = tour;
+                }
+            }
+            if (iterationBest != null) {
+                updateBestBased(iterationBest, iterationBestCost);
+            }
+            return;
+        }
+        for (int[] tour : tours) {
+            depositPheromones(tour);
+        }
+    }
+
+    //MMAS und ACS: nur eine Tour verstärkt, O(n) Kanten statt O(n * m)
+    private void updateBestBased(int[] iterationBest, double iterationBestCost) {
+        offerBestSoFar(iterationBest, iterationBestCost);
+        if (updateRule == PheromoneUpdateRule.MAX_MIN) {
+            // Ohne bisher beste Tour (z.B. Tour mit falscher Länge übergeben) die Iterationsbeste verstärken
+            boolean useBestSoFar = maxMinUseBestSoFar && bestSoFar != null;
+            int[] tour = useBestSoFar ? bestSoFar.nodes : iterationBest;
+            double cost = useBestSoFar ? bestSoFar.cost : iterationBestCost;
+            if (!(cost > 0.0) || Double.isInfinite(cost)) {
+                return;
+            }
+            // Grenzen aus den Kosten der tatsächlich verstärkten Tour
+            tauMax = 1.0 / (evaporationRate * cost);
+            tauMin = tauMax / (2.0 * nodes);
+            for (int i = 0; i < tour.length - 1; i++) {
+                int from = tour[i];
+                int to = tour[i + 1];
+                setPheromone(from, to, Math.min(tauMax, getPheromone(from, to) + 1.0 / cost));
+            }
+        } else {
+            // ACS globale Aktualisierung: tau = (1 - rho) * tau + rho / L_best nur auf der bisher besten Tour
+            if (bestSoFar == null) {
+                return;
+            }
+            int[] best = bestSoFar.nodes;
+            for (int i = 0; i < best.length - 1; i++) {
+                int from = best[i];
+                int to = best[i + 1];
+                setPheromone(from, to, (1 - evaporationRate) * getPheromone(from, to) + evaporationRate / bestSoFar.cost);
+            }
+        }
+    }
+
+    //Effektiver Pheromon Wert einer Kante
+    private double getPheromone(int from, int to) {
+        return pheromones.get(from, to) * pheromoneScale;
+    }
+
+    //Setzt den effektiven Pheromon Wert einer Kante und merkt den choiceInfo Eintrag zur Neuberechnung vor
+    private void setPheromone(int from, int to, double value) {
+        pheromones.set(from, to, value / pheromoneScale);
+        markPheromoneChanged(from, to);
+    }
+
     //Pheromone Werte aktualisieren, für eine einzige tour
-    private void depositPheromones(List<Integer> tour) {
-        int tourCost = calculateTourCost(tour);
+    private void depositPheromones(int[] tour) {
+        depositPheromones(tour, 1.0 / calculateTourCost(tour));
+    }
 
-        for (int i = 0; i < tour.size() - 1; i++) {
-            int currentNode = tour.get(i);
-            int nextNode = tour.get(i + 1);
+    private void depositPheromones(int[] tour, double amount) {
+        for (int i = 0; i < tour.length - 1; i++) {
+            depositPheromone(tour[i], tour[i + 1], amount);
+        }
+    }
 
-            pheromones[currentNode][nextNode] += 1.0 / tourCost;
+    //Eine Kante verstärken. Bei lazy Verdunstung wird durch den globalen Faktor geteilt und nur der betroffene choiceInfo Eintrag
+    //neu berechnet: der Faktor ist für alle Kanten gleich und kürzt sich in den Wahrscheinlichkeiten heraus
+    private void depositPheromone(int from, int to, double amount) {
+        if (!lazyEvaporation) {
+            pheromones.add(from, to, amount);
+            choiceInfoDirty = true;
+            return;
         }
+        pheromones.add(from, to, amount / pheromoneScale);
+        markPheromoneChanged(from, to);
+    }
+
+    private void markPheromoneChanged(int from, int to) {
+        if (choiceInfoDirty) {
+            return;
+        }
+        if (choiceInfo == null) {
+            choiceInfoDirty = true; // Kandidatenlisten: komplett neu, O(n * k)
+            return;
+        }
+        markChoiceInfoStale(from, to);
+        if (pheromones.isSymmetric()) {
+            markChoiceInfoStale(to, from);
+        }
+    }
+
+    //Merkt einen choiceInfo Eintrag zur Neuberechnung vor, NaN dient als Markierung damit jeder Eintrag nur einmal in der Liste steht
+    private void markChoiceInfoStale(int from, int to) {
+        if (Double.isNaN(choiceInfo.get(from, to))) {
+            return;
+        }
+        choiceInfo.set(from, to, Double.NaN);
+        if (staleChoiceCount == staleChoiceEntries.length) {
+            staleChoiceEntries = Arrays.copyOf(staleChoiceEntries, staleChoiceCount * 2);
+        }
+        staleChoiceEntries[staleChoiceCount++] = (long) from * nodes + to;
+    }
+
+    //Nur die seit der letzten Iteration verstärkten Kanten neu berechnen, O(verstärkte Kanten) statt O(n * n)
+    private void updateStaleChoiceInfo() {
+        for (int k = 0; k < staleChoiceCount; k++) {
+            long index = staleChoiceEntries[k];
+            int from = (int) (index / nodes);
+            int to = (int) (index - (long) from * nodes);
+            choiceInfo.set(from, to, choiceValue(pheromones.get(from, to), eta(from, to)));
+        }
+        staleChoiceCount = 0;
     }
 
     //Pheromon Werte verdunsten lassen
+    //Bei ANT_COLONY_SYSTEM passiert die Verdunstung in der globalen Aktualisierung, MAX_MIN begrenzt danach auf [tauMin, tauMax]
     public void evaporatePheromones() {
-        for (int i = 0; i < nodes; i++) {
-            for (int j = 0; j < nodes; j++) {
-                pheromones[i][j] *= (1 - evaporationRate);
+        ColonyMetrics metrics = this.metrics;
+        if (metrics == null) {
+            evaporate();
+            return;
+        }
+        long start = System.nanoTime();
+        evaporate();
+        metrics.recordEvaporation(System.nanoTime() - start);
+        // Ende der Iteration: Werte auf diesem Thread veröffentlichen, damit JMX nie parallel zu addNode/removeNode liest
+        metrics.publishBestSoFarCost(getBestSoFarCost());
+        if (metrics.takeEntropyRequest()) {
+            metrics.publishPheromoneEntropy(pheromoneEntropy());
+        }
+    }
+
+    private void evaporate() {
+        if (updateRule == PheromoneUpdateRule.ANT_COLONY_SYSTEM) {
+            return;
+        }
+        if (updateRule == PheromoneUpdateRule.MAX_MIN) {
+            // Die Untergrenze muss jede Kante prüfen, daher hier immer eager
+            normalizePheromones();
+            pheromones.scale(1 - evaporationRate);
+            pheromones.clamp(tauMin, tauMax);
+            choiceInfoDirty = true;
+            return;
+        }
+        if (lazyEvaporation) {
+            pheromoneScale *= (1 - evaporationRate);
+            if (pheromoneScale < renormalizeScale()) {
+                normalizePheromones();
             }
+            return;
+        }
+        pheromones.scale(1 - evaporationRate);
+        choiceInfoDirty = true;
+    }
+
+    //Kleinster Faktor mit pheromoneScale^q >= RENORMALIZE_THRESHOLD, für q <= 1 die Schwelle selbst, damit die gespeicherten
+    //Werte tau / pheromoneScale nicht überlaufen
+    private double renormalizeScale() {
+        return q > 1.0 ? Math.pow(RENORMALIZE_THRESHOLD, 1.0 / q) : RENORMALIZE_THRESHOLD;
+    }
+
+    //Den globalen Faktor in die Matrix einrechnen, danach gilt wieder tau = pheromones
+    private void normalizePheromones() {
+        if (pheromoneScale != 1.0) {
+            pheromones.scale(pheromoneScale);
+            pheromoneScale = 1.0;
+            choiceInfoDirty = true;
         }
     }
 
     //berechnet die Gesamtkosten einer Tour
-    public int calculateTourCost(List<Integer> tour) {
-        int totalCost = 0;
+    public double calculateTourCost(List<Integer> tour) {
+        double totalCost = 0.0;
 
         for (int i = 0; i < tour.size() - 1; i++) {
             int currentNode = tour.get(i);
             int nextNode = tour.get(i + 1);
 
-            totalCost += distances[currentNode][nextNode];
+            totalCost += distances.get(currentNode, nextNode);
         }
 
         return totalCost;
     }
 
-    //Sucht die beste Tour aus einer Liste von Touren
+    //berechnet die Gesamtkosten einer int[] Tour
+    public double calculateTourCost(int[] tour) {
+        double totalCost = 0.0;
+
+        for (int i = 0; i < tour.length - 1; i++) {
+            totalCost += distances.get(tour[i], tour[i + 1]);
+        }
+
+        return totalCost;
+    }
+
+    //Sucht die beste Tour aus einer Liste von Touren, Touren aus simulateAnts() bringen ihre Kosten mit
     public List<Integer> findBestTour(List<List<Integer>> tours) {
-        int bestTourCost = Integer.MAX_VALUE;
+        if (metrics == null) {
+            return bestTourOf(tours);
+        }
+        long start = System.nanoTime();
+        List<Integer> bestTour = bestTourOf(tours);
+        metrics.recordBestTourSearch(System.nanoTime() - start);
+        return bestTour;
+    }
+
+    private List<Integer> bestTourOf(List<List<Integer>> tours) {
+        double bestTourCost = Double.POSITIVE_INFINITY;
         List<Integer> bestTour = null;
 
         for (List<Integer> tour : tours) {
-            int tourCost = calculateTourCost(tour);
+            Tour owner = tour instanceof IntTourList ? ((IntTourList) tour).owner() : null;
+            double tourCost = owner != null ? owner.cost : calculateTourCost(tour);
             if (tourCost < bestTourCost) {
                 bestTourCost = tourCost;
                 bestTour = tour;
@@ -255,6 +1119,643 @@ public class TSPAntColony {
 
 
 
+    //Tour von außen (z.B. Migration einer anderen Insel): wird nach der Aktualisierungsregel wie eine eigene beste Tour verstärkt
+    //und als bisher beste übernommen, wenn sie besser ist. Die Kosten werden mit den eigenen Distanzen berechnet
+    public void injectTour(Tour tour) {
+        checkInitialized();
+        int[] closedTour = tour.nodes;
+        if (closedTour.length != nodes + 1 || closedTour[0] != closedTour[nodes]) {
+            throw new IllegalArgumentException("Tour must be closed and visit all " + nodes + " nodes.");
+        }
+        boolean[] seen = new boolean[nodes];
+        for (int i = 0; i < nodes; i++) {
+            int node = closedTour[i];
+            if (node < 0 || node >= nodes || seen[node]) {
+                throw new IllegalArgumentException("Tour must visit every node exactly once: " + node);
+            }
+            seen[node] = true;
+        }
+        double cost = calculateTourCost(closedTour);
+        if (updateRule == PheromoneUpdateRule.ANT_SYSTEM) {
+            depositPheromones(closedTour, 1.0 / cost);
+            offerBestSoFar(closedTour, cost);
+        } else {
+            updateBestBased(closedTour, cost);
+        }
+    }
+
+    //Dynamisches TSP: Distanz einer Kante in beiden Richtungen ändern, ohne Neustart. Die Pheromone bleiben, neu berechnet werden
+    //nur die beiden Heuristik- und choiceInfo Einträge, die Kandidatenlisten von from und to und die Kosten der besten Touren.
+    //Mit Kandidatenlisten werden stattdessen die n * k Einträge von candidateChoiceInfo neu berechnet
+    public void updateEdge(int from, int to, double distance) {
+        checkInitialized();
+        checkNode(from);
+        checkNode(to);
+        if (from == to) {
+            throw new IllegalArgumentException("An edge needs two different nodes: " + from);
+        }
+        checkDistance(distance);
+        boolean heuristicValid = isHeuristicValid();
+        boolean choiceInfoValid = heuristicValid && isChoiceInfoValid();
+        boolean candidatesValid = isNeighbourListValid(candidates, candidateListSize, candidatesDirty);
+        boolean localSearchValid = isNeighbourListValid(localSearchNeighbourLists, localSearchNeighbours, localSearchNeighboursDirty);
+
+        Matrix distances = writableDistances();
+        distances.set(from, to, distance);
+        distances.set(to, from, distance);
+        if (heuristicValid) {
+            if (heuristic != null) {
+                double eta = heuristicValue(distance);
+                heuristic.set(from, to, eta);
+                heuristic.set(to, from, eta);
+            }
+            if (choiceInfoValid) {
+                markChoiceInfoStale(from, to);
+                markChoiceInfoStale(to, from);
+            }
+        } else {
+            heuristicDirty = true;
+        }
+
+        if (candidatesValid) {
+            int k = Math.min(candidateListSize, nodes - 1);
+            candidates[from] = NeighbourLists.nearest(distances, from, k);
+            candidates[to] = NeighbourLists.nearest(distances, to, k);
+        } else {
+            candidatesDirty = true;
+        }
+        if (localSearchValid && localSearchNeighbourLists != candidates) {
+            int k = Math.min(localSearchNeighbours, nodes - 1);
+            localSearchNeighbourLists[from] = NeighbourLists.nearest(distances, from, k);
+            localSearchNeighbourLists[to] = NeighbourLists.nearest(distances, to, k);
+        } else if (!localSearchValid) {
+            localSearchNeighboursDirty = true;
+        }
+        resetLocalSearch();
+
+        if (bestSoFar != null) {
+            bestSoFar.cost = calculateTourCost(bestSoFar.nodes);
+        }
+        if (iterationBest != null && iterationBest != bestSoFar) {
+            iterationBest.cost = calculateTourCost(iterationBest.nodes);
+        }
+    }
+
+    //Dynamisches TSP: neuer Knoten mit den Distanzen zu allen bisherigen Knoten (symmetrisch), liefert seinen Index (die alte Knotenzahl).
+    //Die Pheromone der bestehenden Kanten bleiben, die neuen Kanten bekommen den Mittelwert, der neue Knoten wird also weder bevorzugt
+    //noch gemieden. Matrizen und choiceInfo werden einmal umkopiert (O(n * n) ohne Math.pow), neu berechnet werden nur die neue Zeile
+    //und Spalte, in die Kandidatenlisten wird der Knoten einsortiert (dort dann die n * k Einträge von candidateChoiceInfo).
+    //Die bisher beste Tour nimmt ihn an der günstigsten Stelle auf
+    public int addNode(double[] distancesToNodes) {
+        checkInitialized();
+        if (distancesToNodes.length != nodes) {
+            throw new IllegalArgumentException("Expected distances to all " + nodes + " nodes but got " + distancesToNodes.length);
+        }
+        for (double distance : distancesToNodes) {
+            checkDistance(distance);
+        }
+        int oldNodes = nodes;
+        int added = oldNodes;
+        int newNodes = oldNodes + 1;
+        boolean heuristicValid = isHeuristicValid();
+        boolean choiceInfoValid = heuristicValid && isChoiceInfoValid();
+        boolean candidatesValid = isNeighbourListValid(candidates, candidateListSize, candidatesDirty);
+        boolean localSearchShared = localSearchNeighbourLists == candidates;
+        boolean localSearchValid = isNeighbourListValid(localSearchNeighbourLists, localSearchNeighbours, localSearchNeighboursDirty);
+        if (choiceInfoValid) {
+            updateStaleChoiceInfo();
+        }
+
+        Matrix newDistances = distanceStorage.create(newNodes);
+        copyWithout(distances, newDistances, -1);
+        for (int i = 0; i < oldNodes; i++) {
+            newDistances.set(i, added, distancesToNodes[i]);
+            newDistances.set(added, i, distancesToNodes[i]);
+        }
+
+        Matrix newPheromones = pheromoneStorage.create(newNodes);
+        double meanPheromone = copyWithout(pheromones, newPheromones, -1) / ((double) oldNodes * (oldNodes - 1));
+        for (int i = 0; i < newNodes; i++) {
+            newPheromones.set(i, added, meanPheromone);
+            newPheromones.set(added, i, meanPheromone);
+        }
+
+        Matrix newHeuristic = null;
+        if (heuristicValid && heuristic != null) {
+            newHeuristic = distanceStorage.create(newNodes);
+            copyWithout(heuristic, newHeuristic, -1);
+            for (int i = 0; i < oldNodes; i++) {
+                double distance = distancesToNodes[i];
+                double eta = heuristicValue(distance);
+                newHeuristic.set(i, added, eta);
+                newHeuristic.set(added, i, eta);
+            }
+        }
+
+        Matrix newChoiceInfo = null;
+        if (choiceInfoValid) {
+            newChoiceInfo = choiceStorage(newDistances).create(newNodes);
+            copyWithout(choiceInfo, newChoiceInfo, -1);
+            for (int i = 0; i < oldNodes; i++) {
+                double eta = heuristicValue(distancesToNodes[i]);
+                newChoiceInfo.set(i, added, choiceValue(newPheromones.get(i, added), eta));
+                newChoiceInfo.set(added, i, choiceValue(newPheromones.get(added, i), eta));
+            }
+        }
+
+        int[][] newCandidates = candidatesValid ? insertNeighbour(candidates, newDistances, added, candidateListSize) : null;
+        int[][] newLocalSearchLists = null;
+        if (localSearchValid) {
+            newLocalSearchLists = localSearchShared ? newCandidates
+                    : insertNeighbour(localSearchNeighbourLists, newDistances, added, localSearchNeighbours);
+        }
+
+        Tour best = bestSoFar;
+        resize(newNodes, newDistances, newPheromones, newHeuristic, newChoiceInfo, newCandidates, newLocalSearchLists);
+        if (best != null) {
+            bestSoFar = insertCheapest(best.nodes, added);
+        }
+        return added;
+    }
+
+    //Dynamisches TSP: entfernt einen Knoten, die Knoten dahinter rücken einen Index nach vorne. Die Pheromone der übrigen Kanten
+    //bleiben, Heuristik und choiceInfo werden ohne Math.pow umkopiert. Neu berechnet werden nur die Kandidatenlisten, die den
+    //Knoten enthielten, die bisher beste Tour überspringt ihn
+    public void removeNode(int node) {
+        checkInitialized();
+        checkNode(node);
+        if (nodes <= 3) {
+            throw new IllegalStateException("Cannot remove a node from a colony with " + nodes + " nodes.");
+        }
+        int oldNodes = nodes;
+        int newNodes = oldNodes - 1;
+        boolean heuristicValid = isHeuristicValid();
+        boolean choiceInfoValid = heuristicValid && isChoiceInfoValid();
+        boolean candidatesValid = isNeighbourListValid(candidates, candidateListSize, candidatesDirty);
+        boolean localSearchShared = localSearchNeighbourLists == candidates;
+        boolean localSearchValid = isNeighbourListValid(localSearchNeighbourLists, localSearchNeighbours, localSearchNeighboursDirty);
+        if (choiceInfoValid) {
+            updateStaleChoiceInfo();
+        }
+
+        Matrix newDistances = distanceStorage.create(newNodes);
+        copyWithout(distances, newDistances, node);
+        Matrix newPheromones = pheromoneStorage.create(newNodes);
+        copyWithout(pheromones, newPheromones, node);
+        Matrix newHeuristic = null;
+        if (heuristicValid && heuristic != null) {
+            newHeuristic = distanceStorage.create(newNodes);
+            copyWithout(heuristic, newHeuristic, node);
+        }
+
+        Matrix newChoiceInfo = null;
+        if (choiceInfoValid) {
+            newChoiceInfo = choiceStorage(newDistances).create(newNodes);
+            copyWithout(choiceInfo, newChoiceInfo, node);
+        }
+
+        int[][] newCandidates = candidatesValid ? removeNeighbour(candidates, newDistances, node, candidateListSize) : null;
+        int[][] newLocalSearchLists = null;
+        if (localSearchValid) {
+            newLocalSearchLists = localSearchShared ? newCandidates
+                    : removeNeighbour(localSearchNeighbourLists, newDistances, node, localSearchNeighbours);
+        }
+
+        Tour best = bestSoFar;
+        resize(newNodes, newDistances, newPheromones, newHeuristic, newChoiceInfo, newCandidates, newLocalSearchLists);
+        if (best != null) {
+            bestSoFar = skipNode(best.nodes, node);
+        }
+    }
+
+    //Übernimmt die umkopierten Strukturen, null = beim nächsten Tourbau komplett neu berechnen.
+    //Tourpuffer und Workspaces werden von ensureConstructionBuffers() in der neuen Größe angelegt
+    private void resize(int newNodes, Matrix newDistances, Matrix newPheromones, Matrix newHeuristic, Matrix newChoiceInfo,
+                        int[][] newCandidates, int[][] newLocalSearchLists) {
+        nodes = newNodes;
+        distances = newDistances;
+        distancesOwned = true;
+        pheromones = newPheromones;
+        heuristic = newHeuristic;
+        heuristicDirty = newHeuristic == null;
+        candidateHeuristic = null;
+        candidateChoiceInfo = null;
+        setChoiceInfo(newChoiceInfo);
+        choiceInfoDirty = newChoiceInfo == null;
+        staleChoiceCount = 0;
+        candidates = newCandidates;
+        candidatesDirty = newCandidates == null;
+        localSearchNeighbourLists = newLocalSearchLists;
+        localSearchNeighboursDirty = newLocalSearchLists == null;
+        resetLocalSearch();
+        iterationBest = null;
+        bestSoFar = null;
+        bestSoFarAnt = -1;
+        spareTour = null;
+    }
+
+    //Ohne Heuristik Matrix gültig, solange die Distanzen aus Koordinaten kommen
+    private boolean isHeuristicValid() {
+        if (heuristicDirty || alpha != heuristicAlpha) {
+            return false;
+        }
+        return heuristic != null ? heuristic.size() == nodes : distances instanceof CoordinateMatrix;
+    }
+
+    private boolean isChoiceInfoValid() {
+        return !choiceInfoDirty && q == choiceInfoQ && choiceInfo != null && choiceInfo.size() == nodes;
+    }
+
+    private void setChoiceInfo(Matrix choice) {
+        choiceInfo = choice;
+        flatChoiceInfo = choice instanceof FlatMatrix ? ((FlatMatrix) choice).data() : null;
+    }
+
+    //choiceInfo im Layout der Pheromone. FLOAT rechnet in double, da tau^q * eta^alpha bei großem q den float Bereich verlässt,
+    //PACKED_SYMMETRIC nur bei symmetrischen Distanzen
+    private MatrixStorage choiceStorage(Matrix distances) {
+        switch (pheromoneStorage) {
+            case FLOAT:
+                return MatrixStorage.FLAT;
+            case PACKED_SYMMETRIC:
+                return distances.isSymmetric() ? MatrixStorage.PACKED_SYMMETRIC : MatrixStorage.FLAT;
+            default:
+                return pheromoneStorage;
+        }
+    }
+
+    private boolean isNeighbourListValid(int[][] lists, int size, boolean dirty) {
+        return !dirty && lists != null && lists.length == nodes && lists[0].length == Math.min(size, nodes - 1);
+    }
+
+    private double choiceValue(double pheromone, double eta) {
+        return eta == 0.0 ? 0.0 : power(pheromone, q) * eta;
+    }
+
+    //choiceInfo Wert einer Kante ohne gespeicherte Heuristik, gleiche Skala wie die gespeicherten Werte
+    private double choiceValue(int from, int to) {
+        return choiceValue(pheromones.get(from, to), heuristicValue(distances.get(from, to)));
+    }
+
+    //eta^alpha aus der Heuristik Matrix oder bei Bedarf aus den Distanzen
+    private double eta(int from, int to) {
+        return heuristic != null ? heuristic.get(from, to) : heuristicValue(distances.get(from, to));
+    }
+
+    private double heuristicValue(double distance) {
+        return distance != 0 ? 1.0 / power(distance, alpha) : 0.0;
+    }
+
+    //Math.pow ohne den teuren allgemeinen Fall für die üblichen Exponenten 1 und 2, wichtig für die Werte bei Bedarf
+    private static double power(double base, double exponent) {
+        if (exponent == 1.0) {
+            return base;
+        }
+        return exponent == 2.0 ? base * base : Math.pow(base, exponent);
+    }
+
+    //Eine per setDistances(Matrix) übernommene Matrix wird vor der ersten Änderung einmal in eigenen Speicher kopiert
+    private Matrix writableDistances() {
+        if (!distancesOwned) {
+            Matrix owned = distanceStorage.create(nodes);
+            copyWithout(distances, owned, -1);
+            distances = owned;
+            distancesOwned = true;
+        }
+        return distances;
+    }
+
+    //Die lokale Suche hält Distanzen und Nachbarlisten, sie wird beim nächsten Aufruf neu angelegt
+    private void resetLocalSearch() {
+        if (workspaces != null) {
+            for (AntWorkspace workspace : workspaces) {
+                workspace.localSearch = null;
+            }
+        }
+    }
+
+    //Kopiert source ohne Zeile und Spalte removed (-1 = keine) nach target, die Indizes dahinter rücken eins nach vorne.
+    //Liefert die Summe der Einträge außerhalb der Diagonale
+    private static double copyWithout(Matrix source, Matrix target, int removed) {
+        int size = source.size();
+        boolean symmetric = source.isSymmetric();
+        double sum = 0.0;
+        for (int i = 0; i < size; i++) {
+            if (i == removed) {
+                continue;
+            }
+            int targetRow = removed >= 0 && i > removed ? i - 1 : i;
+            for (int j = symmetric ? i : 0; j < size; j++) {
+                if (j == removed) {
+                    continue;
+                }
+                int targetColumn = removed >= 0 && j > removed ? j - 1 : j;
+                double value = source.get(i, j);
+                target.set(targetRow, targetColumn, value);
+                if (i != j) {
+                    if (symmetric) {
+                        target.set(targetColumn, targetRow, value);
+                        sum += value;
+                    }
+                    sum += value;
+                }
+            }
+        }
+        return sum;
+    }
+
+    //Neue Nachbarlisten mit dem hinzugefügten Knoten: einsortiert in jede bestehende Liste, eigene Liste komplett berechnet
+    private static int[][] insertNeighbour(int[][] lists, Matrix distances, int added, int size) {
+        int k = Math.min(size, distances.size() - 1);
+        int[][] updated = new int[distances.size()][];
+        for (int i = 0; i < lists.length; i++) {
+            updated[i] = NeighbourLists.insert(distances, i, lists[i], added, k);
+        }
+        updated[added] = NeighbourLists.nearest(distances, added, k);
+        return updated;
+    }
+
+    //Nachbarlisten ohne den entfernten Knoten: Listen, die ihn enthielten, werden neu berechnet, die übrigen nur umnummeriert
+    private static int[][] removeNeighbour(int[][] lists, Matrix distances, int removed, int size) {
+        int k = Math.min(size, distances.size() - 1);
+        int[][] updated = new int[distances.size()][];
+        for (int i = 0; i < lists.length; i++) {
+            if (i == removed) {
+                continue;
+            }
+            int row = i > removed ? i - 1 : i;
+            int[] neighbours = lists[i];
+            boolean contained = false;
+            for (int neighbour : neighbours) {
+                contained |= neighbour == removed;
+            }
+            if (contained) {
+                updated[row] = NeighbourLists.nearest(distances, row, k);
+                continue;
+            }
+            int[] relabelled = new int[Math.min(k, neighbours.length)];
+            for (int c = 0; c < relabelled.length; c++) {
+                relabelled[c] = neighbours[c] > removed ? neighbours[c] - 1 : neighbours[c];
+            }
+            updated[row] = relabelled;
+        }
+        return updated;
+    }
+
+    //Geschlossene Tour mit dem neuen Knoten an der Stelle mit dem geringsten Umweg
+    private Tour insertCheapest(int[] tour, int added) {
+        int bestPosition = 0;
+        double bestDetour = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < tour.length - 1; i++) {
+            double detour = distances.get(tour[i], added) + distances.get(added, tour[i + 1]) - distances.get(tour[i], tour[i + 1]);
+            if (detour < bestDetour) {
+                bestDetour = detour;
+                bestPosition = i + 1;
+            }
+        }
+        Tour result = new Tour(tour.length + 1);
+        System.arraycopy(tour, 0, result.nodes, 0, bestPosition);
+        result.nodes[bestPosition] = added;
+        System.arraycopy(tour, bestPosition, result.nodes, bestPosition + 1, tour.length - bestPosition);
+        result.cost = calculateTourCost(result.nodes);
+        return result;
+    }
+
+    //Geschlossene Tour ohne den entfernten Knoten, in den neuen Indizes
+    private Tour skipNode(int[] tour, int removed) {
+        Tour result = new Tour(tour.length - 1);
+        int length = 0;
+        for (int i = 0; i < tour.length - 1; i++) {
+            if (tour[i] != removed) {
+                result.nodes[length++] = tour[i] > removed ? tour[i] - 1 : tour[i];
+            }
+        }
+        result.nodes[length] = result.nodes[0];
+        result.cost = calculateTourCost(result.nodes);
+        return result;
+    }
+
+    private void checkNode(int node) {
+        if (node < 0 || node >= nodes) {
+            throw new IllegalArgumentException("Node must be in [0, " + nodes + "): " + node);
+        }
+    }
+
+    private static void checkDistance(double distance) {
+        if (!(distance >= 0.0) || Double.isInfinite(distance)) {
+            throw new IllegalArgumentException("Distance must be finite and not negative: " + distance);
+        }
+    }
+
+    //Zustand für ColonyCheckpoint, die Reihenfolge muss zu readCheckpoint passen
+    void writeCheckpoint(ColonyCheckpoint.Output output) throws IOException {
+        checkInitialized();
+        normalizePheromones();
+        output.putDouble(initialPheromone);
+        output.putDouble(evaporationRate);
+        output.putDouble(q);
+        output.putDouble(alpha);
+        output.putInt(updateRule.ordinal());
+        output.putInt(maxMinUseBestSoFar ? 1 : 0);
+        output.putDouble(q0);
+        output.putDouble(localEvaporationRate);
+        output.putDouble(tauMin);
+        output.putDouble(tauMax);
+        output.putInt(candidateListSize);
+        output.putInt(localSearchMode.ordinal());
+        output.putInt(localSearchNeighbours);
+        output.putLong(seed);
+        output.putLong(iteration);
+
+        output.putInt(bestSoFar != null ? 1 : 0);
+        if (bestSoFar != null) {
+            for (int node : bestSoFar.nodes) {
+                output.putInt(node);
+            }
+        }
+        for (int i = 0; i < nodes; i++) {
+            for (int j = 0; j < nodes; j++) {
+                output.putDouble(pheromones.get(i, j));
+            }
+        }
+    }
+
+    //Liest zuerst alles und prüft die Prüfsumme, erst danach wird die Kolonie verändert
+    void readCheckpoint(ColonyCheckpoint.Input input) throws IOException {
+        checkInitialized();
+        double restoredInitialPheromone = input.getDouble();
+        double restoredEvaporationRate = input.getDouble();
+        double restoredQ = input.getDouble();
+        double restoredAlpha = input.getDouble();
+        PheromoneUpdateRule restoredRule = input.getEnum(PheromoneUpdateRule.values());
+        boolean restoredUseBestSoFar = input.getInt() != 0;
+        double restoredQ0 = input.getDouble();
+        double restoredLocalEvaporationRate = input.getDouble();
+        double restoredTauMin = input.getDouble();
+        double restoredTauMax = input.getDouble();
+        int restoredCandidateListSize = input.getInt();
+        LocalSearchMode restoredLocalSearchMode = input.getEnum(LocalSearchMode.values());
+        int restoredLocalSearchNeighbours = input.getInt();
+        long restoredSeed = input.getLong();
+        long restoredIteration = input.getLong();
+
+        int[] restoredBest = null;
+        if (input.getInt() != 0) {
+            restoredBest = new int[nodes + 1];
+            for (int i = 0; i < restoredBest.length; i++) {
+                restoredBest[i] = input.getInt();
+            }
+        }
+        Matrix restoredPheromones = pheromoneStorage.create(nodes);
+        for (int i = 0; i < nodes; i++) {
+            for (int j = 0; j < nodes; j++) {
+                restoredPheromones.set(i, j, input.getDouble());
+            }
+        }
+        input.finish();
+
+        initialPheromone = restoredInitialPheromone;
+        evaporationRate = restoredEvaporationRate;
+        q = restoredQ;
+        alpha = restoredAlpha;
+        updateRule = restoredRule;
+        maxMinUseBestSoFar = restoredUseBestSoFar;
+        q0 = restoredQ0;
+        localEvaporationRate = restoredLocalEvaporationRate;
+        tauMin = restoredTauMin;
+        tauMax = restoredTauMax;
+        setCandidateListSize(restoredCandidateListSize);
+        localSearchMode = restoredLocalSearchMode;
+        setLocalSearchNeighbours(restoredLocalSearchNeighbours);
+        setSeed(restoredSeed);
+        iteration = restoredIteration;
+
+        pheromones = restoredPheromones;
+        pheromoneScale = 1.0;
+        choiceInfoDirty = true;
+        iterationBest = null;
+        bestSoFarAnt = -1;
+        // Die Instanz kann sich seit dem Checkpoint geändert haben, daher die Kosten neu berechnen
+        bestSoFar = restoredBest == null ? null : new Tour(restoredBest, calculateTourCost(restoredBest));
+    }
+
+    //Mittlere normierte Shannon Entropie der Pheromon Zeilen: 1 = gleichverteilt, gegen 0 = auf eine Kante konvergiert.
+    //Der Verdunstungsfaktor kürzt sich beim Normieren heraus, daher reicht die gespeicherte Matrix. Nur auf dem rechnenden Thread
+    private double pheromoneEntropy() {
+        Matrix tau = pheromones;
+        if (tau == null || nodes < 3) {
+            return Double.NaN;
+        }
+        double entropySum = 0.0;
+        for (int i = 0; i < nodes; i++) {
+            double rowSum = 0.0;
+            for (int j = 0; j < nodes; j++) {
+                if (j != i) {
+                    rowSum += tau.get(i, j);
+                }
+            }
+            if (rowSum <= 0.0) {
+                continue;
+            }
+            double entropy = 0.0;
+            for (int j = 0; j < nodes; j++) {
+                double value = j != i ? tau.get(i, j) : 0.0;
+                if (value > 0.0) {
+                    double p = value / rowSum;
+                    entropy -= p * Math.log(p);
+                }
+            }
+            entropySum += entropy;
+        }
+        return entropySum / (nodes * Math.log(nodes - 1));
+    }
+
+    //Anytime Lösung: constructTours -> updatePheromones -> evaporatePheromones bis das Budget erschöpft ist.
+    //Setzt auf dem aktuellen Zustand auf, ein weiterer Aufruf rechnet weiter statt neu zu beginnen
+    public SolveResult solve(SolveBudget budget) {
+        return solve(budget, this::takeCancel);
+    }
+
+    //cancelled wird vor jeder Iteration abgefragt, z.B. vom IslandSolver mit dessen eigenem Abbruch statt cancel() der Kolonie
+    SolveResult solve(SolveBudget budget, BooleanSupplier cancelled) {
+        checkInitialized();
+        return SolveLoop.run(budget, cancelled, this::solveIteration, this::getBestSoFarCost, this::publishProgress,
+                this::getBestSoFarTour);
+    }
+
+    private boolean solveIteration() {
+        try {
+            updatePheromones(constructTours());
+        } catch (IllegalStateException e) {
+            // Interrupt während des Tourbaus: die bisher beste Tour ist zu dem Zeitpunkt kein Ameisen-Puffer mehr und bleibt gültig
+            if (!Thread.currentThread().isInterrupted()) {
+                throw e;
+            }
+            return false;
+        }
+        evaporatePheromones();
+        return true;
+    }
+
+    //Beendet ein laufendes solve() nach der aktuellen Iteration, darf aus jedem Thread aufgerufen werden.
+    //Läuft gerade keins, beendet es das nächste sofort. Der Abbruch gilt nur für das solve(), das ihn bemerkt
+    public void cancel() {
+        cancelled = true;
+    }
+
+    private boolean takeCancel() {
+        if (!cancelled) {
+            return false;
+        }
+        cancelled = false;
+        return true;
+    }
+
+    public void addSolveListener(SolveListener listener) {
+        solveListeners.add(Objects.requireNonNull(listener));
+    }
+
+    public void removeSolveListener(SolveListener listener) {
+        solveListeners.remove(listener);
+    }
+
+    //Verbesserungen als Flow.Publisher, asynchron zugestellt. Ist der Puffer eines langsamen Abonnenten voll, wird verworfen statt solve() zu bremsen
+    public synchronized Flow.Publisher<SolveProgress> getProgressPublisher() {
+        if (progressPublisher == null) {
+            progressPublisher = new SubmissionPublisher<>();
+        }
+        return progressPublisher;
+    }
+
+    //Schließt den Publisher, die Abonnenten bekommen onComplete
+    public synchronized void closeProgressPublisher() {
+        if (progressPublisher != null) {
+            progressPublisher.close();
+            progressPublisher = null;
+        }
+    }
+
+    //Kopiert die Tour nur, wenn jemand zuhört
+    private void publishProgress(int iteration, long elapsedNanos) {
+        SubmissionPublisher<SolveProgress> publisher;
+        synchronized (this) {
+            publisher = progressPublisher;
+        }
+        boolean hasSubscribers = publisher != null && publisher.hasSubscribers();
+        if (solveListeners.isEmpty() && !hasSubscribers) {
+            return;
+        }
+        SolveProgress progress = new SolveProgress(getBestSoFarTour(), iteration, elapsedNanos);
+        for (SolveListener listener : solveListeners) {
+            listener.improved(progress);
+        }
+        if (hasSubscribers) {
+            publisher.offer(progress, null);
+        }
+    }
+
+
+
     //__________________________________________________________________________________________________________________
     //Ab hier nur noch visualisierung
     //__________________________________________________________________________________________________________________
@@ -262,6 +1763,7 @@ public class TSPAntColony {
 
 
     private void visualizeGraph() {
+        Matrix distances = getDistanceMatrix();
         System.setProperty("org.graphstream.ui", "swing");
 
         Graph graph = new SingleGraph("Graph");
@@ -273,10 +1775,10 @@ public class TSPAntColony {
 
         for (int i = 0; i < nodes; i++) {
             for (int j = 0; j < nodes; j++) {
-                if (i != j && distances[i][j] > 0) {
+                if (i != j && distances.get(i, j) > 0) {
                     String edgeId = i + "-" + j;
                     Edge edge = graph.addEdge(edgeId, String.valueOf(i), String.valueOf(j), true);
-                    edge.setAttribute("ui.label", String.format("%.2f", distances[i][j]));
+                    edge.setAttribute("ui.label", String.format("%.2f", distances.get(i, j)));
                 }
             }
         }
@@ -289,6 +1791,7 @@ public class TSPAntColony {
     }
 
     private void visualizeBestTour(List<Integer> bestTour) {
+        Matrix distances = getDistanceMatrix();
         System.setProperty("org.graphstream.ui", "swing");
 
         Graph graph = new SingleGraph("BestTourGraph");
@@ -303,7 +1806,7 @@ public class TSPAntColony {
             int target = bestTour.get(i + 1);
             String edgeId = source + "-" + target;
             Edge edge = graph.addEdge(edgeId, String.valueOf(source), String.valueOf(target), true);
-            edge.setAttribute("ui.label", String.format("%.2f", distances[source][target]));
+            edge.setAttribute("ui.label", String.format("%.2f", distances.get(source, target)));
         }
 
         graph.setAttribute("ui.stylesheet",
@@ -315,6 +1818,7 @@ public class TSPAntColony {
     }
 
     private void visualizeBestTourInGraph(List<Integer> bestTour) {
+        Matrix distances = getDistanceMatrix();
         System.setProperty("org.graphstream.ui", "swing");
 
         Graph graph = new SingleGraph("Graph");
@@ -325,10 +1829,10 @@ public class TSPAntColony {
 
         for (int i = 0; i < nodes; i++) {
             for (int j = 0; j < nodes; j++) {
-                if (i != j && distances[i][j] > 0) {
+                if (i != j && distances.get(i, j) > 0) {
                     String edgeId = i + "-" + j;
                     Edge edge = graph.addEdge(edgeId, String.valueOf(i), String.valueOf(j), true);
-                    edge.setAttribute("weight", distances[i][j]);
+                    edge.setAttribute("weight", distances.get(i, j));
                 }
             }
         }
@@ -355,22 +1859,33 @@ public class TSPAntColony {
     }
 
     public void printDistancesAndPheromones() {
+        Matrix distances = getDistanceMatrix();
         for (int i = 0; i < nodes; i++) {
             for (int j = 0; j < nodes; j++) {
-                System.out.printf("%8.2f", distances[i][j]);
+                System.out.printf("%8.2f", distances.get(i, j));
             }
             System.out.println();
         }
         System.out.println();
         for (int i = 0; i < nodes; i++) {
             for (int j = 0; j < nodes; j++) {
-                System.out.printf("%8.2f", pheromones[i][j]);
+                System.out.printf("%8.2f", pheromones.get(i, j) * pheromoneScale);
             }
             System.out.println();
         }
     }
 
+    //Liefert seit den austauschbaren Matrizen eine n * n Kopie statt des live Arrays, Änderungen daran wirken nicht auf die Kolonie.
+    //Für direkten Zugriff getDistanceMatrix() verwenden, Änderungen über setDistances() bzw. updateEdge()
+    @Deprecated
     public double[][] getDistances() {
+        return getDistanceMatrix().toArray();
+    }
+
+    public Matrix getDistanceMatrix() {
+        if (distances == null) {
+            ownDistances();
+        }
         return distances;
     }
 
@@ -378,24 +1893,209 @@ public class TSPAntColony {
         return nodes;
     }
 
+    //Liefert seit den austauschbaren Matrizen eine n * n Kopie der effektiven Werte statt des live Arrays, Änderungen daran wirken
+    //nicht auf die Kolonie. Für direkten Zugriff getPheromoneMatrix() verwenden
+    @Deprecated
     public double[][] getPheromones() {
+        return getPheromoneMatrix().toArray();
+    }
+
+    //Live Matrix mit den effektiven Werten, bei lazy Verdunstung wird vorher der globale Faktor eingerechnet
+    public Matrix getPheromoneMatrix() {
+        normalizePheromones();
         return pheromones;
     }
 
+    //Übernimmt die Distanzen in den konfigurierten Speicher
     public void setDistances(double[][] distances) {
+        ownDistances().copyFrom(distances);
+        heuristicDirty = true;
+        candidatesDirty = true;
+        localSearchNeighboursDirty = true;
+    }
+
+    //Verwendet die Matrix direkt (ohne Kopie), sie wird vom Solver nur gelesen
+    public void setDistances(Matrix distances) {
+        if (distances.size() != nodes) {
+            throw new IllegalArgumentException("Expected a distance matrix of size " + nodes + " but got " + distances.size());
+        }
         this.distances = distances;
+        this.distancesOwned = false;
+        heuristicDirty = true;
+        candidatesDirty = true;
+        localSearchNeighboursDirty = true;
+    }
+
+    public int getCandidateListSize() {
+        return candidateListSize;
+    }
+
+    //Anzahl nächster Nachbarn für die Knotenwahl, 0 schaltet die Kandidatenlisten ab
+    public void setCandidateListSize(int candidateListSize) {
+        if (candidateListSize < 0) {
+            throw new IllegalArgumentException("Candidate list size must not be negative: " + candidateListSize);
+        }
+        this.candidateListSize = candidateListSize;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    //Setzt den Seed und den Iterationszähler zurück, gleicher Seed -> gleiche Touren, unabhängig von der Parallelität
+    public void setSeed(long seed) {
+        this.seed = seed;
+        this.iteration = 0;
+        this.random = new SplittableRandom(seed);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    //Anzahl Worker für den Tourbau, 1 = sequentiell
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    //Schaltet die Messung der Phasen ein, ein weiterer Aufruf liefert dieselben Metriken
+    public ColonyMetrics enableMetrics() {
+        if (metrics == null) {
+            metrics = new ColonyMetrics();
+        }
+        return metrics;
+    }
+
+    public void disableMetrics() {
+        metrics = null;
+    }
+
+    //null wenn ausgeschaltet
+    public ColonyMetrics getMetrics() {
+        return metrics;
+    }
+
+    public PheromoneUpdateRule getUpdateRule() {
+        return updateRule;
+    }
+
+    public void setUpdateRule(PheromoneUpdateRule updateRule) {
+        this.updateRule = updateRule;
+    }
+
+    //MAX_MIN: true = die bisher beste Tour verstärkt, false = die beste Tour der Iteration
+    public void setMaxMinUseBestSoFar(boolean maxMinUseBestSoFar) {
+        this.maxMinUseBestSoFar = maxMinUseBestSoFar;
+    }
+
+    //ANT_COLONY_SYSTEM: Wahrscheinlichkeit für die greedy Wahl
+    public void setQ0(double q0) {
+        if (q0 < 0 || q0 > 1) {
+            throw new IllegalArgumentException("q0 must be in [0, 1]: " + q0);
+        }
+        this.q0 = q0;
+    }
+
+    //ANT_COLONY_SYSTEM: Verdunstungsrate xi der lokalen Aktualisierung
+    public void setLocalEvaporationRate(double localEvaporationRate) {
+        if (localEvaporationRate < 0 || localEvaporationRate > 1) {
+            throw new IllegalArgumentException("Local evaporation rate must be in [0, 1]: " + localEvaporationRate);
+        }
+        this.localEvaporationRate = localEvaporationRate;
+    }
+
+    //Kopie der bisher besten Tour über alle Iterationen, null vor der ersten Iteration
+    public Tour getBestSoFarTour() {
+        return bestSoFar == null ? null : new Tour(bestSoFar.nodes, bestSoFar.cost);
+    }
+
+    //Ohne Kopie für Aufrufer im Paket, die sofort weiterkopieren: das Objekt wird als Ameisen-Puffer wiederverwendet, sobald
+    //eine bessere Tour es ablöst
+    Tour liveBestSoFarTour() {
+        return bestSoFar;
+    }
+
+    public double getBestSoFarCost() {
+        return bestSoFar == null ? Double.POSITIVE_INFINITY : bestSoFar.cost;
+    }
+
+    //Beste Tour der letzten Iteration, gültig bis zum nächsten constructTours()
+    public Tour getIterationBestTour() {
+        return iterationBest;
+    }
+
+    //Touren der letzten Iteration mit ihren Kosten, gültig bis zum nächsten constructTours()
+    public Tour[] getTours() {
+        return antTours == null ? new Tour[0] : antTours.clone();
+    }
+
+    public boolean isLazyEvaporation() {
+        return lazyEvaporation;
+    }
+
+    //Verdunstung in O(1) über einen globalen Faktor statt n * n Multiplikationen pro Iteration
+    public void setLazyEvaporation(boolean lazyEvaporation) {
+        if (!lazyEvaporation) {
+            normalizePheromones();
+        }
+        this.lazyEvaporation = lazyEvaporation;
+    }
+
+    public LocalSearchMode getLocalSearchMode() {
+        return localSearchMode;
+    }
+
+    //Lokale Suche auf allen Touren oder nur auf der besten Tour jeder Iteration
+    public void setLocalSearchMode(LocalSearchMode localSearchMode) {
+        this.localSearchMode = localSearchMode;
+    }
+
+    //Anzahl nächster Nachbarn, die die lokale Suche pro Knoten prüft
+    public void setLocalSearchNeighbours(int localSearchNeighbours) {
+        if (localSearchNeighbours < 1) {
+            throw new IllegalArgumentException("Local search needs at least one neighbour: " + localSearchNeighbours);
+        }
+        this.localSearchNeighbours = localSearchNeighbours;
+        this.localSearchNeighbourLists = null;
+    }
+
+    public double getQ() {
+        return q;
+    }
+
+    public void setQ(double q) {
+        this.q = q;
+    }
+
+    public double getAlpha() {
+        return alpha;
+    }
+
+    public void setAlpha(double alpha) {
+        this.alpha = alpha;
     }
 
     public void initializeDistances(double random) {
+        Matrix distances = ownDistances();
         for (int i = 0; i < nodes; i++) {
             for (int j = 0; j < nodes; j++) {
                 if (i == j) {
-                    distances[i][j] = 0;
+                    distances.set(i, j, 0);
                 } else {
-                    distances[i][j] = 10 + random * 90;
-                    distances[j][i] = distances[i][j];
+                    distances.set(i, j, 10 + random * 90);
+                    distances.set(j, i, distances.get(i, j));
                 }
             }
         }
+        heuristicDirty = true;
+        candidatesDirty = true;
+        localSearchNeighboursDirty = true;
     }
 }
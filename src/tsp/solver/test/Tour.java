@@ -0,0 +1,52 @@
+package tsp.solver.test;
+
+import java.util.List;
+
+//Geschlossene Tour (erster Knoten = letzter Knoten) in einem int[] mit einmal berechneten Kosten
+public final class Tour {
+    final int[] nodes;
+    double cost;
+
+    Tour(int length) {
+        this.nodes = new int[length];
+        this.cost = Double.POSITIVE_INFINITY;
+    }
+
+    //Kopiert die Knoten
+    public Tour(int[] closedTour, double cost) {
+        this.nodes = closedTour.clone();
+        this.cost = cost;
+    }
+
+    public double getCost() {
+        return cost;
+    }
+
+    //Anzahl Einträge inklusive Rückkehr zum Start
+    public int length() {
+        return nodes.length;
+    }
+
+    public int getNode(int index) {
+        return nodes[index];
+    }
+
+    public int[] toArray() {
+        return nodes.clone();
+    }
+
+    //List-Sicht ohne Kopie, ändert sich mit der Tour
+    public List<Integer> asList() {
+        return new IntTourList(this);
+    }
+
+    void copyFrom(int[] closedTour, double cost) {
+        System.arraycopy(closedTour, 0, nodes, 0, nodes.length);
+        this.cost = cost;
+    }
+
+    @Override
+    public String toString() {
+        return asList() + " (" + cost + ")";
+    }
+}
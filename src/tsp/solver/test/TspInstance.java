@@ -0,0 +1,50 @@
+package tsp.solver.test;
+
+//Eine geladene TSP Instanz: Distanzen und, falls vorhanden, Koordinaten zur Anzeige
+public class TspInstance {
+    private final String name;
+    private final Matrix distances;
+    private final double[] x;
+    private final double[] y;
+
+    public TspInstance(String name, Matrix distances, double[] x, double[] y) {
+        this.name = name;
+        this.distances = distances;
+        this.x = x;
+        this.y = y;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getDimension() {
+        return distances.size();
+    }
+
+    public Matrix getDistances() {
+        return distances;
+    }
+
+    public boolean hasCoordinates() {
+        return x != null && y != null;
+    }
+
+    //null wenn die Instanz keine Koordinaten hat
+    public double[] getX() {
+        return x;
+    }
+
+    //null wenn die Instanz keine Koordinaten hat
+    public double[] getY() {
+        return y;
+    }
+
+    //Neue Kolonie mit diesen Distanzen, die Matrix wird ohne Kopie verwendet
+    public TSPAntColony createColony(double initialPheromone, double evaporationRate, double q, double alpha) {
+        TSPAntColony colony = new TSPAntColony(getDimension(), initialPheromone, evaporationRate, q, alpha);
+        colony.setDistances(distances);
+        colony.initializePheromones();
+        return colony;
+    }
+}
@@ -0,0 +1,244 @@
+package tsp.solver.test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+//Liest TSPLIB .tsp Dateien (EUC_2D, CEIL_2D, GEO, ATT, EXPLICIT)
+//Koordinaten-Instanzen bekommen eine CoordinateMatrix, EXPLICIT Instanzen eine Matrix im gewählten Speicher
+public final class TspLibReader {
+
+    private TspLibReader() {
+    }
+
+    public static TspInstance read(Path file) throws IOException {
+        return read(file, MatrixStorage.FLAT);
+    }
+
+    public static TspInstance read(Path file, MatrixStorage explicitStorage) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1)) {
+            return read(reader, explicitStorage, null);
+        }
+    }
+
+    //Wie read, aber EXPLICIT Matrizen kommen aus einer binären Cache-Datei (MatrixFile), die bei Bedarf angelegt wird
+    //Aus dem Cache werden nur Kopfzeilen gelesen, DISPLAY_DATA Koordinaten stehen dann nicht zur Verfügung
+    public static TspInstance readCached(Path file, Path cacheFile) throws IOException {
+        if (Files.exists(cacheFile) && Files.getLastModifiedTime(cacheFile).compareTo(Files.getLastModifiedTime(file)) >= 0) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1)) {
+                TspInstance instance = read(reader, MatrixStorage.FLAT, cacheFile);
+                if (instance != null) {
+                    return instance;
+                }
+            }
+        }
+        TspInstance instance = read(file);
+        if (!(instance.getDistances() instanceof CoordinateMatrix)) {
+            MatrixFile.write(instance.getDistances(), cacheFile);
+        }
+        return instance;
+    }
+
+    //Liefert null, wenn cacheFile gesetzt ist, die Instanz aber keine EXPLICIT Instanz ist
+    private static TspInstance read(BufferedReader reader, MatrixStorage explicitStorage, Path cacheFile) throws IOException {
+        String name = null;
+        String type = "TSP";
+        String edgeWeightType = null;
+        String edgeWeightFormat = null;
+        int dimension = -1;
+        double[] x = null;
+        double[] y = null;
+        Matrix explicit = null;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            if (line.equals("EOF")) {
+                break;
+            }
+            int colon = line.indexOf(':');
+            String key = (colon >= 0 ? line.substring(0, colon) : line).trim().toUpperCase(Locale.ROOT);
+            String value = colon >= 0 ? line.substring(colon + 1).trim() : "";
+
+            switch (key) {
+                case "NAME":
+                    name = value;
+                    break;
+                case "TYPE":
+                    type = value.toUpperCase(Locale.ROOT);
+                    break;
+                case "DIMENSION":
+                    dimension = Integer.parseInt(value);
+                    break;
+                case "EDGE_WEIGHT_TYPE":
+                    edgeWeightType = value.toUpperCase(Locale.ROOT);
+                    break;
+                case "EDGE_WEIGHT_FORMAT":
+                    edgeWeightFormat = value.toUpperCase(Locale.ROOT);
+                    break;
+                case "NODE_COORD_SECTION":
+                case "DISPLAY_DATA_SECTION":
+                    requireDimension(dimension);
+                    if (cacheFile != null) {
+                        return null;
+                    }
+                    x = new double[dimension];
+                    y = new double[dimension];
+                    readCoordinates(reader, x, y);
+                    break;
+                case "EDGE_WEIGHT_SECTION":
+                    requireDimension(dimension);
+                    if (!"EXPLICIT".equals(edgeWeightType)) {
+                        throw new IOException("EDGE_WEIGHT_SECTION requires EDGE_WEIGHT_TYPE EXPLICIT but was " + edgeWeightType);
+                    }
+                    if (cacheFile != null) {
+                        Matrix cached = MatrixFile.map(cacheFile);
+                        if (cached.size() != dimension) {
+                            return null;
+                        }
+                        return new TspInstance(name, cached, null, null);
+                    }
+                    explicit = explicitStorage.create(dimension);
+                    readEdgeWeights(new NumberTokenizer(reader), explicit, edgeWeightFormat);
+                    break;
+                default:
+                    // COMMENT, NODE_COORD_TYPE, DISPLAY_DATA_TYPE usw. werden ignoriert
+                    break;
+            }
+        }
+
+        if (!"TSP".equals(type)) {
+            throw new IOException("Only symmetric TSP instances are supported but TYPE was " + type);
+        }
+        requireDimension(dimension);
+        if (cacheFile != null && !"EXPLICIT".equals(edgeWeightType)) {
+            return null;
+        }
+        if ("EXPLICIT".equals(edgeWeightType)) {
+            if (explicit == null) {
+                throw new IOException("EXPLICIT instance without EDGE_WEIGHT_SECTION");
+            }
+            return new TspInstance(name, explicit, x, y);
+        }
+        if (edgeWeightType == null || x == null) {
+            throw new IOException("Instance has neither coordinates nor explicit edge weights");
+        }
+        EdgeWeightType weightType;
+        try {
+            weightType = EdgeWeightType.valueOf(edgeWeightType);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unsupported EDGE_WEIGHT_TYPE " + edgeWeightType, e);
+        }
+        return new TspInstance(name, new CoordinateMatrix(weightType, x, y), x, y);
+    }
+
+    private static void requireDimension(int dimension) throws IOException {
+        if (dimension <= 0) {
+            throw new IOException("DIMENSION must be given before any data section");
+        }
+    }
+
+    //Zeilen "index x y", Index 1-basiert
+    private static void readCoordinates(BufferedReader reader, double[] x, double[] y) throws IOException {
+        for (int read = 0; read < x.length; ) {
+            String line = reader.readLine();
+            if (line == null) {
+                throw new IOException("Unexpected end of file after " + read + " of " + x.length + " coordinates");
+            }
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            String[] parts = line.split("\\s+");
+            if (parts.length < 3) {
+                throw new IOException("Malformed coordinate line: " + line);
+            }
+            int node = Integer.parseInt(parts[0]) - 1;
+            if (node < 0 || node >= x.length) {
+                throw new IOException("Node index out of range: " + parts[0]);
+            }
+            x[node] = Double.parseDouble(parts[1]);
+            y[node] = Double.parseDouble(parts[2]);
+            read++;
+        }
+    }
+
+    private static void readEdgeWeights(NumberTokenizer tokens, Matrix matrix, String format) throws IOException {
+        int n = matrix.size();
+        if (format == null) {
+            throw new IOException("EXPLICIT instance without EDGE_WEIGHT_FORMAT");
+        }
+        switch (format) {
+            case "FULL_MATRIX":
+                for (int i = 0; i < n; i++) {
+                    for (int j = 0; j < n; j++) {
+                        double value = tokens.next();
+                        if (!matrix.isSymmetric() || j >= i) {
+                            matrix.set(i, j, i == j ? 0.0 : value);
+                        }
+                    }
+                }
+                break;
+            case "UPPER_ROW":
+                readTriangle(tokens, matrix, true, false);
+                break;
+            case "UPPER_DIAG_ROW":
+                readTriangle(tokens, matrix, true, true);
+                break;
+            case "LOWER_ROW":
+                readTriangle(tokens, matrix, false, false);
+                break;
+            case "LOWER_DIAG_ROW":
+                readTriangle(tokens, matrix, false, true);
+                break;
+            default:
+                throw new IOException("Unsupported EDGE_WEIGHT_FORMAT " + format);
+        }
+    }
+
+    private static void readTriangle(NumberTokenizer tokens, Matrix matrix, boolean upper, boolean diagonal) throws IOException {
+        int n = matrix.size();
+        for (int i = 0; i < n; i++) {
+            int from = upper ? (diagonal ? i : i + 1) : 0;
+            int to = upper ? n : (diagonal ? i + 1 : i);
+            for (int j = from; j < to; j++) {
+                double value = tokens.next();
+                if (i == j) {
+                    value = 0.0;
+                }
+                matrix.set(i, j, value);
+                matrix.set(j, i, value);
+            }
+        }
+    }
+
+    //Liest Zahlen über Zeilengrenzen hinweg
+    private static final class NumberTokenizer {
+        private final BufferedReader reader;
+        private String[] parts = new String[0];
+        private int position;
+
+        NumberTokenizer(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        double next() throws IOException {
+            while (position >= parts.length) {
+                String line = reader.readLine();
+                if (line == null || line.trim().equals("EOF")) {
+                    throw new IOException("Unexpected end of EDGE_WEIGHT_SECTION");
+                }
+                line = line.trim();
+                parts = line.isEmpty() ? new String[0] : line.split("\\s+");
+                position = 0;
+            }
+            return Double.parseDouble(parts[position++]);
+        }
+    }
+}
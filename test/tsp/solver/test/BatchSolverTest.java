@@ -0,0 +1,118 @@
+package tsp.solver.test;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//Anfrage aus JSON -> solve() -> Antwort als JSON, wieder eingelesen. Eine Kolonie aus dem Pool muss dasselbe liefern wie eine neue
+class BatchSolverTest {
+
+    @Test
+    void responseRoundTripsThroughJson() {
+        try (BatchSolver solver = new BatchSolver(1)) {
+            double[][] points = randomPoints(25, 1);
+            String json = "{\"id\": \"a\\\"1\", \"points\": " + toJson(points) + ", \"iterations\": 15, \"seed\": 3}";
+            BatchSolver.Request request = BatchSolver.Request.fromJson(json);
+            assertEquals("a\"1", request.getId());
+            assertEquals(25, request.getNodes());
+
+            BatchSolver.Response response = solver.solve(request);
+            Map<?, ?> parsed = (Map<?, ?>) MiniJson.parse(response.toJson());
+            assertEquals("a\"1", parsed.get("id"));
+            assertEquals(15.0, parsed.get("iterations"));
+            assertTrue(parsed.get("ms") instanceof Double);
+
+            List<?> tour = (List<?>) parsed.get("tour");
+            int[] closed = new int[tour.size() + 1];
+            for (int i = 0; i < tour.size(); i++) {
+                closed[i] = ((Double) tour.get(i)).intValue();
+            }
+            closed[tour.size()] = closed[0];
+            assertTrue(TestInstances.isValidTour(closed, 25));
+            assertEquals(response.getResult().getBestCost(), (Double) parsed.get("cost"));
+            Matrix distances = new CoordinateMatrix(EdgeWeightType.EUC_2D, points[0], points[1]);
+            double cost = 0.0;
+            for (int i = 0; i < 25; i++) {
+                cost += distances.get(closed[i], closed[i + 1]);
+            }
+            assertEquals(cost, (Double) parsed.get("cost"), 1e-9);
+        }
+    }
+
+    @Test
+    void numericIdsAndMissingToursAreWritten() {
+        try (BatchSolver solver = new BatchSolver(1)) {
+            BatchSolver.Response response = solver.solve(BatchSolver.Request.fromJson(
+                    "{\"id\": 7, \"distances\": [[0, 1, 2], [1, 0, 3], [2, 3, 0]], \"iterations\": 0}"));
+            Map<?, ?> parsed = (Map<?, ?>) MiniJson.parse(response.toJson());
+            assertEquals("7", parsed.get("id"));
+            assertTrue(parsed.containsKey("tour"));
+            assertNull(parsed.get("tour"));
+            assertNull(parsed.get("cost"));
+            assertEquals(0.0, parsed.get("iterations"));
+        }
+    }
+
+    //Die zweite Anfrage gleicher Größe bekommt die Kolonie der ersten zurück, Pheromone, Kandidaten und bisher beste Tour
+    //dürfen nicht durchsickern
+    @Test
+    void pooledColonyGivesTheSameResultAsAFreshOne() {
+        String first = "{\"id\": \"first\", \"points\": " + toJson(randomPoints(30, 2)) + ", \"iterations\": 20, \"seed\": 5, \"candidates\": 6}";
+        String second = "{\"id\": \"second\", \"points\": " + toJson(randomPoints(30, 3)) + ", \"iterations\": 20, \"seed\": 9, \"alpha\": 3}";
+
+        ColonyPool pool = new ColonyPool(1, 1.0, 0.5);
+        String reused;
+        try (BatchSolver solver = new BatchSolver(1, pool)) {
+            solver.solve(BatchSolver.Request.fromJson(first));
+            reused = withoutTiming(solver.solve(BatchSolver.Request.fromJson(second)).toJson());
+            assertEquals(1, pool.getCreated());
+            assertEquals(1, pool.getReused());
+        }
+        String fresh;
+        try (BatchSolver solver = new BatchSolver(1)) {
+            fresh = withoutTiming(solver.solve(BatchSolver.Request.fromJson(second)).toJson());
+        }
+        assertEquals(fresh, reused);
+    }
+
+    @Test
+    void invalidRequestsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> BatchSolver.Request.fromJson("[1, 2]"));
+        assertThrows(IllegalArgumentException.class, () -> BatchSolver.Request.fromJson("{\"id\": 1}"));
+        assertThrows(IllegalArgumentException.class, () -> BatchSolver.Request.fromJson("{\"distances\": [[0, 1], [1, 0]]}"));
+        assertThrows(IllegalArgumentException.class, () -> BatchSolver.Request.fromJson(
+                "{\"distances\": [[0, 1, 2], [1, 0, 3], [2, 3, 0]], \"seed\": \"x\"}"));
+        assertThrows(IllegalArgumentException.class, () -> BatchSolver.Request.fromJson(
+                "{\"distances\": [[0, 1, 2], [1, 0, 3], [2, 3]]}"));
+    }
+
+    //Ganzzahlige Koordinaten, x in [0], y in [1]
+    private static double[][] randomPoints(int nodes, long seed) {
+        Random random = new Random(seed);
+        double[][] points = new double[2][nodes];
+        for (int i = 0; i < nodes; i++) {
+            points[0][i] = random.nextInt(1000);
+            points[1][i] = random.nextInt(1000);
+        }
+        return points;
+    }
+
+    private static String toJson(double[][] points) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < points[0].length; i++) {
+            json.append(i > 0 ? "," : "").append('[').append(points[0][i]).append(',').append(points[1][i]).append(']');
+        }
+        return json.append(']').toString();
+    }
+
+    private static String withoutTiming(String json) {
+        return json.replaceAll(",\"ms\":[0-9.]+", "");
+    }
+}
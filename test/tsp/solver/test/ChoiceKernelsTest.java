@@ -0,0 +1,121 @@
+package tsp.solver.test;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+//Beide Kernel gegen einfache Schleifen. Die Längen 1 bis 33 decken LANES - 1, LANES und LANES + 1 für jede Vektorbreite bis
+//32 doubles (2048 Bit) ab, also jeden Rest nach der Vektorschleife, 1000 den langen Fall mit vielen Überträgen im Scan
+class ChoiceKernelsTest {
+    private static final int[] LENGTHS = IntStream.concat(IntStream.rangeClosed(1, 33), IntStream.of(1000)).toArray();
+    private static final int OFFSET = 5;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"scalar", "vector"})
+    void scoreZeroesVisitedEntries(String name) {
+        ChoiceKernels kernels = kernels(name);
+        SplittableRandom random = new SplittableRandom(1);
+        for (int n : LENGTHS) {
+            for (double visitedShare : new double[]{0.0, 0.3, 1.0}) {
+                double[] choice = randomValues(random, OFFSET + n);
+                boolean[] visited = new boolean[n];
+                for (int i = 0; i < n; i++) {
+                    visited[i] = random.nextDouble() < visitedShare;
+                }
+                double[] expected = new double[n];
+                double expectedTotal = 0.0;
+                for (int i = 0; i < n; i++) {
+                    expected[i] = visited[i] ? 0.0 : choice[OFFSET + i];
+                    expectedTotal += expected[i];
+                }
+                double[] scores = new double[n];
+                double total = kernels.score(choice, OFFSET, visited, scores, n);
+                assertArrayEquals(expected, scores, "n = " + n);
+                assertEquals(expectedTotal, total, 1e-12 * Math.max(1.0, expectedTotal), "n = " + n);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"scalar", "vector"})
+    void prefixSumsMatchRunningSum(String name) {
+        ChoiceKernels kernels = kernels(name);
+        SplittableRandom random = new SplittableRandom(2);
+        for (int n : LENGTHS) {
+            double[] values = randomValues(random, n + 3);
+            double[] expected = values.clone();
+            double sum = 0.0;
+            for (int i = 0; i < n; i++) {
+                sum += expected[i];
+                expected[i] = sum;
+            }
+            double total = kernels.prefixSums(values, n);
+            assertEquals(sum, total, 1e-12 * sum, "n = " + n);
+            assertArrayEquals(expected, values, 1e-12 * sum, "n = " + n);
+            for (int i = 1; i < n; i++) {
+                // Roulette braucht monoton steigende Präfixe
+                assertEquals(true, values[i] >= values[i - 1], "n = " + n + ", i = " + i);
+            }
+            for (int i = n; i < values.length; i++) {
+                assertEquals(expected[i], values[i], "untouched entry " + i + " for n = " + n);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"scalar", "vector"})
+    void scaleAndDivideTouchOnlyTheRange(String name) {
+        ChoiceKernels kernels = kernels(name);
+        SplittableRandom random = new SplittableRandom(3);
+        for (int n : LENGTHS) {
+            double[] values = randomValues(random, OFFSET + n + 2);
+            double[] expected = values.clone();
+            for (int i = OFFSET; i < OFFSET + n; i++) {
+                expected[i] *= 0.75;
+            }
+            kernels.scale(values, OFFSET, OFFSET + n, 0.75);
+            assertArrayEquals(expected, values, "scale n = " + n);
+
+            for (int i = 0; i < n; i++) {
+                expected[i] /= 3.0;
+            }
+            kernels.divide(values, n, 3.0);
+            assertArrayEquals(expected, values, "divide n = " + n);
+        }
+    }
+
+    @Test
+    void scalarKernelIsTheDefault() {
+        assumeTrue(System.getProperty("tsp.kernels") == null, "kernel chosen by -Dtsp.kernels");
+        assertSame(ChoiceKernels.scalar(), ChoiceKernels.get());
+    }
+
+    //Die Vektor Variante wird übersprungen, wenn das Modul in der Test-JVM fehlt
+    private static ChoiceKernels kernels(String name) {
+        if (name.equals("scalar")) {
+            return ChoiceKernels.scalar();
+        }
+        try {
+            return ChoiceKernels.vector();
+        } catch (IllegalStateException e) {
+            assumeTrue(false, "jdk.incubator.vector not available");
+            return null;
+        }
+    }
+
+    private static double[] randomValues(SplittableRandom random, int length) {
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = random.nextDouble() * 10.0;
+        }
+        return values;
+    }
+}
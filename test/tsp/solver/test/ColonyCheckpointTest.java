@@ -0,0 +1,102 @@
+package tsp.solver.test;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+//Ein Warmstart aus dem Checkpoint muss genau so weiterlaufen wie die Kolonie, von der er geschrieben wurde
+class ColonyCheckpointTest {
+    private static final int NODES = 40;
+
+    @TempDir
+    Path directory;
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void restoredColonyContinuesWithSameTours(boolean compress) throws IOException {
+        TSPAntColony original = colony(PheromoneUpdateRule.MAX_MIN, 3);
+        original.setCandidateListSize(8);
+        run(original, 25);
+        Path file = directory.resolve("colony.ckpt");
+        ColonyCheckpoint.write(original, file, compress);
+
+        assertEquals(NODES, ColonyCheckpoint.readNodes(file));
+        TSPAntColony restored = colony(PheromoneUpdateRule.ANT_SYSTEM, 99);
+        ColonyCheckpoint.restore(restored, file);
+        assertEquals(PheromoneUpdateRule.MAX_MIN, restored.getUpdateRule());
+        assertArrayEquals(original.getBestSoFarTour().toArray(), restored.getBestSoFarTour().toArray());
+        assertEquals(original.getBestSoFarCost(), restored.getBestSoFarCost());
+
+        for (int iteration = 0; iteration < 25; iteration++) {
+            int[][] expected = copy(original.constructTours());
+            int[][] actual = restored.constructTours();
+            for (int ant = 0; ant < expected.length; ant++) {
+                assertArrayEquals(expected[ant], actual[ant], "iteration " + iteration + ", ant " + ant);
+            }
+            original.updatePheromones(expected);
+            original.evaporatePheromones();
+            restored.updatePheromones(actual);
+            restored.evaporatePheromones();
+        }
+        assertEquals(original.getBestSoFarCost(), restored.getBestSoFarCost());
+    }
+
+    @Test
+    void corruptedCheckpointIsRejected() throws IOException {
+        TSPAntColony original = colony(PheromoneUpdateRule.ANT_SYSTEM, 3);
+        run(original, 5);
+        Path file = directory.resolve("colony.ckpt");
+        ColonyCheckpoint.write(original, file, false);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 0x55;
+        Files.write(file, bytes);
+
+        TSPAntColony restored = colony(PheromoneUpdateRule.ANT_SYSTEM, 99);
+        assertThrows(IOException.class, () -> ColonyCheckpoint.restore(restored, file));
+        assertEquals(Double.POSITIVE_INFINITY, restored.getBestSoFarCost());
+    }
+
+    @Test
+    void checkpointForOtherSizeIsRejected() throws IOException {
+        TSPAntColony original = colony(PheromoneUpdateRule.ANT_SYSTEM, 3);
+        run(original, 2);
+        Path file = directory.resolve("colony.ckpt");
+        ColonyCheckpoint.write(original, file, true);
+
+        TSPAntColony other = TestInstances.colony(NODES + 1, 3, 0.2, 1.0);
+        other.initializePheromones();
+        assertThrows(IOException.class, () -> ColonyCheckpoint.restore(other, file));
+    }
+
+    private static TSPAntColony colony(PheromoneUpdateRule rule, long seed) {
+        TSPAntColony colony = TestInstances.colony(NODES, 3, 0.2, 1.0);
+        colony.setUpdateRule(rule);
+        colony.setSeed(seed);
+        colony.initializePheromones();
+        return colony;
+    }
+
+    private static void run(TSPAntColony colony, int iterations) {
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            colony.updatePheromones(colony.constructTours());
+            colony.evaporatePheromones();
+        }
+    }
+
+    private static int[][] copy(int[][] tours) {
+        int[][] copies = new int[tours.length][];
+        for (int ant = 0; ant < tours.length; ant++) {
+            copies[ant] = tours[ant].clone();
+        }
+        return copies;
+    }
+}
@@ -0,0 +1,104 @@
+package tsp.solver.test;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.StringWriter;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//Zähler und Zeiten nach einigen Iterationen: n * (n - 1) Schritte pro Iteration, höchstens ein Rückfall pro Schritt,
+//JSON Zeile lesbar und mit denselben Werten wie die Getter
+class ColonyMetricsTest {
+    private static final int NODES = 30;
+    private static final int ITERATIONS = 5;
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 5})
+    void countersMatchTheWorkDone(int candidateListSize) {
+        TSPAntColony colony = colony(candidateListSize);
+        ColonyMetrics metrics = colony.enableMetrics();
+        assertSame(metrics, colony.enableMetrics());
+        colony.solve(SolveBudget.ofIterations(ITERATIONS));
+
+        assertEquals(ITERATIONS, metrics.getIterations());
+        assertEquals((long) ITERATIONS * NODES * (NODES - 1), metrics.getAntSteps());
+        assertTrue(metrics.getConstructionMillis() > 0.0);
+        assertTrue(metrics.getProbabilityMillis() > 0.0);
+        assertTrue(metrics.getDepositMillis() > 0.0);
+        assertTrue(metrics.getEvaporationMillis() > 0.0);
+        assertTrue(metrics.getIterationsPerSecond() > 0.0);
+        assertTrue(metrics.getAntStepsPerSecond() > 0.0);
+        assertTrue(metrics.getSelectionFallbacks() + metrics.getCandidateFallbacks() <= metrics.getAntSteps());
+        if (candidateListSize > 0) {
+            // Der letzte Schritt einer Ameise findet fast immer alle Kandidaten besucht
+            assertTrue(metrics.getCandidateFallbacks() > 0);
+        } else {
+            assertEquals(0, metrics.getCandidateFallbacks());
+        }
+        assertEquals(colony.getBestSoFarCost(), metrics.getBestSoFarCost());
+
+        metrics.reset();
+        assertEquals(0, metrics.getIterations());
+        assertEquals(0, metrics.getAntSteps());
+        assertEquals(0.0, metrics.getIterationsPerSecond());
+        colony.disableMetrics();
+        assertNull(colony.getMetrics());
+        colony.solve(SolveBudget.ofIterations(1));
+        assertEquals(0, metrics.getIterations());
+    }
+
+    @Test
+    void jsonDumpLineParses() throws Exception {
+        TSPAntColony colony = colony(0);
+        ColonyMetrics metrics = colony.enableMetrics();
+        assertTrue(Double.isNaN(metrics.getPheromoneEntropy()));
+        colony.solve(SolveBudget.ofIterations(ITERATIONS));
+
+        StringWriter output = new StringWriter();
+        ScheduledFuture<?> dump = metrics.scheduleJsonDump(output, Duration.ofMillis(5));
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        String line;
+        while (true) {
+            synchronized (output) {
+                String text = output.toString();
+                int end = text.indexOf(System.lineSeparator());
+                line = end < 0 ? null : text.substring(0, end);
+            }
+            if (line != null || System.nanoTime() > deadline) {
+                break;
+            }
+            Thread.sleep(5);
+        }
+        dump.cancel(false);
+        assertNotNull(line, "no JSON line written");
+
+        Map<?, ?> json = (Map<?, ?>) MiniJson.parse(line);
+        assertEquals((double) metrics.getIterations(), json.get("iterations"));
+        assertEquals((double) metrics.getAntSteps(), json.get("antSteps"));
+        assertEquals((double) metrics.getSelectionFallbacks(), json.get("selectionFallbacks"));
+        assertEquals((double) metrics.getCandidateFallbacks(), json.get("candidateFallbacks"));
+        assertEquals(colony.getBestSoFarCost(), json.get("bestSoFarCost"));
+        assertTrue((Double) json.get("timestamp") > 0.0);
+        assertTrue((Double) json.get("constructionMs") > 0.0);
+
+        // Der erste Wert wird ohne vorherigen Abruf am Ende der ersten Iteration veröffentlicht
+        double entropy = (Double) json.get("pheromoneEntropy");
+        assertTrue(entropy > 0.0 && entropy <= 1.0, Double.toString(entropy));
+    }
+
+    private static TSPAntColony colony(int candidateListSize) {
+        TSPAntColony colony = TestInstances.colony(NODES, 6, 0.1, 1.0);
+        colony.setCandidateListSize(candidateListSize);
+        colony.initializePheromones();
+        return colony;
+    }
+}
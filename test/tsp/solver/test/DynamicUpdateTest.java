@@ -0,0 +1,101 @@
+package tsp.solver.test;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//updateEdge, addNode und removeNode rechnen nur die betroffenen Einträge neu. Das Ergebnis muss einer Kolonie entsprechen,
+//die mit denselben Distanzen und Pheromonen von Grund auf neu aufgebaut wurde
+class DynamicUpdateTest {
+
+    static Stream<Arguments> configurations() {
+        return Stream.of(PheromoneUpdateRule.values())
+                .flatMap(rule -> Stream.of(Arguments.of(rule, 0), Arguments.of(rule, 8)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("configurations")
+    void incrementalUpdatesMatchFullRebuild(PheromoneUpdateRule rule, int candidateListSize) {
+        Random random = new Random(5);
+        TSPAntColony colony = TestInstances.colony(60, 5, 0.2, 1.0);
+        colony.setUpdateRule(rule);
+        colony.setCandidateListSize(candidateListSize);
+        colony.initializePheromones();
+        run(colony, 10);
+
+        for (int edge = 0; edge < 20; edge++) {
+            int from = random.nextInt(colony.getNodes());
+            int to = (from + 1 + random.nextInt(colony.getNodes() - 1)) % colony.getNodes();
+            colony.updateEdge(from, to, 1.0 + random.nextDouble() * 100);
+        }
+        assertBestTourValid(colony);
+        double[] distancesToNodes = new double[colony.getNodes()];
+        for (int i = 0; i < distancesToNodes.length; i++) {
+            distancesToNodes[i] = 1.0 + random.nextDouble() * 900;
+        }
+        assertEquals(60, colony.addNode(distancesToNodes));
+        assertEquals(61, colony.getNodes());
+        assertBestTourValid(colony);
+        colony.removeNode(3);
+        colony.removeNode(colony.getNodes() - 1);
+        assertEquals(59, colony.getNodes());
+        assertBestTourValid(colony);
+        colony.updateEdge(0, 1, 2.5);
+
+        TSPAntColony rebuilt = rebuild(colony);
+        for (int node = 0; node < colony.getNodes(); node += 7) {
+            List<Integer> tour = List.of(node, (node + 1) % colony.getNodes(), (node + 5) % colony.getNodes());
+            assertArrayEquals(rebuilt.calculateProbabilities(node, tour), colony.calculateProbabilities(node, tour), 1e-12,
+                    "probabilities from node " + node);
+        }
+        colony.setSeed(17);
+        rebuilt.setSeed(17);
+        int[][] tours = colony.constructTours();
+        int[][] expected = rebuilt.constructTours();
+        for (int ant = 0; ant < expected.length; ant++) {
+            assertTrue(TestInstances.isValidTour(tours[ant], colony.getNodes()), "ant " + ant);
+            assertArrayEquals(expected[ant], tours[ant], "ant " + ant);
+        }
+    }
+
+    //Neue Kolonie mit den aktuellen Distanzen und Pheromonen, alle abgeleiteten Strukturen werden komplett berechnet
+    private static TSPAntColony rebuild(TSPAntColony colony) {
+        int nodes = colony.getNodes();
+        TSPAntColony rebuilt = new TSPAntColony(nodes, 1.0, 0.2, 1.0, 2.0);
+        rebuilt.setDistances(colony.getDistanceMatrix().toArray());
+        rebuilt.setUpdateRule(colony.getUpdateRule());
+        rebuilt.setCandidateListSize(colony.getCandidateListSize());
+        rebuilt.initializePheromones();
+        Matrix source = colony.getPheromoneMatrix();
+        Matrix target = rebuilt.getPheromoneMatrix();
+        for (int i = 0; i < nodes; i++) {
+            for (int j = 0; j < nodes; j++) {
+                target.set(i, j, source.get(i, j));
+            }
+        }
+        return rebuilt;
+    }
+
+    //Die bisher beste Tour wird mitgeführt: gültig und mit den aktuellen Distanzen bewertet
+    private static void assertBestTourValid(TSPAntColony colony) {
+        int[] best = colony.getBestSoFarTour().toArray();
+        assertTrue(TestInstances.isValidTour(best, colony.getNodes()), Arrays.toString(best));
+        assertEquals(colony.calculateTourCost(best), colony.getBestSoFarCost(), 1e-9);
+    }
+
+    private static void run(TSPAntColony colony, int iterations) {
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            colony.updatePheromones(colony.constructTours());
+            colony.evaporatePheromones();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package tsp.solver.test;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+//Lazy Verdunstung darf nur die Rechenzeit ändern: gleiche Touren wie eager, auch bei großem q, wo tau^q über- bzw. unterläuft
+class LazyEvaporationTest {
+
+    @ParameterizedTest
+    @ValueSource(doubles = {1.0, 10.0, 100.0})
+    void lazyAndEagerBuildSameTours(double q) {
+        assertSameTours(q, 0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {1.0, 10.0, 100.0})
+    void lazyAndEagerBuildSameToursWithCandidateLists(double q) {
+        assertSameTours(q, 10);
+    }
+
+    private static void assertSameTours(double q, int candidateListSize) {
+        TSPAntColony eager = colony(q, candidateListSize, false);
+        TSPAntColony lazy = colony(q, candidateListSize, true);
+        for (int iteration = 0; iteration < 400; iteration++) {
+            int[][] eagerTours = eager.constructTours();
+            int[][] lazyTours = lazy.constructTours();
+            for (int ant = 0; ant < eagerTours.length; ant++) {
+                assertArrayEquals(eagerTours[ant], lazyTours[ant], "iteration " + iteration + ", ant " + ant);
+            }
+            eager.updatePheromones(eagerTours);
+            eager.evaporatePheromones();
+            lazy.updatePheromones(lazyTours);
+            lazy.evaporatePheromones();
+        }
+        assertEquals(eager.getBestSoFarCost(), lazy.getBestSoFarCost());
+    }
+
+    private static TSPAntColony colony(double q, int candidateListSize, boolean lazyEvaporation) {
+        TSPAntColony colony = TestInstances.colony(60, 7, 0.5, q);
+        colony.setCandidateListSize(candidateListSize);
+        colony.setLazyEvaporation(lazyEvaporation);
+        colony.initializePheromones();
+        return colony;
+    }
+}
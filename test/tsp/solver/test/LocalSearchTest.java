@@ -0,0 +1,128 @@
+package tsp.solver.test;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//2-opt + Or-opt auf zufälligen Touren und innerhalb der Kolonie: gültige Permutation, Ersparnis passt zu den Kosten,
+//keine Tour wird länger
+class LocalSearchTest {
+
+    @Test
+    void randomToursStayPermutationsAndGainMatchesCost() {
+        SplittableRandom random = new SplittableRandom(3);
+        for (int nodes : new int[]{5, 6, 13, 50, 200}) {
+            TSPAntColony colony = TestInstances.colony(nodes, nodes, 0.1, 1.0);
+            Matrix distances = colony.getDistanceMatrix();
+            LocalSearch search = new LocalSearch(distances, NeighbourLists.nearest(distances, Math.min(8, nodes - 1)));
+            for (int round = 0; round < 20; round++) {
+                int[] tour = randomTour(random, nodes);
+                int start = tour[0];
+                double before = colony.calculateTourCost(tour);
+
+                double gain = search.improve(tour);
+                double after = colony.calculateTourCost(tour);
+                assertTrue(TestInstances.isValidTour(tour, nodes), "n = " + nodes);
+                assertEquals(start, tour[0]);
+                assertTrue(gain >= 0.0);
+                assertTrue(after <= before + 1e-9, "n = " + nodes + ": " + before + " -> " + after);
+                assertEquals(before - gain, after, 1e-6 * before, "n = " + nodes);
+            }
+        }
+    }
+
+    @Test
+    void rejectsToursOfTheWrongLength() {
+        TSPAntColony colony = TestInstances.colony(10, 1, 0.1, 1.0);
+        Matrix distances = colony.getDistanceMatrix();
+        LocalSearch search = new LocalSearch(distances, NeighbourLists.nearest(distances, 5));
+        assertThrows(IllegalArgumentException.class, () -> search.improve(new int[10]));
+    }
+
+    //Erste Iteration mit gleichem Seed: ohne lokale Suche gebaute Touren sind die Ausgangstouren. ALL_TOURS verbessert jede,
+    //ITERATION_BEST nur die der besten Ameise
+    @ParameterizedTest
+    @EnumSource(value = TSPAntColony.LocalSearchMode.class, names = {"ALL_TOURS", "ITERATION_BEST"})
+    void colonyImprovesConstructedTours(TSPAntColony.LocalSearchMode mode) {
+        int nodes = 80;
+        TSPAntColony reference = colony(nodes, TSPAntColony.LocalSearchMode.NONE);
+        int[][] plain = copy(reference.constructTours());
+        double plainBest = Double.POSITIVE_INFINITY;
+        for (int[] tour : plain) {
+            plainBest = Math.min(plainBest, reference.calculateTourCost(tour));
+        }
+
+        TSPAntColony colony = colony(nodes, mode);
+        int[][] improved = colony.constructTours();
+        int changed = 0;
+        for (int ant = 0; ant < nodes; ant++) {
+            assertTrue(TestInstances.isValidTour(improved[ant], nodes), "ant " + ant);
+            assertEquals(plain[ant][0], improved[ant][0]);
+            double before = reference.calculateTourCost(plain[ant]);
+            double after = colony.calculateTourCost(improved[ant]);
+            assertTrue(after <= before + 1e-9, "ant " + ant + ": " + before + " -> " + after);
+            if (after < before - 1e-9) {
+                changed++;
+            }
+        }
+        if (mode == TSPAntColony.LocalSearchMode.ALL_TOURS) {
+            assertTrue(changed > nodes / 2, changed + " improved tours");
+        } else {
+            assertEquals(1, changed);
+        }
+
+        colony.updatePheromones(improved);
+        assertTrue(colony.getBestSoFarCost() < plainBest);
+        int[] best = colony.getBestSoFarTour().toArray();
+        assertTrue(TestInstances.isValidTour(best, nodes));
+        assertEquals(colony.calculateTourCost(best), colony.getBestSoFarCost(), 1e-9);
+
+        // Weitere Iterationen: die bisher beste Tour wird nie schlechter und bleibt konsistent
+        double previous = colony.getBestSoFarCost();
+        for (int iteration = 0; iteration < 10; iteration++) {
+            colony.updatePheromones(colony.constructTours());
+            colony.evaporatePheromones();
+            assertTrue(colony.getBestSoFarCost() <= previous);
+            previous = colony.getBestSoFarCost();
+            best = colony.getBestSoFarTour().toArray();
+            assertTrue(TestInstances.isValidTour(best, nodes));
+            assertEquals(colony.calculateTourCost(best), previous, 1e-9);
+        }
+    }
+
+    private static TSPAntColony colony(int nodes, TSPAntColony.LocalSearchMode mode) {
+        TSPAntColony colony = TestInstances.colony(nodes, 21, 0.1, 1.0);
+        colony.setLocalSearchMode(mode);
+        colony.initializePheromones();
+        return colony;
+    }
+
+    private static int[] randomTour(SplittableRandom random, int nodes) {
+        int[] tour = new int[nodes + 1];
+        for (int i = 0; i < nodes; i++) {
+            tour[i] = i;
+        }
+        for (int i = nodes - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = tour[i];
+            tour[i] = tour[j];
+            tour[j] = swap;
+        }
+        tour[nodes] = tour[0];
+        return tour;
+    }
+
+    private static int[][] copy(int[][] tours) {
+        int[][] copy = new int[tours.length][];
+        for (int i = 0; i < tours.length; i++) {
+            copy[i] = tours[i].clone();
+        }
+        return copy;
+    }
+}
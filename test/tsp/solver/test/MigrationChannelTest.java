@@ -0,0 +1,171 @@
+package tsp.solver.test;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//Migration im Prozess über Warteschlangen, über loopback Sockets und das Verwerfen ungültiger Migranten im IslandSolver
+class MigrationChannelTest {
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @Test
+    void queueRingDeliversCopiesToTheNextIsland() {
+        QueueMigrationChannel[] ring = QueueMigrationChannel.ring(3, 4);
+        Tour tour = new Tour(new int[]{0, 2, 1, 0}, 7.5);
+        ring[0].send(tour);
+
+        assertNull(ring[0].poll());
+        assertNull(ring[2].poll());
+        Tour received = ring[1].poll();
+        assertNotSame(tour, received);
+        assertArrayEquals(tour.toArray(), received.toArray());
+        assertEquals(7.5, received.getCost());
+        assertNull(ring[1].poll());
+
+        ring[2].send(tour);
+        assertNotNull(ring[0].poll());
+    }
+
+    //Volle Warteschlange verwirft statt zu blockieren, eine Insel allein schickt nicht an sich selbst
+    @Test
+    void queueDropsWhenFullOrUnconnected() {
+        QueueMigrationChannel[] ring = QueueMigrationChannel.ring(2, 2);
+        for (int i = 0; i < 5; i++) {
+            ring[0].send(new Tour(new int[]{0, 1, 2, 0}, i));
+        }
+        assertEquals(0.0, ring[1].poll().getCost());
+        assertEquals(1.0, ring[1].poll().getCost());
+        assertNull(ring[1].poll());
+
+        ring[0].send(new Tour(new int[]{0, 1, 2, 0}, 1));
+        ring[1].close();
+        assertNull(ring[1].poll());
+
+        QueueMigrationChannel alone = QueueMigrationChannel.ring(1, 2)[0];
+        alone.send(new Tour(new int[]{0, 1, 2, 0}, 1));
+        assertNull(alone.poll());
+        QueueMigrationChannel unconnected = new QueueMigrationChannel(2);
+        unconnected.send(new Tour(new int[]{0, 1, 2, 0}, 1));
+        assertNull(unconnected.poll());
+    }
+
+    @Test
+    void socketRoundTripOverLoopback() throws Exception {
+        try (SocketMigrationChannel receiver = new SocketMigrationChannel(0, unusedAddress(), 4);
+             SocketMigrationChannel sender = new SocketMigrationChannel(0,
+                     new InetSocketAddress(InetAddress.getLoopbackAddress(), receiver.getLocalPort()), 4)) {
+            int[] nodes = {3, 0, 4, 1, 2, 3};
+            sender.send(new Tour(nodes, 123.25));
+            Tour received = await(receiver);
+            assertArrayEquals(nodes, received.toArray());
+            assertEquals(123.25, received.getCost());
+
+            // Ein kaputter Rahmen beendet nur seine eigene Verbindung, die Migration läuft weiter
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), receiver.getLocalPort());
+                 DataOutputStream output = new DataOutputStream(socket.getOutputStream())) {
+                output.writeInt(-1);
+                output.flush();
+            }
+            sender.send(new Tour(new int[]{0, 1, 2, 0}, 3.0));
+            assertEquals(3.0, await(receiver).getCost());
+            assertNull(receiver.poll());
+        }
+    }
+
+    //Falsche Länge oder keine Permutation: die Insel verwirft den Migranten mit Meldung und rechnet weiter,
+    //ein gültiger Migrant wird als bisher beste Tour übernommen, wenn er besser ist
+    @Test
+    void islandDropsInvalidMigrants() throws Exception {
+        int nodes = 20;
+        TSPAntColony strong = TestInstances.colony(nodes, 4, 0.1, 1.0);
+        strong.setLocalSearchMode(TSPAntColony.LocalSearchMode.ALL_TOURS);
+        strong.initializePheromones();
+        strong.solve(SolveBudget.ofIterations(30));
+        Tour good = strong.getBestSoFarTour();
+
+        TSPAntColony island = TestInstances.colony(nodes, 4, 0.1, 1.0);
+        island.setSeed(99);
+        island.initializePheromones();
+        StubChannel channel = new StubChannel();
+        channel.incoming.add(new Tour(new int[]{0, 1, 2, 0}, 1.0));
+        int[] duplicate = good.toArray();
+        duplicate[1] = duplicate[2];
+        channel.incoming.add(new Tour(duplicate, 1.0));
+        channel.incoming.add(good);
+
+        PrintStream originalErr = System.err;
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        SolveResult result;
+        try {
+            System.setErr(new PrintStream(err, true, StandardCharsets.UTF_8));
+            result = new IslandSolver(List.of(island), List.of(channel)).setMigrationInterval(1)
+                    .solve(SolveBudget.ofIterations(1));
+        } finally {
+            System.setErr(originalErr);
+        }
+
+        assertEquals(SolveResult.StopReason.MAX_ITERATIONS, result.getStopReason());
+        String messages = err.toString(StandardCharsets.UTF_8);
+        assertTrue(messages.contains("Dropped invalid migrant with 4 entries"), messages);
+        assertTrue(messages.contains("Dropped invalid migrant with " + (nodes + 1) + " entries"), messages);
+        assertTrue(channel.incoming.isEmpty());
+        assertEquals(1, channel.sent.size());
+        assertTrue(island.getBestSoFarCost() <= island.calculateTourCost(good.toArray()) + 1e-9);
+        assertTrue(TestInstances.isValidTour(island.getBestSoFarTour().toArray(), nodes));
+    }
+
+    private static Tour await(MigrationChannel channel) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        Tour tour;
+        while ((tour = channel.poll()) == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertNotNull(tour, "no tour received");
+        return tour;
+    }
+
+    //Der Empfänger schickt nichts, das Ziel muss nur eine gültige Adresse sein
+    private static InetSocketAddress unusedAddress() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            return new InetSocketAddress(InetAddress.getLoopbackAddress(), socket.getLocalPort());
+        }
+    }
+
+    private static final class StubChannel implements MigrationChannel {
+        final Deque<Tour> incoming = new ArrayDeque<>();
+        final List<Tour> sent = new ArrayList<>();
+
+        @Override
+        public synchronized void send(Tour tour) {
+            sent.add(new Tour(tour.toArray(), tour.getCost()));
+        }
+
+        @Override
+        public synchronized Tour poll() {
+            return incoming.poll();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
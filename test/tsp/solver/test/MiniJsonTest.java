@@ -0,0 +1,82 @@
+package tsp.solver.test;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//Parser der BatchSolver Anfragen: Escapes, Zahlen, Reste nach dem Wert und Verschachtelungstiefe
+class MiniJsonTest {
+
+    @Test
+    void escapesAreDecoded() {
+        assertEquals("a\"b\\c/d\b\f\n\r\tä€", MiniJson.parse("\"a\\\"b\\\\c\\/d\\b\\f\\n\\r\\t\\u00e4\\u20AC\""));
+        assertThrows(IllegalArgumentException.class, () -> MiniJson.parse("\"\\u12\""));
+        assertThrows(IllegalArgumentException.class, () -> MiniJson.parse("\"\\u12zz\""));
+        assertThrows(IllegalArgumentException.class, () -> MiniJson.parse("\"offen"));
+        assertThrows(IllegalArgumentException.class, () -> MiniJson.parse("\"\\"));
+    }
+
+    @Test
+    void quoteRoundTrips() {
+        String value = "Zeile 1\nZeile 2\t\"zitiert\" \\ \u0001 ende";
+        String quoted = MiniJson.quote(value);
+        assertTrue(quoted.indexOf('\n') < 0 && quoted.indexOf('\u0001') < 0, quoted);
+        assertEquals(value, MiniJson.parse(quoted));
+    }
+
+    @Test
+    void numbersAreParsedAsDoubles() {
+        assertEquals(List.of(0.0, -1.5, 1500.0, 2.5e-3, 42.0), MiniJson.parse("[0, -1.5, 1.5e3, 2.5E-3, 42]"));
+        assertThrows(IllegalArgumentException.class, () -> MiniJson.parse("1.2.3"));
+        assertThrows(IllegalArgumentException.class, () -> MiniJson.parse("--1"));
+        assertThrows(IllegalArgumentException.class, () -> MiniJson.parse("[1, ]"));
+        assertThrows(IllegalArgumentException.class, () -> MiniJson.parse("x"));
+    }
+
+    @Test
+    void objectsKeepKeyOrderAndLiterals() {
+        Object parsed = MiniJson.parse(" { \"b\" : true, \"a\": [null, false], \"c\": {} } ");
+        Map<?, ?> object = (Map<?, ?>) parsed;
+        assertEquals(List.of("b", "a", "c"), List.copyOf(object.keySet()));
+        assertEquals(Boolean.TRUE, object.get("b"));
+        assertEquals(Arrays.asList(null, false), object.get("a"));
+        assertEquals(Map.of(), object.get("c"));
+        assertNull(MiniJson.parse("null"));
+    }
+
+    @Test
+    void trailingCharactersAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> MiniJson.parse("{} x"));
+        assertThrows(IllegalArgumentException.class, () -> MiniJson.parse("[1, 2]]"));
+        assertThrows(IllegalArgumentException.class, () -> MiniJson.parse("truex"));
+        assertThrows(IllegalArgumentException.class, () -> MiniJson.parse("{\"a\": 1}{"));
+        assertThrows(IllegalArgumentException.class, () -> MiniJson.parse(""));
+        assertThrows(IllegalArgumentException.class, () -> MiniJson.parse("{\"a\" 1}"));
+    }
+
+    //Tiefe Verschachtelung endet mit IllegalArgumentException statt StackOverflowError, auch über Request.fromJson
+    @Test
+    void nestingIsLimited() {
+        assertEquals(1, ((List<?>) MiniJson.parse(nested(MiniJson.MAX_DEPTH))).size());
+        assertThrows(IllegalArgumentException.class, () -> MiniJson.parse(nested(MiniJson.MAX_DEPTH + 1)));
+        assertThrows(IllegalArgumentException.class, () -> MiniJson.parse("[".repeat(1_000_000)));
+        assertThrows(IllegalArgumentException.class, () -> MiniJson.parse("{\"a\":".repeat(100_000)));
+        assertThrows(IllegalArgumentException.class, () -> BatchSolver.Request.fromJson("{\"distances\":" + "[".repeat(100_000) + "}"));
+
+        // Geschwister zählen nicht zur Tiefe
+        String wide = "[" + String.join(",", Collections.nCopies(1000, nested(MiniJson.MAX_DEPTH - 1))) + "]";
+        assertEquals(1000, ((List<?>) MiniJson.parse(wide)).size());
+    }
+
+    private static String nested(int depth) {
+        return "[".repeat(depth) + "1" + "]".repeat(depth);
+    }
+}
@@ -0,0 +1,78 @@
+package tsp.solver.test;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+//Gleicher Seed -> gleiche Touren, egal mit wie vielen Workern gebaut wird
+class ParallelConstructionTest {
+    private static ExecutorService executor;
+
+    @BeforeAll
+    static void startExecutor() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterAll
+    static void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    @ParameterizedTest
+    @EnumSource(PheromoneUpdateRule.class)
+    void sameToursForEveryParallelism(PheromoneUpdateRule rule) {
+        assertSameTours(rule, 0);
+    }
+
+    @ParameterizedTest
+    @EnumSource(PheromoneUpdateRule.class)
+    void sameToursForEveryParallelismWithCandidateLists(PheromoneUpdateRule rule) {
+        assertSameTours(rule, 8);
+    }
+
+    private static void assertSameTours(PheromoneUpdateRule rule, int candidateListSize) {
+        TSPAntColony sequential = colony(rule, candidateListSize, 1);
+        TSPAntColony two = colony(rule, candidateListSize, 2);
+        TSPAntColony four = colony(rule, candidateListSize, 4);
+        for (int iteration = 0; iteration < 50; iteration++) {
+            int[][] expected = step(sequential);
+            int[][] twoTours = step(two);
+            int[][] fourTours = step(four);
+            for (int ant = 0; ant < expected.length; ant++) {
+                assertArrayEquals(expected[ant], twoTours[ant], "parallelism 2, iteration " + iteration + ", ant " + ant);
+                assertArrayEquals(expected[ant], fourTours[ant], "parallelism 4, iteration " + iteration + ", ant " + ant);
+            }
+        }
+        assertEquals(sequential.getBestSoFarCost(), two.getBestSoFarCost());
+        assertEquals(sequential.getBestSoFarCost(), four.getBestSoFarCost());
+    }
+
+    //Eine Iteration, liefert Kopien der Touren, da die Puffer wiederverwendet werden
+    private static int[][] step(TSPAntColony colony) {
+        int[][] tours = colony.constructTours();
+        int[][] copies = new int[tours.length][];
+        for (int ant = 0; ant < tours.length; ant++) {
+            copies[ant] = tours[ant].clone();
+        }
+        colony.updatePheromones(tours);
+        colony.evaporatePheromones();
+        return copies;
+    }
+
+    private static TSPAntColony colony(PheromoneUpdateRule rule, int candidateListSize, int parallelism) {
+        TSPAntColony colony = TestInstances.colony(50, 11, 0.2, 1.0);
+        colony.setUpdateRule(rule);
+        colony.setCandidateListSize(candidateListSize);
+        colony.setParallelism(parallelism);
+        colony.setExecutor(executor);
+        colony.initializePheromones();
+        return colony;
+    }
+}
@@ -0,0 +1,96 @@
+package tsp.solver.test;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//MAX_MIN Grenzen nach der Verdunstung und die beiden ACS Regeln gegen von Hand nachgerechnete Pheromonwerte
+class PheromoneUpdateTest {
+    private static final int NODES = 40;
+    private static final double RHO = 0.1;
+
+    //tauMax = 1 / (rho * L) und tauMin = tauMax / 2n aus den Kosten der verstärkten Tour
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void maxMinKeepsEveryEdgeWithinBounds(boolean useBestSoFar) {
+        TSPAntColony colony = colony(PheromoneUpdateRule.MAX_MIN);
+        colony.setMaxMinUseBestSoFar(useBestSoFar);
+        for (int iteration = 0; iteration < 25; iteration++) {
+            int[][] tours = colony.constructTours();
+            double iterationBestCost = Double.POSITIVE_INFINITY;
+            for (int[] tour : tours) {
+                iterationBestCost = Math.min(iterationBestCost, colony.calculateTourCost(tour));
+            }
+            colony.updatePheromones(tours);
+            colony.evaporatePheromones();
+
+            double reinforcedCost = useBestSoFar ? colony.getBestSoFarCost() : iterationBestCost;
+            double tauMax = 1.0 / (RHO * reinforcedCost);
+            double tauMin = tauMax / (2.0 * NODES);
+            Matrix pheromones = colony.getPheromoneMatrix();
+            for (int i = 0; i < NODES; i++) {
+                for (int j = 0; j < NODES; j++) {
+                    if (i == j) {
+                        continue;
+                    }
+                    double tau = pheromones.get(i, j);
+                    assertTrue(tau >= tauMin * (1 - 1e-12) && tau <= tauMax * (1 + 1e-12),
+                            "iteration " + iteration + ", edge " + i + " -> " + j + ": " + tau + " not in [" + tauMin + ", " + tauMax + "]");
+                }
+            }
+        }
+    }
+
+    //Lokal: jede Ameise in fester Reihenfolge, tau = (1 - xi) * tau + xi * tau0 auf ihren Kanten.
+    //Global: tau = (1 - rho) * tau + rho / L nur auf der bisher besten Tour, alle anderen Kanten bleiben unverändert
+    @Test
+    void antColonySystemUpdatesMatchTheFormulas() {
+        double xi = 0.2;
+        TSPAntColony colony = colony(PheromoneUpdateRule.ANT_COLONY_SYSTEM);
+        colony.setLocalEvaporationRate(xi);
+        for (int iteration = 0; iteration < 10; iteration++) {
+            double[][] expected = colony.getPheromoneMatrix().toArray();
+            int[][] tours = colony.constructTours();
+            for (int[] tour : tours) {
+                for (int i = 0; i < NODES; i++) {
+                    int from = tour[i];
+                    int to = tour[i + 1];
+                    expected[from][to] = (1 - xi) * expected[from][to] + xi * 1.0;
+                }
+            }
+            assertMatrix(expected, colony.getPheromoneMatrix(), "local update, iteration " + iteration);
+
+            colony.updatePheromones(tours);
+            int[] best = colony.getBestSoFarTour().toArray();
+            double cost = colony.getBestSoFarCost();
+            for (int i = 0; i < NODES; i++) {
+                int from = best[i];
+                int to = best[i + 1];
+                expected[from][to] = (1 - RHO) * expected[from][to] + RHO / cost;
+            }
+            assertMatrix(expected, colony.getPheromoneMatrix(), "global update, iteration " + iteration);
+
+            // Keine Verdunstung ausserhalb der globalen Aktualisierung
+            colony.evaporatePheromones();
+            assertMatrix(expected, colony.getPheromoneMatrix(), "evaporation, iteration " + iteration);
+        }
+    }
+
+    private static TSPAntColony colony(PheromoneUpdateRule rule) {
+        TSPAntColony colony = TestInstances.colony(NODES, 8, RHO, 1.0);
+        colony.setUpdateRule(rule);
+        colony.initializePheromones();
+        return colony;
+    }
+
+    private static void assertMatrix(double[][] expected, Matrix actual, String message) {
+        for (int i = 0; i < NODES; i++) {
+            for (int j = 0; j < NODES; j++) {
+                assertEquals(expected[i][j], actual.get(i, j), 1e-12 * Math.abs(expected[i][j]), message + ", edge " + i + " -> " + j);
+            }
+        }
+    }
+}
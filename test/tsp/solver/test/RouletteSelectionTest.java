@@ -0,0 +1,86 @@
+package tsp.solver.test;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//Roulette über Präfixsummen: Verteilung gegen eine bekannte Gewichtszeile, Rückfälle bei besuchten Knoten und Nullzeilen
+class RouletteSelectionTest {
+
+    @Test
+    void selectionFollowsWeights() {
+        double[] weights = {0.0, 1.0, 2.0, 3.0, 5.0, 4.0, 0.5, 8.0, 2.5, 6.0};
+        boolean[] visited = new boolean[weights.length];
+        visited[4] = true;
+        visited[7] = true;
+        int n = weights.length;
+        ChoiceKernels kernels = ChoiceKernels.scalar();
+        double[] prefixSums = new double[n];
+        kernels.score(weights, 0, visited, prefixSums, n);
+        double total = kernels.prefixSums(prefixSums, n);
+        assertEquals(19.0, total);
+
+        int samples = 200_000;
+        int[] counts = new int[n];
+        SplittableRandom random = new SplittableRandom(9);
+        for (int sample = 0; sample < samples; sample++) {
+            counts[TSPAntColony.searchPrefixSums(prefixSums, n, random.nextDouble() * total)]++;
+        }
+        for (int node = 0; node < n; node++) {
+            double p = visited[node] ? 0.0 : weights[node] / total;
+            double expected = samples * p;
+            double tolerance = 5.0 * Math.sqrt(samples * p * (1.0 - p));
+            assertEquals(expected, counts[node], tolerance, "node " + node);
+        }
+        assertEquals(0, counts[0]);
+        assertEquals(0, counts[4]);
+        assertEquals(0, counts[7]);
+    }
+
+    @Test
+    void searchFindsFirstPrefixAboveTarget() {
+        double[] prefixSums = {1.0, 1.0, 3.0, 6.0};
+        assertEquals(0, TSPAntColony.searchPrefixSums(prefixSums, 4, 0.0));
+        assertEquals(2, TSPAntColony.searchPrefixSums(prefixSums, 4, 1.0));
+        assertEquals(2, TSPAntColony.searchPrefixSums(prefixSums, 4, 2.999));
+        assertEquals(3, TSPAntColony.searchPrefixSums(prefixSums, 4, 3.0));
+        assertEquals(3, TSPAntColony.searchPrefixSums(prefixSums, 4, 7.0));
+        assertEquals(0, TSPAntColony.searchPrefixSums(prefixSums, 1, 5.0));
+    }
+
+    //Rundung in den Präfixsummen kann auf einen besuchten Knoten zeigen, dann der nächste unbesuchte, sonst der davor
+    @Test
+    void visitedHitFallsBackToNearestUnvisited() {
+        double[] prefixSums = {1.0, 1.0 + 1e-9, 2.0, 3.0};
+        boolean[] visited = {false, true, true, false};
+        int hit = TSPAntColony.searchPrefixSums(prefixSums, 4, 1.0);
+        assertEquals(1, hit);
+        assertEquals(3, TSPAntColony.nearestUnvisitedNode(visited, 4, hit));
+
+        boolean[] tail = {false, true, false, true, true};
+        assertEquals(2, TSPAntColony.nearestUnvisitedNode(tail, 5, 3));
+        assertThrows(IllegalStateException.class, () -> TSPAntColony.nearestUnvisitedNode(new boolean[]{true, true}, 2, 0));
+    }
+
+    //alpha 1000 lässt eta = 1 / d^alpha für alle Kanten zu 0 unterlaufen: jeder Schritt ist ein gleichverteilter Rückfall
+    @Test
+    void allZeroRowCountsAsSelectionFallback() {
+        TSPAntColony colony = new TSPAntColony(20, 1.0, 0.1, 1.0, 1000.0);
+        colony.setDistances(TestInstances.randomEuclidean(20, 4));
+        colony.setSeed(4);
+        colony.initializePheromones();
+        ColonyMetrics metrics = colony.enableMetrics();
+        for (int iteration = 0; iteration < 3; iteration++) {
+            int[][] tours = colony.constructTours();
+            for (int[] tour : tours) {
+                assertTrue(TestInstances.isValidTour(tour, 20));
+            }
+        }
+        assertEquals(3L * 20 * 19, metrics.getAntSteps());
+        assertEquals(metrics.getAntSteps(), metrics.getSelectionFallbacks());
+    }
+}
@@ -0,0 +1,190 @@
+package tsp.solver.test;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//solve() mit SolveBudget: jeder Stoppgrund, cancel() vor und während eines Laufs, Interrupt, Zustellung über den Publisher
+//und die Kopie der bisher besten Tour
+class SolveTest {
+
+    @Test
+    void stopsAfterMaxIterations() {
+        TSPAntColony colony = colony(30);
+        SolveResult result = colony.solve(SolveBudget.ofIterations(7));
+        assertEquals(SolveResult.StopReason.MAX_ITERATIONS, result.getStopReason());
+        assertEquals(7, result.getIterations());
+        assertBestTour(colony, result);
+    }
+
+    @Test
+    void stopsOnStagnation() {
+        TSPAntColony colony = colony(8);
+        SolveResult result = colony.solve(SolveBudget.ofIterations(100_000).withStagnationLimit(5));
+        assertEquals(SolveResult.StopReason.STAGNATION, result.getStopReason());
+        assertTrue(result.getIterations() >= 5 && result.getIterations() < 100_000, result.toString());
+        assertBestTour(colony, result);
+    }
+
+    //Eine Iteration wird nur begonnen, wenn sie noch ins Budget passt: fertig lange vor dem Fünffachen der Zeit
+    @Test
+    void stopsAtTimeLimit() {
+        TSPAntColony colony = colony(120);
+        SolveResult result = colony.solve(SolveBudget.ofTime(Duration.ofMillis(200)));
+        assertEquals(SolveResult.StopReason.TIME_LIMIT, result.getStopReason());
+        assertTrue(result.getIterations() > 0);
+        assertTrue(result.getElapsedMillis() < 1000, result.toString());
+        assertBestTour(colony, result);
+    }
+
+    //Ein cancel() vor solve() beendet genau das nächste solve(), danach läuft die Kolonie normal weiter
+    @Test
+    void cancelBeforeSolveStopsTheNextRunOnly() {
+        TSPAntColony colony = colony(20);
+        colony.cancel();
+        SolveResult cancelled = colony.solve(SolveBudget.unlimited());
+        assertEquals(SolveResult.StopReason.CANCELLED, cancelled.getStopReason());
+        assertEquals(0, cancelled.getIterations());
+
+        SolveResult next = colony.solve(SolveBudget.ofIterations(3));
+        assertEquals(SolveResult.StopReason.MAX_ITERATIONS, next.getStopReason());
+        assertEquals(3, next.getIterations());
+    }
+
+    @Test
+    void cancelStopsRunningSolve() throws Exception {
+        TSPAntColony colony = colony(60);
+        CountDownLatch improved = new CountDownLatch(1);
+        colony.addSolveListener(progress -> improved.countDown());
+        CompletableFuture<SolveResult> run = CompletableFuture.supplyAsync(() -> colony.solve(SolveBudget.unlimited()));
+        assertTrue(improved.await(10, TimeUnit.SECONDS));
+        colony.cancel();
+
+        SolveResult result = run.get(10, TimeUnit.SECONDS);
+        assertEquals(SolveResult.StopReason.CANCELLED, result.getStopReason());
+        assertTrue(result.getIterations() > 0);
+        assertBestTour(colony, result);
+        assertEquals(SolveResult.StopReason.MAX_ITERATIONS, colony.solve(SolveBudget.ofIterations(1)).getStopReason());
+    }
+
+    @Test
+    void interruptStopsRunningSolve() throws Exception {
+        TSPAntColony colony = colony(60);
+        CountDownLatch improved = new CountDownLatch(1);
+        colony.addSolveListener(progress -> improved.countDown());
+        AtomicReference<SolveResult> result = new AtomicReference<>();
+        Thread thread = new Thread(() -> result.set(colony.solve(SolveBudget.unlimited())));
+        thread.start();
+        assertTrue(improved.await(10, TimeUnit.SECONDS));
+        thread.interrupt();
+        thread.join(10_000);
+
+        assertNotNull(result.get());
+        assertEquals(SolveResult.StopReason.CANCELLED, result.get().getStopReason());
+        assertBestTour(colony, result.get());
+    }
+
+    //Jede Verbesserung kommt genau einmal, in aufsteigender Iteration mit fallenden Kosten, die letzte ist das Ergebnis
+    @Test
+    void publisherDeliversEveryImprovement() throws Exception {
+        TSPAntColony colony = colony(40);
+        List<SolveProgress> listened = new CopyOnWriteArrayList<>();
+        colony.addSolveListener(listened::add);
+        List<SolveProgress> published = new CopyOnWriteArrayList<>();
+        CountDownLatch completed = new CountDownLatch(1);
+        colony.getProgressPublisher().subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(SolveProgress item) {
+                published.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                completed.countDown();
+            }
+
+            @Override
+            public void onComplete() {
+                completed.countDown();
+            }
+        });
+
+        SolveResult result = colony.solve(SolveBudget.ofIterations(30));
+        colony.closeProgressPublisher();
+        assertTrue(completed.await(10, TimeUnit.SECONDS));
+
+        assertTrue(published.size() > 0);
+        assertEquals(listened.size(), published.size());
+        for (int i = 1; i < published.size(); i++) {
+            assertTrue(published.get(i).getIteration() > published.get(i - 1).getIteration());
+            assertTrue(published.get(i).getBestCost() < published.get(i - 1).getBestCost());
+        }
+        SolveProgress last = published.get(published.size() - 1);
+        assertEquals(result.getBestCost(), last.getBestCost());
+        assertTrue(TestInstances.isValidTour(last.getBestTour().toArray(), colony.getNodes()));
+    }
+
+    //getBestSoFarTour() ist eine Kopie: die live Tour wird beim nächsten Tourbau als Ameisen-Puffer wiederverwendet
+    @Test
+    void bestSoFarTourIsASnapshot() {
+        TSPAntColony colony = colony(40);
+        colony.solve(SolveBudget.ofIterations(1));
+        Tour snapshot = colony.getBestSoFarTour();
+        int[] nodes = snapshot.toArray();
+        double cost = snapshot.getCost();
+        assertNotSame(colony.liveBestSoFarTour(), snapshot);
+
+        SolveResult result = colony.solve(SolveBudget.ofIterations(200).withStagnationLimit(50));
+        assertTrue(result.getBestCost() < cost, "no improvement to overwrite the old best tour");
+        assertArrayEquals(nodes, snapshot.toArray());
+        assertEquals(cost, snapshot.getCost());
+        assertTrue(TestInstances.isValidTour(snapshot.toArray(), colony.getNodes()));
+    }
+
+    //Der IslandSolver fragt seinen eigenen Abbruch ab und hinterlässt keinen offenen cancel() in den Inseln
+    @Test
+    void islandCancelIsConsumedByOneSolve() throws Exception {
+        List<TSPAntColony> islands = List.of(colony(20), colony(20));
+        IslandSolver solver = new IslandSolver(islands).setMigrationInterval(2);
+        solver.cancel();
+        assertEquals(SolveResult.StopReason.CANCELLED, solver.solve(SolveBudget.ofIterations(10)).getStopReason());
+
+        SolveResult result = solver.solve(SolveBudget.ofIterations(10));
+        assertEquals(SolveResult.StopReason.MAX_ITERATIONS, result.getStopReason());
+        assertEquals(20, result.getIterations());
+        for (TSPAntColony island : islands) {
+            assertEquals(SolveResult.StopReason.MAX_ITERATIONS, island.solve(SolveBudget.ofIterations(1)).getStopReason());
+        }
+    }
+
+    private static TSPAntColony colony(int nodes) {
+        TSPAntColony colony = TestInstances.colony(nodes, 11, 0.1, 1.0);
+        colony.initializePheromones();
+        return colony;
+    }
+
+    private static void assertBestTour(TSPAntColony colony, SolveResult result) {
+        int[] tour = result.getBestTour().toArray();
+        assertTrue(TestInstances.isValidTour(tour, colony.getNodes()));
+        assertEquals(colony.calculateTourCost(tour), result.getBestCost(), 1e-9);
+        assertEquals(colony.getBestSoFarCost(), result.getBestCost());
+    }
+}
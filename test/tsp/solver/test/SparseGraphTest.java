@@ -0,0 +1,154 @@
+package tsp.solver.test;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//CSR Aufbau des SparseGraph und Touren der SparseAntColony auf Graphen mit bekanntem Hamiltonkreis
+class SparseGraphTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void edgesAreSortedPerRowAndDuplicatesKeepLightestWeight() {
+        SparseGraph graph = SparseGraph.builder(4)
+                .addEdge(2, 0, 4.0)
+                .addEdge(0, 3, 7.0)
+                .addEdge(0, 1, 2.0)
+                .addEdge(0, 3, 5.0)
+                .addEdge(0, 3, 6.0)
+                .addEdge(1, 1, 1.0)
+                .addEdge(1, 0, 2.0)
+                .build();
+
+        assertEquals(4, graph.size());
+        assertEquals(4, graph.edgeCount());
+        assertEquals(2, graph.degree(0));
+        assertEquals(1, graph.degree(1));
+        assertEquals(1, graph.degree(2));
+        assertEquals(0, graph.degree(3));
+        assertEquals(1, graph.target(graph.edgeStart(0)));
+        assertEquals(3, graph.target(graph.edgeStart(0) + 1));
+        assertEquals(graph.edgeEnd(0), graph.edgeStart(1));
+        assertEquals(5.0, graph.weight(graph.edgeIndex(0, 3)));
+        assertEquals(-1, graph.edgeIndex(1, 1));
+        assertEquals(-1, graph.edgeIndex(3, 0));
+    }
+
+    @Test
+    void reverseEdgesAreLinked() {
+        SparseGraph graph = SparseGraph.builder(3)
+                .addUndirectedEdge(0, 1, 1.0)
+                .addUndirectedEdge(1, 2, 2.0)
+                .addEdge(2, 0, 3.0)
+                .build();
+
+        int forward = graph.edgeIndex(1, 2);
+        int backward = graph.edgeIndex(2, 1);
+        assertEquals(backward, graph.reverseEdge(forward));
+        assertEquals(forward, graph.reverseEdge(backward));
+        assertEquals(-1, graph.reverseEdge(graph.edgeIndex(2, 0)));
+        assertFalse(graph.isSymmetric());
+
+        SparseGraph undirected = SparseGraph.builder(3)
+                .addUndirectedEdge(0, 1, 1.0)
+                .addUndirectedEdge(1, 2, 2.0)
+                .build();
+        assertTrue(undirected.isSymmetric());
+    }
+
+    @Test
+    void invalidEdgesAreRejected() {
+        SparseGraph.Builder builder = SparseGraph.builder(3);
+        assertThrows(IllegalArgumentException.class, () -> builder.addEdge(0, 3, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> builder.addEdge(-1, 0, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> builder.addEdge(0, 1, -1.0));
+        assertThrows(IllegalArgumentException.class, () -> builder.addEdge(0, 1, Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> SparseGraph.builder(2));
+    }
+
+    @Test
+    void dimacsFileIsReadWithOneBasedNodes() throws IOException {
+        Path file = Files.write(directory.resolve("ring.gr"), String.join("\n",
+                "c Ring mit vier Knoten",
+                "p sp 4 5",
+                "a 1 2 3",
+                "a 2 3 4",
+                "a 3 4 5",
+                "a 4 1 6",
+                "a 1 2 1",
+                "").getBytes(StandardCharsets.ISO_8859_1));
+        SparseGraph graph = SparseGraph.readDimacs(file);
+        assertEquals(4, graph.size());
+        assertEquals(4, graph.edgeCount());
+        assertEquals(1.0, graph.weight(graph.edgeIndex(0, 1)));
+        assertEquals(6.0, graph.weight(graph.edgeIndex(3, 0)));
+
+        Path broken = Files.write(directory.resolve("broken.gr"), "a 1 2 3\n".getBytes(StandardCharsets.ISO_8859_1));
+        assertThrows(IOException.class, () -> SparseGraph.readDimacs(broken));
+    }
+
+    @Test
+    void colonyFindsTheOnlyCycleOfASquare() {
+        SparseGraph square = SparseGraph.builder(4)
+                .addUndirectedEdge(0, 1, 1.0)
+                .addUndirectedEdge(1, 2, 1.0)
+                .addUndirectedEdge(2, 3, 1.0)
+                .addUndirectedEdge(3, 0, 1.0)
+                .build();
+        SparseAntColony colony = colony(square);
+        colony.solve(SolveBudget.ofIterations(5));
+        assertEquals(0, colony.getBestSoFarJumps());
+        assertEquals(4.0, colony.getBestSoFarCost());
+        assertHamiltonianCycle(square, colony.getBestSoFarTour().toArray());
+    }
+
+    //Ring aus leichten Kanten mit schweren Sehnen (i, i + 3): der Ring ist der kürzeste Hamiltonkreis
+    @Test
+    void colonyFindsHamiltonianRingWithoutJumps() {
+        int nodes = 30;
+        SparseGraph.Builder builder = SparseGraph.builder(nodes);
+        for (int i = 0; i < nodes; i++) {
+            builder.addUndirectedEdge(i, (i + 1) % nodes, 1.0);
+            builder.addUndirectedEdge(i, (i + 3) % nodes, 5.0);
+        }
+        SparseGraph ring = builder.build();
+        SparseAntColony colony = colony(ring);
+        colony.solve(SolveBudget.ofIterations(200));
+
+        assertEquals(0, colony.getBestSoFarJumps());
+        int[] tour = colony.getBestSoFarTour().toArray();
+        assertHamiltonianCycle(ring, tour);
+        double cost = 0.0;
+        for (int i = 0; i < nodes; i++) {
+            cost += ring.weight(ring.edgeIndex(tour[i], tour[i + 1]));
+        }
+        assertEquals(cost, colony.getBestSoFarCost(), 1e-9);
+        assertEquals(nodes, colony.getBestSoFarCost(), 1e-9);
+    }
+
+    private static SparseAntColony colony(SparseGraph graph) {
+        SparseAntColony colony = new SparseAntColony(graph, 1.0, 0.1, 1.0, 2.0);
+        colony.setSeed(13);
+        colony.initializePheromones();
+        return colony;
+    }
+
+    //Geschlossene Tour über alle Knoten, die nur Kanten des Graphen benutzt
+    private static void assertHamiltonianCycle(SparseGraph graph, int[] tour) {
+        assertTrue(TestInstances.isValidTour(tour, graph.size()));
+        for (int i = 0; i < graph.size(); i++) {
+            assertTrue(graph.edgeIndex(tour[i], tour[i + 1]) >= 0, "no edge " + tour[i] + " -> " + tour[i + 1]);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package tsp.solver.test;
+
+import java.util.Random;
+
+//Reproduzierbare Instanzen für die Tests
+final class TestInstances {
+
+    private TestInstances() {
+    }
+
+    //Zufällige Punkte im Quadrat [0, 1000)², euklidische Distanzen ohne Rundung
+    static double[][] randomEuclidean(int nodes, long seed) {
+        Random random = new Random(seed);
+        double[] x = new double[nodes];
+        double[] y = new double[nodes];
+        for (int i = 0; i < nodes; i++) {
+            x[i] = random.nextDouble() * 1000;
+            y[i] = random.nextDouble() * 1000;
+        }
+        double[][] distances = new double[nodes][nodes];
+        for (int i = 0; i < nodes; i++) {
+            for (int j = 0; j < nodes; j++) {
+                distances[i][j] = Math.hypot(x[i] - x[j], y[i] - y[j]);
+            }
+        }
+        return distances;
+    }
+
+    //Kolonie mit initialPheromone 1 und alpha 2 über einer zufälligen Instanz, fester Seed
+    static TSPAntColony colony(int nodes, long seed, double evaporationRate, double q) {
+        TSPAntColony colony = new TSPAntColony(nodes, 1.0, evaporationRate, q, 2.0);
+        colony.setDistances(randomEuclidean(nodes, seed));
+        colony.setSeed(seed);
+        return colony;
+    }
+
+    //Geschlossene Tour, die jeden Knoten genau einmal besucht
+    static boolean isValidTour(int[] tour, int nodes) {
+        if (tour.length != nodes + 1 || tour[0] != tour[nodes]) {
+            return false;
+        }
+        boolean[] seen = new boolean[nodes];
+        for (int i = 0; i < nodes; i++) {
+            if (tour[i] < 0 || tour[i] >= nodes || seen[tour[i]]) {
+                return false;
+            }
+            seen[tour[i]] = true;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,227 @@
+package tsp.solver.test;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//Distanzfunktionen und Formate gegen die bekannten optimalen Tourlängen der TSPLIB Instanzen.
+//Kleine Instanzen werden exakt per dynamischer Programmierung gelöst, bei att48 und berlin52 wird die optimale Tour bewertet
+class TspLibReaderTest {
+
+    private static final String BURMA14 = String.join("\n",
+            "NAME: burma14",
+            "TYPE: TSP",
+            "COMMENT: 14-Staedte in Burma (Zaw Win)",
+            "DIMENSION: 14",
+            "EDGE_WEIGHT_TYPE: GEO",
+            "EDGE_WEIGHT_FORMAT: FUNCTION",
+            "DISPLAY_DATA_TYPE: COORD_DISPLAY",
+            "NODE_COORD_SECTION",
+            "   1  16.47       96.10",
+            "   2  16.47       94.44",
+            "   3  20.09       92.54",
+            "   4  22.39       93.37",
+            "   5  25.23       97.24",
+            "   6  22.00       96.05",
+            "   7  20.47       97.02",
+            "   8  17.20       96.29",
+            "   9  16.30       97.38",
+            "  10  14.05       98.12",
+            "  11  16.53       97.38",
+            "  12  21.52       95.59",
+            "  13  19.41       97.13",
+            "  14  20.09       94.55",
+            "EOF");
+
+    private static final String GR17 = String.join("\n",
+            "NAME: gr17",
+            "TYPE: TSP",
+            "COMMENT: 17-city problem (Groetschel)",
+            "DIMENSION: 17",
+            "EDGE_WEIGHT_TYPE: EXPLICIT",
+            "EDGE_WEIGHT_FORMAT: LOWER_DIAG_ROW",
+            "EDGE_WEIGHT_SECTION",
+            " 0 633 0 257 390 0 91 661 228 0 412 227",
+            " 169 383 0 150 488 112 120 267 0 80 572 196",
+            " 77 351 63 0 134 530 154 105 309 34 29 0",
+            " 259 555 372 175 338 264 232 249 0 505 289 262",
+            " 476 196 360 444 402 495 0 353 282 110 324 61",
+            " 208 292 250 352 154 0 324 638 437 240 421 329",
+            " 297 314 95 578 435 0 70 567 191 27 346 83",
+            " 47 68 189 439 287 254 0 211 466 74 182 243",
+            " 105 150 108 326 336 184 391 145 0 268 420 53",
+            " 239 199 123 207 165 383 240 140 448 202 57 0",
+            " 246 745 472 237 528 364 332 349 202 685 542 157",
+            " 289 426 483 0 121 518 142 84 297 35 29 36",
+            " 236 390 238 301 55 96 153 336 0",
+            "EOF");
+
+    private static final double[][] ATT48 = {
+            {6734, 1453}, {2233, 10}, {5530, 1424}, {401, 841}, {3082, 1644}, {7608, 4458}, {7573, 3716}, {7265, 1268},
+            {6898, 1885}, {1112, 2049}, {5468, 2606}, {5989, 2873}, {4706, 2674}, {4612, 2035}, {6347, 2683}, {6107, 669},
+            {7611, 5184}, {7462, 3590}, {7732, 4723}, {5900, 3561}, {4483, 3369}, {6101, 1110}, {5199, 2182}, {1633, 2809},
+            {4307, 2322}, {675, 1006}, {7555, 4819}, {7541, 3981}, {3177, 756}, {7352, 4506}, {7545, 2801}, {3245, 3305},
+            {6426, 3173}, {4608, 1198}, {23, 2216}, {7248, 3779}, {7762, 4595}, {7392, 2244}, {3484, 2829}, {6271, 2135},
+            {4985, 140}, {1916, 1569}, {7280, 4899}, {7509, 3239}, {10, 2676}, {6807, 2993}, {5185, 3258}, {3023, 1942}};
+
+    private static final int[] ATT48_OPTIMAL_TOUR = {
+            1, 8, 38, 31, 44, 18, 7, 28, 6, 37, 19, 27, 17, 43, 30, 36, 46, 33, 20, 47, 21, 32, 39, 48,
+            5, 42, 24, 10, 45, 35, 4, 26, 2, 29, 34, 41, 16, 22, 3, 23, 14, 25, 13, 11, 12, 15, 40, 9};
+
+    private static final double[][] BERLIN52 = {
+            {565, 575}, {25, 185}, {345, 750}, {945, 685}, {845, 655}, {880, 660}, {25, 230}, {525, 1000},
+            {580, 1175}, {650, 1130}, {1605, 620}, {1220, 580}, {1465, 200}, {1530, 5}, {845, 680}, {725, 370},
+            {145, 665}, {415, 635}, {510, 875}, {560, 365}, {300, 465}, {520, 585}, {480, 415}, {835, 625},
+            {975, 580}, {1215, 245}, {1320, 315}, {1250, 400}, {660, 180}, {410, 250}, {420, 555}, {575, 665},
+            {1150, 1160}, {700, 580}, {685, 595}, {685, 610}, {770, 610}, {795, 645}, {720, 635}, {760, 650},
+            {475, 960}, {95, 260}, {875, 920}, {700, 500}, {555, 815}, {830, 485}, {1170, 65}, {830, 610},
+            {605, 625}, {595, 360}, {1340, 725}, {1740, 245}};
+
+    private static final int[] BERLIN52_OPTIMAL_TOUR = {
+            1, 49, 32, 45, 19, 41, 8, 9, 10, 43, 33, 51, 11, 52, 14, 13, 47, 26, 27, 28, 12, 25, 4, 6, 15, 5,
+            24, 48, 38, 37, 40, 39, 36, 35, 34, 44, 46, 16, 29, 50, 20, 23, 30, 2, 7, 42, 21, 17, 3, 18, 31, 22};
+
+    // Fünfeck, dessen kurze Kanten (Länge 5.39) bei EUC_2D ab- und bei CEIL_2D aufgerundet werden
+    private static final double[][] PENTAGON = {{0, 0}, {5, -2}, {10, 0}, {10, 10}, {0, 10}};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void geoInstanceHasKnownOptimum() throws IOException {
+        TspInstance instance = TspLibReader.read(write("burma14.tsp", BURMA14));
+        assertEquals("burma14", instance.getName());
+        assertEquals(14, instance.getDimension());
+        assertInstanceOf(CoordinateMatrix.class, instance.getDistances());
+        assertEquals(3323.0, optimalTourLength(instance.getDistances()));
+    }
+
+    @Test
+    void explicitInstanceHasKnownOptimumInEveryStorage() throws IOException {
+        Path file = write("gr17.tsp", GR17);
+        for (MatrixStorage storage : MatrixStorage.values()) {
+            TspInstance instance = TspLibReader.read(file, storage);
+            assertEquals(17, instance.getDimension());
+            assertFalse(instance.hasCoordinates());
+            assertEquals(2085.0, optimalTourLength(instance.getDistances()), storage.name());
+        }
+    }
+
+    @Test
+    void cachedExplicitInstanceMatchesParsedOne() throws IOException {
+        Path file = write("gr17.tsp", GR17);
+        Path cache = directory.resolve("gr17.bin");
+        Matrix parsed = TspLibReader.readCached(file, cache).getDistances();
+        assertTrue(Files.exists(cache));
+        Matrix cached = TspLibReader.readCached(file, cache).getDistances();
+        for (int i = 0; i < 17; i++) {
+            for (int j = 0; j < 17; j++) {
+                assertEquals(parsed.get(i, j), cached.get(i, j));
+            }
+        }
+    }
+
+    @Test
+    void attInstanceHasKnownOptimalTour() throws IOException {
+        TspInstance instance = TspLibReader.read(write("att48.tsp", coordinateInstance("att48", "ATT", ATT48)));
+        assertEquals(10628.0, tourLength(instance.getDistances(), ATT48_OPTIMAL_TOUR));
+    }
+
+    @Test
+    void euclideanInstanceHasKnownOptimalTour() throws IOException {
+        TspInstance instance = TspLibReader.read(write("berlin52.tsp", coordinateInstance("berlin52", "EUC_2D", BERLIN52)));
+        assertTrue(instance.hasCoordinates());
+        assertEquals(7542.0, tourLength(instance.getDistances(), BERLIN52_OPTIMAL_TOUR));
+    }
+
+    @Test
+    void ceilingRoundsUpWhereEuclideanRoundsToNearest() throws IOException {
+        Matrix euclidean = TspLibReader.read(write("pentagon.tsp", coordinateInstance("pentagon", "EUC_2D", PENTAGON))).getDistances();
+        Matrix ceiling = TspLibReader.read(write("pentagon.tsp", coordinateInstance("pentagon", "CEIL_2D", PENTAGON))).getDistances();
+        assertEquals(5.0, euclidean.get(0, 1));
+        assertEquals(6.0, ceiling.get(0, 1));
+        assertEquals(40.0, optimalTourLength(euclidean));
+        assertEquals(42.0, optimalTourLength(ceiling));
+    }
+
+    @Test
+    void unsupportedInstancesAreRejected() throws IOException {
+        Path asymmetric = write("br17.atsp", "NAME: br17\nTYPE: ATSP\nDIMENSION: 3\nEDGE_WEIGHT_TYPE: EXPLICIT\n"
+                + "EDGE_WEIGHT_FORMAT: FULL_MATRIX\nEDGE_WEIGHT_SECTION\n0 1 2\n1 0 3\n2 3 0\nEOF");
+        assertThrows(IOException.class, () -> TspLibReader.read(asymmetric));
+        Path truncated = write("truncated.tsp", "NAME: t\nTYPE: TSP\nDIMENSION: 3\nEDGE_WEIGHT_TYPE: EUC_2D\n"
+                + "NODE_COORD_SECTION\n1 0 0\n2 1 1\n");
+        assertThrows(IOException.class, () -> TspLibReader.read(truncated));
+        Path unknownType = write("unknown.tsp", coordinateInstance("unknown", "MAN_3D", PENTAGON));
+        assertThrows(IOException.class, () -> TspLibReader.read(unknownType));
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.write(directory.resolve(name), content.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static String coordinateInstance(String name, String edgeWeightType, double[][] points) {
+        StringBuilder builder = new StringBuilder();
+        builder.append("NAME: ").append(name).append('\n')
+                .append("TYPE: TSP\n")
+                .append("DIMENSION: ").append(points.length).append('\n')
+                .append("EDGE_WEIGHT_TYPE: ").append(edgeWeightType).append('\n')
+                .append("NODE_COORD_SECTION\n");
+        for (int i = 0; i < points.length; i++) {
+            builder.append(i + 1).append(' ').append(points[i][0]).append(' ').append(points[i][1]).append('\n');
+        }
+        return builder.append("EOF\n").toString();
+    }
+
+    //Länge einer geschlossenen Tour mit 1-basierten Knoten wie in den .opt.tour Dateien
+    private static double tourLength(Matrix distances, int[] tour) {
+        double length = 0.0;
+        for (int i = 0; i < tour.length; i++) {
+            length += distances.get(tour[i] - 1, tour[(i + 1) % tour.length] - 1);
+        }
+        return length;
+    }
+
+    //Held-Karp: best[set][last] = kürzester Weg von Knoten 0 durch set, der in last endet. O(2^n * n^2), nur für kleine n
+    private static double optimalTourLength(Matrix distances) {
+        int n = distances.size();
+        int full = 1 << (n - 1);
+        double[][] best = new double[full][n - 1];
+        for (double[] row : best) {
+            Arrays.fill(row, Double.POSITIVE_INFINITY);
+        }
+        for (int last = 0; last < n - 1; last++) {
+            best[1 << last][last] = distances.get(0, last + 1);
+        }
+        for (int set = 1; set < full; set++) {
+            for (int last = 0; last < n - 1; last++) {
+                double length = best[set][last];
+                if ((set & (1 << last)) == 0 || length == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                for (int next = 0; next < n - 1; next++) {
+                    if ((set & (1 << next)) == 0) {
+                        int extended = set | (1 << next);
+                        best[extended][next] = Math.min(best[extended][next], length + distances.get(last + 1, next + 1));
+                    }
+                }
+            }
+        }
+        double optimum = Double.POSITIVE_INFINITY;
+        for (int last = 0; last < n - 1; last++) {
+            optimum = Math.min(optimum, best[full - 1][last] + distances.get(last + 1, 0));
+        }
+        return optimum;
+    }
+}